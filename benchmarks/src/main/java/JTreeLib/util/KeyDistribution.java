@@ -0,0 +1,98 @@
+package JTreeLib.util;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/** Distribution of keys inserted into and looked up in benchmarked trees
+ */
+public enum KeyDistribution {
+    /** Keys drawn uniformly from a range 4 times the number of keys
+     */
+    UNIFORM,
+
+    /** Keys 0, 1, 2, ... in ascending order, the worst case for unbalanced search trees
+     */
+    SORTED,
+
+    /** Keys drawn with Zipfian skew (exponent 0.99) from a range 4 times the number of keys, so a few keys repeat often
+     */
+    ZIPFIAN;
+
+    /** Exponent of Zipfian distribution, as used by YCSB
+     */
+    public static final double ZIPFIAN_EXPONENT = 0.99;
+
+    //MEMBER FUNCTIONS
+    //ACCESSORS
+    /** Generates keys following this distribution
+     * @param count Number of keys
+     * @param seed Seed of random generator, so runs are repeatable
+     * @return Generated keys, possibly with repeats except for <i>SORTED</i>
+     */
+    public long[] generate(int count, long seed){
+        SplittableRandom random = new SplittableRandom(seed);
+        long range = 4L * Math.max(count, 1);
+        long[] keys = new long[count];
+        switch(this){
+            case SORTED:
+                Arrays.setAll(keys, i -> i);
+                break;
+            case UNIFORM:
+                for(int i = 0; i < count; i++)
+                    keys[i] = random.nextLong(range);
+                break;
+            default:
+                Zipfian zipfian = new Zipfian(range);
+                for(int i = 0; i < count; i++)
+                    keys[i] = zipfian.next(random);
+        }
+        return keys;
+    }
+
+    /** Draws ranks in <i>[0, items)</i> with Zipfian skew using the constant-time method of Gray et al., as in YCSB.
+     * Ranks are scrambled with a multiplicative hash so popular keys are spread over the range instead of clustered at 0.
+     */
+    private static final class Zipfian {
+        //MEMBER VARIABLES
+        private final long items;
+        private final double alpha, zetaN, eta;
+
+        //MEMBER FUNCTIONS
+        //CONSTRUCTORS
+        /** Constructor precomputes normalization constants for <i>items</i> ranks
+         * @param items Number of distinct ranks
+         */
+        Zipfian(long items){
+            double theta = KeyDistribution.ZIPFIAN_EXPONENT, zeta2 = Zipfian.zeta(2, theta);
+            this.items = items;
+            this.alpha = 1.0 / (1.0 - theta);
+            this.zetaN = Zipfian.zeta(items, theta);
+            this.eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta2 / this.zetaN);
+        }
+
+        /** Computes generalized harmonic number <i>sum of 1 / i^theta for i in [1, n]</i>
+         * @param n Number of terms
+         * @param theta Exponent
+         * @return Generalized harmonic number
+         */
+        private static double zeta(long n, double theta){
+            double sum = 0;
+            for(long i = 1; i <= n; i++)
+                sum += 1 / Math.pow(i, theta);
+            return sum;
+        }
+
+        //MUTATORS
+        /** Draws next scrambled rank
+         * @param random Source of uniform randomness
+         * @return Key in <i>[0, items)</i>
+         */
+        long next(SplittableRandom random){
+            double u = random.nextDouble(), uz = u * this.zetaN;
+            long rank = uz < 1 ? 0 : uz < 1 + Math.pow(0.5, KeyDistribution.ZIPFIAN_EXPONENT) ? 1
+                    : (long)(this.items * Math.pow(this.eta * u - this.eta + 1, this.alpha));
+            return Math.floorMod(Math.min(rank, this.items - 1) * 0x9E3779B97F4A7C15L, this.items);
+        }
+
+    }
+
+}
@@ -0,0 +1,170 @@
+package JTreeLib.util;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Compares keyed search trees with <i>TreeMap</i> and <i>HashMap</i>. The structure is shared by all benchmark threads,
+ * so running with <i>-t N</i> measures concurrent readers; <i>bulkBuild</i> constructs a private structure per call from
+ * every key at once, the trees with <i>insertAll</i> and the maps with <i>putAll</i> of a sorted map.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SearchTreeBenchmark {
+    //MEMBER VARIABLES
+    /** Structures under test
+     */
+    public enum Structure { BINARY_SEARCH_TREE, AVL_TREE, TREE_MAP, HASH_MAP }
+
+    /** Number of keys generated; repeats are dropped, so stored keys may be fewer. Pass <i>-p size=100000000</i> with a
+     * larger heap for the biggest runs.
+     */
+    @Param({"1000", "100000", "10000000"})
+    public int size;
+
+    @Param({"UNIFORM", "SORTED", "ZIPFIAN"})
+    public KeyDistribution distribution;
+
+    @Param({"BINARY_SEARCH_TREE", "AVL_TREE", "TREE_MAP", "HASH_MAP"})
+    public Structure structure;
+
+    /** Generated keys, boxed once so boxing is not measured
+     */
+    private Long[] keys;
+
+    /** Distinct <i>keys</i> in ascending order, the source of every bulk build
+     */
+    private SortedMap<Long, Boolean> sortedKeys;
+
+    /** Structure built from <i>keys</i>
+     */
+    private Adapter adapter;
+
+    //MEMBER FUNCTIONS
+    @Setup(Level.Trial)
+    public void setUp(){
+        long[] generated = this.distribution.generate(this.size, 42L);
+        this.keys = new Long[generated.length];
+        this.sortedKeys = new TreeMap<>();
+        for(int i = 0; i < generated.length; i++){
+            this.keys[i] = generated[i];
+            this.sortedKeys.put(this.keys[i], Boolean.TRUE);
+        }
+        this.adapter = SearchTreeBenchmark.newAdapter(this.structure);
+        this.adapter.bulkBuild(this.sortedKeys);
+    }
+
+    /** Position of each thread in <i>keys</i>, so threads probe different keys
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(){ this.next = (int)(Thread.currentThread().getId() * 7919); }
+    }
+
+    @Benchmark
+    public boolean search(Cursor cursor){
+        Long key = this.keys[Math.floorMod(cursor.next++, this.keys.length)];
+        return this.adapter.contains(key);
+    }
+
+    @Benchmark
+    public long iterate(){ return this.adapter.sum(); }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public void bulkBuild(Blackhole blackhole){
+        Adapter adapter = SearchTreeBenchmark.newAdapter(this.structure);
+        adapter.bulkBuild(this.sortedKeys);
+        blackhole.consume(adapter);
+    }
+
+    /** Creates an empty adapter around given structure
+     * @param structure Structure to wrap
+     * @return New <i>Adapter</i>
+     */
+    private static Adapter newAdapter(Structure structure){
+        switch(structure){
+            case BINARY_SEARCH_TREE:
+                return new TreeAdapter(new BinarySearchTree<>());
+            case AVL_TREE:
+                return new TreeAdapter(new AVLTree<>());
+            case TREE_MAP:
+                return new MapAdapter(new TreeMap<>());
+            default:
+                return new MapAdapter(new HashMap<>());
+        }
+    }
+
+    /** Common operations of every structure under test. There is no per-key build: inserting keys one by one leaves
+     * <i>BinarySearchTree</i> unbalanced, and a random tree of 100000 keys is already too deep for its slot array.
+     */
+    private interface Adapter {
+        void bulkBuild(SortedMap<Long, Boolean> keys);
+        boolean contains(Long key);
+        long sum();
+    }
+
+    /** Adapts a <i>BinarySearchTree</i>; keys are loaded with one <i>insertAll</i>, which sorts and rebuilds balanced
+     */
+    private static final class TreeAdapter implements Adapter {
+        private final BinarySearchTree<Object, Long> tree;
+
+        TreeAdapter(BinarySearchTree<Object, Long> tree){ this.tree = tree; }
+
+        public void bulkBuild(SortedMap<Long, Boolean> keys){ this.tree.insertAll(new ArrayList<>(keys.keySet())); }
+
+        public boolean contains(Long key){ return this.tree.search(key) != -1; }
+
+        public long sum(){
+            long[] sum = new long[1];
+            this.tree.forEachAsLong(BinaryTree.TraversalOrder.INORDER, Long::longValue, key -> sum[0] += key);
+            return sum[0];
+        }
+    }
+
+    /** Adapts a <i>Map</i> used as a set; keys are loaded with one <i>putAll</i>, which <i>TreeMap</i> turns into a linear
+     * build from sorted input
+     */
+    private static final class MapAdapter implements Adapter {
+        private final Map<Long, Boolean> map;
+
+        MapAdapter(Map<Long, Boolean> map){ this.map = map; }
+
+        public void bulkBuild(SortedMap<Long, Boolean> keys){ this.map.putAll(keys); }
+
+        public boolean contains(Long key){ return this.map.containsKey(key); }
+
+        public long sum(){
+            long sum = 0;
+            for(Long key : this.map.keySet())
+                sum += key;
+            return sum;
+        }
+    }
+
+}
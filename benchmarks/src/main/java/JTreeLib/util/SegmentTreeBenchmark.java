@@ -0,0 +1,168 @@
+package JTreeLib.util;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Measures range sums, point updates, batches of point updates and range additions of <i>SegmentTree</i>, <i>FlatSegmentTree</i>,
+ * <i>DoubleMonoidSegmentTree</i>, <i>BottomUpSegmentTree</i> and <i>FenwickTree</i> against a plain array scan. Segment trees are not
+ * thread-safe, so every benchmark thread owns its own copy; <i>-t N</i> measures N independent trees side by side.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SegmentTreeBenchmark {
+    //MEMBER VARIABLES
+    /** Structures under test
+     */
+    public enum Structure { SEGMENT_TREE, FLAT_SEGMENT_TREE, MONOID_SEGMENT_TREE, BOTTOM_UP_SEGMENT_TREE, FENWICK_TREE, ARRAY }
+
+    /** Number of queries prepared ahead; a power of 2 so the cursor wraps with a mask
+     */
+    private static final int QUERIES = 1 << 12;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    /** Distribution of query positions, which decides how often the same paths are walked
+     */
+    @Param({"UNIFORM", "SORTED", "ZIPFIAN"})
+    public KeyDistribution distribution;
+
+    @Param({"SEGMENT_TREE", "FLAT_SEGMENT_TREE", "MONOID_SEGMENT_TREE", "BOTTOM_UP_SEGMENT_TREE", "FENWICK_TREE", "ARRAY"})
+    public Structure structure;
+
+    private SegmentTree tree;
+    private FlatSegmentTree flatTree;
+    private DoubleMonoidSegmentTree monoidTree;
+    private BottomUpSegmentTree bottomUpTree;
+    private FenwickTree fenwickTree;
+    private double[] array, treeArray;
+    private int[] lows, highs;
+    private double[] values;
+    private int next;
+
+    //MEMBER FUNCTIONS
+    @Setup(Level.Trial)
+    public void setUp(){
+        SplittableRandom random = new SplittableRandom(42L);
+        this.array = new double[this.size];
+        for(int i = 0; i < this.size; i++)
+            this.array[i] = random.nextInt(1000);
+        if(this.structure == Structure.SEGMENT_TREE)
+            this.tree = new SegmentTree(this.treeArray = this.array.clone());
+        else if(this.structure == Structure.FLAT_SEGMENT_TREE)
+            this.flatTree = new FlatSegmentTree(this.array);
+        else if(this.structure == Structure.MONOID_SEGMENT_TREE)
+            this.monoidTree = DoubleMonoidSegmentTree.sum(this.array);
+        else if(this.structure == Structure.BOTTOM_UP_SEGMENT_TREE)
+            this.bottomUpTree = new BottomUpSegmentTree(this.array);
+        else if(this.structure == Structure.FENWICK_TREE)
+            this.fenwickTree = new FenwickTree(this.array);
+        long[] positions = this.distribution.generate(2 * SegmentTreeBenchmark.QUERIES, 7L);
+        this.lows = new int[SegmentTreeBenchmark.QUERIES];
+        this.highs = new int[SegmentTreeBenchmark.QUERIES];
+        this.values = new double[SegmentTreeBenchmark.QUERIES];
+        for(int i = 0; i < SegmentTreeBenchmark.QUERIES; i++){
+            int a = (int)(positions[2 * i] % this.size), b = (int)(positions[2 * i + 1] % this.size);
+            this.lows[i] = Math.min(a, b);
+            this.highs[i] = Math.max(a, b);
+            this.values[i] = random.nextInt(1000);
+        }
+    }
+
+    @Benchmark
+    public double sum(){
+        int i = this.next++ & (SegmentTreeBenchmark.QUERIES - 1);
+        if(this.structure == Structure.SEGMENT_TREE)
+            return this.tree.sum(0, this.lows[i], this.highs[i]);
+        if(this.structure == Structure.FLAT_SEGMENT_TREE)
+            return this.flatTree.sum(this.lows[i], this.highs[i]);
+        if(this.structure == Structure.MONOID_SEGMENT_TREE)
+            return this.monoidTree.query(this.lows[i], this.highs[i]);
+        if(this.structure == Structure.BOTTOM_UP_SEGMENT_TREE)
+            return this.bottomUpTree.sum(this.lows[i], this.highs[i]);
+        if(this.structure == Structure.FENWICK_TREE)
+            return this.fenwickTree.rangeSum(this.lows[i], this.highs[i]);
+        double sum = 0;
+        for(int j = this.lows[i]; j <= this.highs[i]; j++)
+            sum += this.array[j];
+        return sum;
+    }
+
+    @Benchmark
+    public boolean update(){
+        int i = this.next++ & (SegmentTreeBenchmark.QUERIES - 1);
+        if(this.structure == Structure.SEGMENT_TREE)
+            return this.tree.update(this.lows[i], this.values[i]);
+        if(this.structure == Structure.FLAT_SEGMENT_TREE)
+            return this.flatTree.update(this.lows[i], this.values[i]);
+        if(this.structure == Structure.MONOID_SEGMENT_TREE)
+            return this.monoidTree.set(this.lows[i], this.values[i]);
+        if(this.structure == Structure.BOTTOM_UP_SEGMENT_TREE)
+            return this.bottomUpTree.update(this.lows[i], this.values[i]);
+        if(this.structure == Structure.FENWICK_TREE)
+            return this.fenwickTree.set(this.lows[i], this.values[i]);
+        this.array[this.lows[i]] = this.values[i];
+        return true;
+    }
+
+    /** Applies all <i>QUERIES</i> prepared point updates as one batch: with a single <i>updateBatch</i> for
+     * <i>BottomUpSegmentTree</i>, and one update at a time otherwise
+     */
+    @Benchmark
+    public boolean updateBatch(){
+        if(this.structure == Structure.BOTTOM_UP_SEGMENT_TREE)
+            return this.bottomUpTree.updateBatch(this.lows, this.values);
+        for(int i = 0; i < SegmentTreeBenchmark.QUERIES; i++)
+            this.update();
+        return true;
+    }
+
+    /** Adds a value to a whole range: lazily for <i>FlatSegmentTree</i>, and one element at a time otherwise, which is
+     * the only way <i>SegmentTree</i> offers
+     */
+    @Benchmark
+    public boolean rangeAdd(){
+        int i = this.next++ & (SegmentTreeBenchmark.QUERIES - 1);
+        if(this.structure == Structure.FLAT_SEGMENT_TREE)
+            return this.flatTree.rangeAdd(this.lows[i], this.highs[i], this.values[i]);
+        if(this.structure == Structure.MONOID_SEGMENT_TREE){
+            for(int j = this.lows[i]; j <= this.highs[i]; j++)
+                this.monoidTree.accumulate(j, this.values[i]);
+            return true;
+        }
+        if(this.structure == Structure.BOTTOM_UP_SEGMENT_TREE){
+            for(int j = this.lows[i]; j <= this.highs[i]; j++)
+                this.bottomUpTree.add(j, this.values[i]);
+            return true;
+        }
+        if(this.structure == Structure.FENWICK_TREE){
+            for(int j = this.lows[i]; j <= this.highs[i]; j++)
+                this.fenwickTree.add(j, this.values[i]);
+            return true;
+        }
+        double[] array = this.structure == Structure.SEGMENT_TREE ? this.treeArray : this.array;
+        for(int j = this.lows[i]; j <= this.highs[i]; j++){
+            if(this.structure == Structure.SEGMENT_TREE)
+                this.tree.update(j, array[j] + this.values[i]);
+            else
+                array[j] += this.values[i];
+        }
+        return true;
+    }
+
+}
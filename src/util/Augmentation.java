@@ -0,0 +1,101 @@
+package JTreeLib.util;
+import java.util.Comparator;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/** Monoid attached to a <i>BinaryTree</i> so that every subtree carries the combined value of its keys. Each
+ * <i>BinaryNode</i> contributes <i>lift(key)</i>, and the value of a subtree is
+ * <i>combine(combine(left, lift(key)), right)</i>, i.e. keys are combined in LVR order, so <i>combine</i> only has to be
+ * associative, not commutative.
+ * @param <K> Data type of <i>Key</i>
+ * @param <A> Data type of augmented value
+ */
+public class Augmentation<K, A> {
+    //MEMBER VARIABLES
+    /** Value of an empty subtree; combining with it leaves any value unchanged
+     */
+    private final A identity;
+
+    /** Converts key of one <i>BinaryNode</i> into its own value
+     */
+    private final Function<? super K, ? extends A> lift;
+
+    /** Associative function merging values of adjacent key ranges
+     */
+    private final BinaryOperator<A> combine;
+
+    //MEMBER FUNCTIONS
+    //CONSTRUCTORS
+    /** Constructor applies <i>identity</i>, <i>lift</i> and <i>combine</i>
+     * @param identity Value of an empty subtree
+     * @param lift Converts key of one <i>BinaryNode</i> into its own value
+     * @param combine Associative function merging values of adjacent key ranges
+     */
+    public Augmentation(A identity, Function<? super K, ? extends A> lift, BinaryOperator<A> combine){
+        this.identity = identity;
+        this.lift = lift;
+        this.combine = combine;
+    }
+
+    /** Counts <i>BinaryNode</i> in each subtree
+     * @param <K> Data type of <i>Key</i>
+     * @return New <i>Augmentation</i> counting keys
+     */
+    public static <K> Augmentation<K, Integer> count(){ return new Augmentation<>(0, key -> 1, Integer::sum); }
+
+    /** Sums keys of each subtree as primitive doubles
+     * @param mapper Converts key to a primitive double
+     * @param <K> Data type of <i>Key</i>
+     * @return New <i>Augmentation</i> summing keys
+     */
+    public static <K> Augmentation<K, Double> sum(ToDoubleFunction<? super K> mapper){
+        return new Augmentation<>(0.0, key -> mapper.applyAsDouble(key), Double::sum);
+    }
+
+    /** Finds smallest key of each subtree; an empty subtree has value null
+     * @param comparator Orders keys
+     * @param <K> Data type of <i>Key</i>
+     * @return New <i>Augmentation</i> tracking minimum key
+     */
+    public static <K> Augmentation<K, K> min(Comparator<? super K> comparator){
+        return new Augmentation<>(null, key -> key, (a, b) -> a == null ? b : b == null ? a : comparator.compare(a, b) <= 0 ? a : b);
+    }
+
+    /** Finds largest key of each subtree; an empty subtree has value null
+     * @param comparator Orders keys
+     * @param <K> Data type of <i>Key</i>
+     * @return New <i>Augmentation</i> tracking maximum key
+     */
+    public static <K> Augmentation<K, K> max(Comparator<? super K> comparator){
+        return new Augmentation<>(null, key -> key, (a, b) -> a == null ? b : b == null ? a : comparator.compare(a, b) >= 0 ? a : b);
+    }
+
+    //ACCESSORS
+    /** Finds value of an empty subtree
+     * @return Identity value
+     */
+    public A getIdentity(){ return this.identity; }
+
+    /** Converts key of one <i>BinaryNode</i> into its own value
+     * @param key Key of <i>BinaryNode</i>
+     * @return Value contributed by <i>key</i>
+     */
+    public A lift(K key){ return this.lift.apply(key); }
+
+    /** Merges values of two adjacent key ranges
+     * @param left Value of range holding smaller keys
+     * @param right Value of range holding larger keys
+     * @return Value of both ranges together
+     */
+    public A combine(A left, A right){ return this.combine.apply(left, right); }
+
+    /** Finds value of a subtree from its root key and the values of its child subtrees
+     * @param left Value of left subtree
+     * @param key Key of subtree root
+     * @param right Value of right subtree
+     * @return Value of whole subtree
+     */
+    public A combine(A left, K key, A right){ return this.combine(this.combine(left, this.lift(key)), right); }
+
+}
@@ -0,0 +1,26 @@
+package JTreeLib.util;
+import java.util.Comparator;
+
+/** Min-heap priority queue with 2 children per slot, stored with the same implicit index arithmetic as <i>BinaryTree</i>:
+ * the children of slot <i>i</i> are <i>2i + 1</i> and <i>2i + 2</i>
+ * @param <E> Data type of element
+ */
+public class BinaryHeap<E> extends DaryHeap<E> {
+    //MEMBER FUNCTIONS
+    //CONSTRUCTORS
+    /** Default constructor creates empty heap ordered naturally
+     */
+    public BinaryHeap(){ super(2, null); }
+
+    /** Constructor applies <i>comparator</i>
+     * @param comparator Orders elements, smallest first, or null for natural ordering
+     */
+    public BinaryHeap(Comparator<? super E> comparator){ super(2, comparator); }
+
+    /** Constructor builds heap from <i>elements</i> in linear time; the element at position <i>i</i> gets handle <i>i</i>
+     * @param comparator Orders elements, smallest first, or null for natural ordering
+     * @param elements Initial elements, none of them null
+     */
+    public BinaryHeap(Comparator<? super E> comparator, E[] elements){ super(2, comparator, elements); }
+
+}
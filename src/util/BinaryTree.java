@@ -1,11 +1,31 @@
 package JTreeLib.util;
 import java.util.Arrays;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Objects;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.Collections;
 import java.util.Collection;
+import java.util.List;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.LongConsumer;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import org.javatuples.Pair;
 
 /** Generic binary tree that follows no particular ordering rule
@@ -13,6 +33,36 @@ import org.javatuples.Pair;
  * @param <K> Data type of <i>Key</i>
  */
 public class BinaryTree<N, K> extends Tree<N> {
+    /** Orders in which a traversal can visit the <i>BinaryNode</i> of a subtree
+     */
+    public enum TraversalOrder { PREORDER, INORDER, POSTORDER, LEVEL_ORDER }
+
+    //MEMBER VARIABLES
+    /** Optional hash index from key to slot, kept in sync with every slot write; null while disabled
+     */
+    private KeySlotIndex<K> keyIndex;
+
+    /** Number of levels of the subtree rooted at each slot, 0 for an empty slot, updated along the parent path whenever
+     * a slot is filled or emptied
+     */
+    private byte[] heights = new byte[0];
+
+    /** Number of occupied slots on each level, root level first
+     */
+    private final int[] levelCounts = new int[Integer.SIZE];
+
+    /** Optional monoid whose value is kept for every subtree; null while none is attached
+     */
+    private Augmentation<? super K, ?> augmentation;
+
+    /** Augmented value of the subtree rooted at each slot, updated along the parent path on every mutation
+     */
+    private Object[] augmentedValues = new Object[0];
+
+    /** Optional free-list that removals return <i>BinaryNode</i> to and insertions take them from; null while disabled
+     */
+    private NodePool<N, K> nodePool;
+
     //MEMBER FUNCTIONS
     //CONSTRUCTORS
     /** Default constructor
@@ -20,6 +70,7 @@ public class BinaryTree<N, K> extends Tree<N> {
     public BinaryTree(){
         super();
         this.setDegree(2);
+        this.tree = new ArrayList<>();
     }
 
     /** Constructor applies <i>name</i> and <i>capacity</i>
@@ -37,6 +88,7 @@ public class BinaryTree<N, K> extends Tree<N> {
             this.tree = new ArrayList<>(otherTree.getCurrentSize());
         for(int i = 0; i <= this.getCurrentSize() - 1; i++)
             this.tree.set(i, otherTree.tree.get(i) == null ? null : new BinaryNode<>(otherTree.getNode(i)));
+        this.onSlotsReplaced();
     }
 
     //ACCESSORS
@@ -49,11 +101,7 @@ public class BinaryTree<N, K> extends Tree<N> {
     public BinaryNode<N, K> getRoot(){ return (BinaryNode<N, K>)this.tree.get(0); }
 
     @Override
-    public boolean hasNode(int index){
-        if(index < 0 || index >= this.getTreeSize() || this.tree.get(index) == null)
-            return false;
-        return true;
-    }
+    public boolean hasNode(int index){ return this.isOccupied(index); }
 
     /** Checks whether <i>BinaryTree</i> has a non-null <i>BinaryNode</i>
      * @param node <i>BinaryNode</i> to check existence in <i>BinaryTree</i>
@@ -69,9 +117,7 @@ public class BinaryTree<N, K> extends Tree<N> {
     public boolean isLeaf(int index){
         if(!this.hasNode(index))
             return false;
-        if(!(this.hasNode(this.getLeftChild(index)) || this.hasNode(this.getRightChild(index))))
-            return true;
-        return false;
+        return !this.hasNode(BinaryTree.getLeftChildIndex(index)) && !this.hasNode(BinaryTree.getRightChildIndex(index));
     }
 
     /** Finds out if <i>Node</i> at given index of tree is a leaf
@@ -108,16 +154,9 @@ public class BinaryTree<N, K> extends Tree<N> {
      */
     @Override
     public BinaryNode<N, K> getParent(int childIndex){
-        if(!this.hasNode(childIndex))
+        if(childIndex == 0 || !this.hasNode(childIndex))
             return null;
-        int parentIndex = BinaryTree.getParentIndex(childIndex);
-        BinaryNode<N, K> parent = this.getNode(parentIndex);
-        if(!Arrays.asList(parent.getChildrenAsArray()).contains(this.getNode(childIndex)))
-            if(BinaryTree.getLeftChildIndex(parentIndex) == childIndex)
-                parent.setLeftChild(this.getNode(childIndex));
-            else
-                parent.setRightChild(this.getNode(childIndex));
-        return parent;
+        return this.getNode(BinaryTree.getParentIndex(childIndex));
     }
 
     /** Creates deep copy of subtree rooted at <i>rootIndex</i> with no enforced capacity
@@ -138,7 +177,7 @@ public class BinaryTree<N, K> extends Tree<N> {
                 Q.offer(Pair.with(BinaryTree.getLeftChildIndex(thisIndex), BinaryTree.getLeftChildIndex(outputIndex)));
             if(this.hasNode(BinaryTree.getRightChildIndex(thisIndex)))
                 Q.offer(Pair.with(BinaryTree.getRightChildIndex(thisIndex), BinaryTree.getRightChildIndex(outputIndex)));
-            output.setNode(outputIndex, new BinaryNode<>(this.getNode(thisIndex)));
+            output.setNode(outputIndex, this.copyNode(this.getNode(thisIndex)));
         }
         return output;
     }
@@ -199,7 +238,7 @@ public class BinaryTree<N, K> extends Tree<N> {
      * @return Index of parent <i>BinaryNode</i> of <i>BinaryNode</i> located at childIndex
      */
     public static int getParentIndex(int childIndex){
-        return (int)Math.ceil((double)childIndex / 2 - 1);
+        return (childIndex - 1) >> 1;
     }
 
     /** Finds index in <i>this</i> that holds left child <i>BinaryNode</i> of some other <i>BinaryNode</i>
@@ -261,10 +300,11 @@ public class BinaryTree<N, K> extends Tree<N> {
      * @return Whether specified level contains maximum possible number of <i>BinaryNode</i>
      */
     public boolean isFullLevel(int level){
-        if(this.tree == null)
+        if(this.tree == null || level <= 0)
             return true;
-        int startIndex = (int)Math.pow(2, level - 1) - 1, endIndex = startIndex + (int)Math.pow(2, level - 1);
-        return this.tree.subList(startIndex, endIndex).stream().allMatch(Objects::nonNull);
+        if(level > this.levelCounts.length)
+            return false;
+        return this.levelCounts[level - 1] == 1 << (level - 1);
     }
 
     /** Finds out if <i>BinaryNode</i> at given index is a lonely and detached <i>BinaryNode</i>, meaning no children and no parent
@@ -303,12 +343,41 @@ public class BinaryTree<N, K> extends Tree<N> {
      * @param index Index of root of subtree for height search
      * @return Height of tree or subtree rooted at <i>root</i>
      */
-    public int getHeight(int index){
-        if(this.getNode(index).isLeaf() || !this.hasNode(index))
+    public int getHeight(int index){ return Math.max(this.countLevels(index) - 1, 0); }
+
+    /** Finds number of levels of subtree rooted at <i>index</i>, read from heights maintained on every mutation
+     * @param index Index of subtree root
+     * @return Number of <i>BinaryNode</i> on longest path down from <i>index</i>, or 0 if slot is empty
+     */
+    public int countLevels(int index){
+        if(index < 0 || index >= this.heights.length)
             return 0;
-        return 1 + Math.max(this.getHeight(BinaryTree.getLeftChildIndex(index)), this.getHeight(BinaryTree.getRightChildIndex(index)));
+        return this.heights[index];
     }
 
+    /** Checks whether slot at <i>index</i> holds a <i>BinaryNode</i> whose key counts as present; subclasses that keep
+     * removed <i>BinaryNode</i> in place override this to hide them
+     * @param index Index of slot
+     * @return Whether slot is occupied by a live <i>BinaryNode</i>
+     */
+    protected boolean isLive(int index){ return this.isOccupied(index); }
+
+    /** Counts occupied slots from per-level counts in constant time
+     * @return Number of non-null <i>BinaryNode</i>
+     */
+    protected int countOccupiedSlots(){
+        int count = 0;
+        for(int levelCount : this.levelCounts)
+            count += levelCount;
+        return count;
+    }
+
+    /** Finds level of slot, with root at level 0
+     * @param index Index of slot
+     * @return 0-based level of <i>index</i>
+     */
+    private static int levelOf(int index){ return 31 - Integer.numberOfLeadingZeros(index + 1); }
+
     /** Finds next <i>BinaryNode</i> to be visited in LVR depth-first traversal
      * @param rootIndex Starting index to consider
      * @return Whether criteria for an inorder successor is met or not
@@ -346,7 +415,7 @@ public class BinaryTree<N, K> extends Tree<N> {
      * @return Whether visit is successful or not
      */
     private boolean visit(int index){
-        if(index < 0 || index > this.getTreeSize() || this.getKey(index) == null)
+        if(!this.isOccupied(index) || this.getKey(index) == null)
             return false;
         System.out.println(this.getKey(index));
         return true;
@@ -360,7 +429,7 @@ public class BinaryTree<N, K> extends Tree<N> {
      * @return Whether visit is successful or not
      */
     private boolean visit(int index, Collection<K> arr, boolean print){
-        if(index < 0 || index > this.getTreeSize() || this.getKey(index) == null)
+        if(!this.isOccupied(index) || this.getKey(index) == null)
             return false;
         arr.add(this.getKey(index));
         return true;
@@ -408,22 +477,650 @@ public class BinaryTree<N, K> extends Tree<N> {
      */
     public void traverseByDepth(Collection<K> arr, boolean print){ this.traverseByDepth(0, arr, print);}
 
-    /** Searches for given key
+    /** Walks subtree rooted at <i>rootIndex</i> in given <i>order</i> and hands the index of each visited <i>BinaryNode</i>
+     * to <i>visitor</i>. Depth-first orders climb back up by parent index arithmetic and level order scans each level's
+     * range of slots, so no stack, queue or collection is allocated. Level order visits every occupied slot under
+     * <i>rootIndex</i>, including detached ones.
+     * @param order Order of traversal
+     * @param rootIndex Index of subtree root
+     * @param visitor Receives index of each visited <i>BinaryNode</i> and returns <i>false</i> to stop traversal
+     * @return <i>false</i> if <i>visitor</i> stopped traversal early or arguments are null, otherwise <i>true</i>
+     */
+    public boolean traverse(TraversalOrder order, int rootIndex, IntPredicate visitor){
+        if(order == null || visitor == null)
+            return false;
+        if(!this.isOccupied(rootIndex))
+            return true;
+        switch(order){
+            case PREORDER:
+                return this.traversePreorder(rootIndex, visitor);
+            case INORDER:
+                return this.traverseInorder(rootIndex, visitor);
+            case POSTORDER:
+                return this.traversePostorder(rootIndex, visitor);
+            default:
+                return this.traverseLevelOrder(rootIndex, visitor);
+        }
+    }
+
+    /** Walks whole <i>BinaryTree</i> in given <i>order</i> and hands the index of each visited <i>BinaryNode</i> to <i>visitor</i>
+     * @param order Order of traversal
+     * @param visitor Receives index of each visited <i>BinaryNode</i> and returns <i>false</i> to stop traversal
+     * @return <i>false</i> if <i>visitor</i> stopped traversal early or arguments are null, otherwise <i>true</i>
+     */
+    public boolean traverse(TraversalOrder order, IntPredicate visitor){ return this.traverse(order, 0, visitor); }
+
+    /** Passes index of each visited <i>BinaryNode</i> to <i>action</i>
+     * @param order Order of traversal
+     * @param action Receives index of each visited <i>BinaryNode</i>
+     */
+    public void forEachIndex(TraversalOrder order, IntConsumer action){
+        if(action == null)
+            return;
+        this.traverse(order, 0, index -> {
+            action.accept(index);
+            return true;
+        });
+    }
+
+    /** Passes key of each visited <i>BinaryNode</i> to <i>action</i>
+     * @param order Order of traversal
+     * @param action Receives key of each visited <i>BinaryNode</i>
+     */
+    public void forEach(TraversalOrder order, Consumer<? super K> action){
+        if(action == null)
+            return;
+        this.traverse(order, 0, index -> {
+            action.accept(this.keyAt(index));
+            return true;
+        });
+    }
+
+    /** Passes key of each visited <i>BinaryNode</i> to <i>visitor</i> until <i>visitor</i> returns <i>false</i>
+     * @param order Order of traversal
+     * @param visitor Receives key of each visited <i>BinaryNode</i> and returns <i>false</i> to stop traversal
+     * @return <i>false</i> if <i>visitor</i> stopped traversal early, otherwise <i>true</i>
+     */
+    public boolean forEachWhile(TraversalOrder order, Predicate<? super K> visitor){
+        if(visitor == null)
+            return false;
+        return this.traverse(order, 0, index -> visitor.test(this.keyAt(index)));
+    }
+
+    /** Passes key of each visited <i>BinaryNode</i> to <i>action</i> as a primitive double
+     * @param order Order of traversal
+     * @param mapper Converts key to a primitive double
+     * @param action Receives converted key of each visited <i>BinaryNode</i>
+     */
+    public void forEachAsDouble(TraversalOrder order, ToDoubleFunction<? super K> mapper, DoubleConsumer action){
+        if(mapper == null || action == null)
+            return;
+        this.traverse(order, 0, index -> {
+            action.accept(mapper.applyAsDouble(this.keyAt(index)));
+            return true;
+        });
+    }
+
+    /** Passes key of each visited <i>BinaryNode</i> to <i>action</i> as a primitive long
+     * @param order Order of traversal
+     * @param mapper Converts key to a primitive long
+     * @param action Receives converted key of each visited <i>BinaryNode</i>
+     */
+    public void forEachAsLong(TraversalOrder order, ToLongFunction<? super K> mapper, LongConsumer action){
+        if(mapper == null || action == null)
+            return;
+        this.traverse(order, 0, index -> {
+            action.accept(mapper.applyAsLong(this.keyAt(index)));
+            return true;
+        });
+    }
+
+    /** Collects every key in LVR order into a primitive array, e.g. to export a <i>BinarySearchTree</i> into a static layout
+     * @param mapper Converts key to a primitive long
+     * @return Array of converted keys with one element per <i>BinaryNode</i>
+     */
+    public long[] toLongArray(ToLongFunction<? super K> mapper){
+        if(mapper == null || this.tree == null)
+            return new long[0];
+        long[] output = new long[this.getTreeSize()];
+        int[] next = {0};
+        this.forEachAsLong(TraversalOrder.INORDER, mapper, key -> output[next[0]++] = key);
+        return next[0] == output.length ? output : Arrays.copyOf(output, next[0]);
+    }
+
+    /** Collects every key in LVR order into a primitive array, e.g. to export a <i>BinarySearchTree</i> into a static layout
+     * @param mapper Converts key to a primitive int
+     * @return Array of converted keys with one element per <i>BinaryNode</i>
+     */
+    public int[] toIntArray(ToIntFunction<? super K> mapper){
+        if(mapper == null || this.tree == null)
+            return new int[0];
+        int[] output = new int[this.getTreeSize()];
+        int[] next = {0};
+        this.traverse(TraversalOrder.INORDER, 0, index -> {
+            output[next[0]++] = mapper.applyAsInt(this.keyAt(index));
+            return true;
+        });
+        return next[0] == output.length ? output : Arrays.copyOf(output, next[0]);
+    }
+
+    /** Maps key of every <i>BinaryNode</i> and combines the results, forking left and right subtrees into separate
+     * <i>RecursiveTask</i> on the common <i>ForkJoinPool</i> while they span more slots than the default threshold
+     * @param identity Identity value of <i>combiner</i>, returned for an empty <i>BinaryTree</i>
+     * @param mapper Converts each key into a partial result
+     * @param combiner Associative function merging two partial results
+     * @param <R> Data type of result
+     * @return Combined result over all keys
+     */
+    public <R> R reduce(R identity, Function<? super K, ? extends R> mapper, BinaryOperator<R> combiner){
+        return this.reduce(identity, mapper, combiner, Tree.DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /** Maps key of every <i>BinaryNode</i> and combines the results, forking left and right subtrees into separate
+     * <i>RecursiveTask</i> on the common <i>ForkJoinPool</i> while they span more than <i>threshold</i> slots
+     * @param identity Identity value of <i>combiner</i>, returned for an empty <i>BinaryTree</i>
+     * @param mapper Converts each key into a partial result
+     * @param combiner Associative function merging two partial results
+     * @param threshold Number of slots at or below which a subtree is reduced sequentially
+     * @param <R> Data type of result
+     * @return Combined result over all keys, or <i>identity</i> if tree is empty or arguments are null
+     */
+    public <R> R reduce(R identity, Function<? super K, ? extends R> mapper, BinaryOperator<R> combiner, int threshold){
+        if(mapper == null || combiner == null || !this.isOccupied(0))
+            return identity;
+        return ForkJoinPool.commonPool().invoke(
+                new ReduceTask<>(0, this.tree.size(), identity, mapper, combiner, Math.max(threshold, 1)));
+    }
+
+    /** Applies <i>action</i> to key of every <i>BinaryNode</i> in parallel with no guarantee on order
+     * @param action Receives each key; must be safe to call from several threads at once
+     */
+    public void forEachParallel(Consumer<? super K> action){ this.forEachParallel(action, Tree.DEFAULT_PARALLEL_THRESHOLD); }
+
+    /** Applies <i>action</i> to key of every <i>BinaryNode</i> in parallel with no guarantee on order, forking subtrees
+     * while they span more than <i>threshold</i> slots
+     * @param action Receives each key; must be safe to call from several threads at once
+     * @param threshold Number of slots at or below which a subtree is visited sequentially
+     */
+    public void forEachParallel(Consumer<? super K> action, int threshold){
+        if(action == null || !this.isOccupied(0))
+            return;
+        ForkJoinPool.commonPool().invoke(new ForEachTask(0, this.tree.size(), action, Math.max(threshold, 1)));
+    }
+
+    /** Finds key in occupied slot without any validation
+     * @param index Index of an occupied slot
+     * @return Key of <i>BinaryNode</i> at <i>index</i>
+     */
+    private K keyAt(int index){ return this.binaryNode(this.tree.get(index)).getKey(); }
+
+    /** Views <i>Node</i> held in a slot as the <i>BinaryNode</i> every slot of <i>this</i> holds; the one place slot
+     * contents are cast, so that side tables and tasks stay free of unchecked casts
+     * @param node <i>Node</i> read from <i>tree</i>, or null
+     * @return Same <i>Node</i> as a <i>BinaryNode</i>
+     */
+    @SuppressWarnings("unchecked")
+    private BinaryNode<N, K> binaryNode(Node<N> node){ return (BinaryNode<N, K>)node; }
+
+    /** Finds the deepest index reachable from <i>index</i> by following left children only
+     * @param index Index of an occupied slot
+     * @return Index of leftmost <i>BinaryNode</i> of subtree
+     */
+    private int descendLeft(int index){
+        while(this.isOccupied(BinaryTree.getLeftChildIndex(index)))
+            index = BinaryTree.getLeftChildIndex(index);
+        return index;
+    }
+
+    /** Finds first <i>BinaryNode</i> visited in LRV order, by preferring left children and falling back to right children
+     * @param index Index of an occupied slot
+     * @return Index of first leaf visited in postorder
+     */
+    private int descendToFirstLeaf(int index){
+        while(true){
+            int leftIndex = BinaryTree.getLeftChildIndex(index);
+            if(this.isOccupied(leftIndex))
+                index = leftIndex;
+            else if(this.isOccupied(leftIndex + 1))
+                index = leftIndex + 1;
+            else
+                return index;
+        }
+    }
+
+    /** Stackless VLR traversal; left children sit at odd indices and their right siblings immediately after
+     * @param rootIndex Index of occupied subtree root
+     * @param visitor Receives index of each visited <i>BinaryNode</i>
+     * @return <i>false</i> if <i>visitor</i> stopped traversal early, otherwise <i>true</i>
+     */
+    private boolean traversePreorder(int rootIndex, IntPredicate visitor){
+        int index = rootIndex;
+        while(true){
+            if(!visitor.test(index))
+                return false;
+            int leftIndex = BinaryTree.getLeftChildIndex(index);
+            if(this.isOccupied(leftIndex))
+                index = leftIndex;
+            else if(this.isOccupied(leftIndex + 1))
+                index = leftIndex + 1;
+            else {
+                //climb until an ancestor inside the subtree still has an unvisited right sibling
+                while(index != rootIndex && !((index & 1) == 1 && this.isOccupied(index + 1)))
+                    index = BinaryTree.getParentIndex(index);
+                if(index == rootIndex)
+                    return true;
+                ++index;
+            }
+        }
+    }
+
+    /** Stackless LVR traversal
+     * @param rootIndex Index of occupied subtree root
+     * @param visitor Receives index of each visited <i>BinaryNode</i>
+     * @return <i>false</i> if <i>visitor</i> stopped traversal early, otherwise <i>true</i>
+     */
+    private boolean traverseInorder(int rootIndex, IntPredicate visitor){
+        int index = this.descendLeft(rootIndex);
+        while(true){
+            if(!visitor.test(index))
+                return false;
+            int rightIndex = BinaryTree.getRightChildIndex(index);
+            if(this.isOccupied(rightIndex))
+                index = this.descendLeft(rightIndex);
+            else {
+                //climb past every ancestor whose right subtree has just been finished
+                while(index != rootIndex && (index & 1) == 0)
+                    index = BinaryTree.getParentIndex(index);
+                if(index == rootIndex)
+                    return true;
+                index = BinaryTree.getParentIndex(index);
+            }
+        }
+    }
+
+    /** Stackless LRV traversal
+     * @param rootIndex Index of occupied subtree root
+     * @param visitor Receives index of each visited <i>BinaryNode</i>
+     * @return <i>false</i> if <i>visitor</i> stopped traversal early, otherwise <i>true</i>
+     */
+    private boolean traversePostorder(int rootIndex, IntPredicate visitor){
+        int index = this.descendToFirstLeaf(rootIndex);
+        while(true){
+            if(!visitor.test(index))
+                return false;
+            if(index == rootIndex)
+                return true;
+            if((index & 1) == 1 && this.isOccupied(index + 1))
+                index = this.descendToFirstLeaf(index + 1);
+            else
+                index = BinaryTree.getParentIndex(index);
+        }
+    }
+
+    /** Level-by-level traversal that scans the contiguous range of slots each level of the subtree occupies
+     * @param rootIndex Index of occupied subtree root
+     * @param visitor Receives index of each visited <i>BinaryNode</i>
+     * @return <i>false</i> if <i>visitor</i> stopped traversal early, otherwise <i>true</i>
+     */
+    private boolean traverseLevelOrder(int rootIndex, IntPredicate visitor){
+        int size = this.tree.size();
+        for(long first = rootIndex, width = 1; first < size; first = 2 * first + 1, width <<= 1)
+            for(int index = (int)first, end = (int)Math.min(first + width, size); index < end; index++)
+                if(this.tree.get(index) != null && !visitor.test(index))
+                    return false;
+        return true;
+    }
+
+    /** Fork/join task reducing subtree rooted at <i>rootIndex</i>; <i>span</i> estimates slots below <i>rootIndex</i>
+     * by halving tree size once per level
+     * @param <R> Data type of result
+     */
+    private class ReduceTask<R> extends RecursiveTask<R> {
+        private static final long serialVersionUID = 1L;
+
+        private final int rootIndex, span, threshold;
+        private final R identity;
+        private final Function<? super K, ? extends R> mapper;
+        private final BinaryOperator<R> combiner;
+        private R partial;
+
+        ReduceTask(int rootIndex, int span, R identity, Function<? super K, ? extends R> mapper, BinaryOperator<R> combiner, int threshold){
+            this.rootIndex = rootIndex;
+            this.span = span;
+            this.identity = identity;
+            this.mapper = mapper;
+            this.combiner = combiner;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected R compute(){
+            if(this.span <= this.threshold){
+                this.partial = this.identity;
+                BinaryTree.this.traverse(TraversalOrder.PREORDER, this.rootIndex, index -> {
+                    this.partial = this.combiner.apply(this.partial, this.mapper.apply(BinaryTree.this.keyAt(index)));
+                    return true;
+                });
+                return this.partial;
+            }
+            R output = !BinaryTree.this.isLive(this.rootIndex) ? this.identity
+                    : this.combiner.apply(this.identity, this.mapper.apply(BinaryTree.this.keyAt(this.rootIndex)));
+            int leftIndex = BinaryTree.getLeftChildIndex(this.rootIndex), rightIndex = leftIndex + 1;
+            ReduceTask<R> left = BinaryTree.this.isOccupied(leftIndex)
+                    ? new ReduceTask<>(leftIndex, this.span / 2, this.identity, this.mapper, this.combiner, this.threshold) : null;
+            ReduceTask<R> right = BinaryTree.this.isOccupied(rightIndex)
+                    ? new ReduceTask<>(rightIndex, this.span / 2, this.identity, this.mapper, this.combiner, this.threshold) : null;
+            if(left != null)
+                left.fork();
+            R rightResult = right == null ? this.identity : right.compute();
+            if(left != null)
+                output = this.combiner.apply(output, left.join());
+            return this.combiner.apply(output, rightResult);
+        }
+    }
+
+    /** Fork/join task applying an action to every key of subtree rooted at <i>rootIndex</i>
+     */
+    private class ForEachTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int rootIndex, span, threshold;
+        private final Consumer<? super K> action;
+
+        ForEachTask(int rootIndex, int span, Consumer<? super K> action, int threshold){
+            this.rootIndex = rootIndex;
+            this.span = span;
+            this.action = action;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute(){
+            if(this.span <= this.threshold){
+                BinaryTree.this.traverse(TraversalOrder.PREORDER, this.rootIndex, index -> {
+                    this.action.accept(BinaryTree.this.keyAt(index));
+                    return true;
+                });
+                return;
+            }
+            if(BinaryTree.this.isLive(this.rootIndex))
+                this.action.accept(BinaryTree.this.keyAt(this.rootIndex));
+            int leftIndex = BinaryTree.getLeftChildIndex(this.rootIndex), rightIndex = leftIndex + 1;
+            ForEachTask left = BinaryTree.this.isOccupied(leftIndex) ? new ForEachTask(leftIndex, this.span / 2, this.action, this.threshold) : null;
+            if(left != null)
+                left.fork();
+            if(BinaryTree.this.isOccupied(rightIndex))
+                new ForEachTask(rightIndex, this.span / 2, this.action, this.threshold).compute();
+            if(left != null)
+                left.join();
+        }
+    }
+
+    /** Searches for given key, in constant expected time if the key index is enabled and otherwise by scanning slots
      * @param key Key to search for
-     * @return Index of <i>BinaryNode</i> containing <i>key</i> if exists, otherwise returns -1
+     * @return Lowest index of <i>BinaryNode</i> containing <i>key</i> if exists, otherwise returns -1
+     */
+    public int search(K key){
+        if(this.keyIndex != null && key != null)
+            return this.keyIndex.find(key);
+        for(int index = 0; this.tree != null && index < this.tree.size(); index++)
+            if(this.isOccupied(index) && Objects.equals(this.keyAt(index), key))
+                return index;
+        return -1;
+    }
+
+    /** Checks whether <i>search</i> is served by the key index
+     * @return Whether key index is enabled
+     */
+    public boolean hasKeyIndex(){ return this.keyIndex != null; }
+
+    /** Finds attached augmentation
+     * @return Attached <i>Augmentation</i>, or null if none
+     */
+    public Augmentation<? super K, ?> getAugmentation(){ return this.augmentation; }
+
+    /** Finds attached node pool
+     * @return Attached <i>NodePool</i>, or null if none
      */
-    public int search(K key){ return this.tree.stream().map(n -> ((BinaryNode<N, K>)n).getKey()).collect(Collectors.toList()).indexOf(key); }
+    public NodePool<N, K> getNodePool(){ return this.nodePool; }
+
+    /** Finds augmented value of subtree rooted at <i>index</i>, e.g. index 0 for whole <i>BinaryTree</i>
+     * @param index Index of subtree root
+     * @param <A> Data type of augmented value
+     * @return Combined value of every key in subtree, identity for an empty slot, or null if no augmentation is attached
+     */
+    public <A> A getAugmentedValue(int index){
+        if(this.augmentation == null)
+            return null;
+        if(index < 0 || index >= this.augmentedValues.length || !this.isOccupied(index))
+            return BinaryTree.augmentedValue(this.augmentation.getIdentity());
+        return BinaryTree.augmentedValue(this.augmentedValues[index]);
+    }
+
+    /** Views identity or a stored value of the attached augmentation as its value type, which callers of
+     * <i>getAugmentedValue</i> and <i>aggregate</i> name; the one place augmented values are cast
+     * @param value Value produced by the attached <i>Augmentation</i>
+     * @param <A> Data type of augmented value
+     * @return Same value
+     */
+    @SuppressWarnings("unchecked")
+    static <A> A augmentedValue(Object value){ return (A)value; }
 
     //MUTATORS
+    /** Enables hash index from key to slot, built once from current slots and then maintained by every mutator of
+     * <i>this</i>. Keys changed directly on a <i>BinaryNode</i> bypass the index, and null keys are not indexed.
+     */
+    public void enableKeyIndex(){
+        if(this.keyIndex != null)
+            return;
+        this.keyIndex = new KeySlotIndex<>(this.tree == null ? 0 : this.tree.size());
+        this.onSlotsReplaced();
+    }
+
+    /** Disables hash index from key to slot, so <i>search</i> scans slots again
+     */
+    public void disableKeyIndex(){ this.keyIndex = null; }
+
+    /** Attaches an augmentation, replacing any previous one. Values of every subtree are computed once now and then
+     * maintained by every mutator of <i>this</i>, including rotations and subtree operations, in time proportional to
+     * height per changed slot. Keys changed directly on a <i>BinaryNode</i> bypass the augmentation.
+     * @param augmentation Monoid to maintain, or null to detach
+     * @param <A> Data type of augmented value
+     */
+    public <A> void setAugmentation(Augmentation<? super K, A> augmentation){
+        this.augmentation = augmentation;
+        //only augmented values are rebuilt, as other side tables, such as tombstones, are still valid
+        this.rebuildAugmentedValues();
+    }
+
+    /** Attaches a node pool, replacing any previous one. From then on <i>remove</i>, <i>removeSubtree</i> and
+     * <i>clear</i> return removed <i>BinaryNode</i> to <i>nodePool</i>, and inserting keys or copying subtrees reuses
+     * them, so a removed <i>BinaryNode</i> must not be used by the caller afterwards.
+     * @param nodePool Pool to use, or null to allocate every <i>BinaryNode</i> afresh
+     */
+    public void setNodePool(NodePool<N, K> nodePool){ this.nodePool = nodePool; }
+
+    /** Stores <i>node</i> in slot at <i>index</i>, growing <i>tree</i> with empty slots if needed. Every write to a slot
+     * goes through here so that side tables mirroring slot contents stay in sync.
+     * @param index Index of slot
+     * @param node <i>Node</i> to store, or null to empty slot
+     */
+    protected void setSlot(int index, Node<N> node){
+        if(this.tree == null)
+            this.tree = new ArrayList<>();
+        if(index >= this.tree.size()){
+            if(node == null)
+                return;
+            if(TreeMetrics.ENABLED)
+                this.metrics().count(TreeMetrics.Operation.RESIZE, TreeMetrics.Event.RESIZES, 1);
+            this.tree.addAll(Collections.nCopies(index + 1 - this.tree.size(), null));
+        }
+        Node<N> oldNode = this.tree.get(index);
+        this.tree.set(index, node);
+        this.onSlotChanged(index, oldNode, node);
+    }
+
+    /** Updates side tables after one slot changed
+     * @param index Index of slot
+     * @param oldNode <i>Node</i> previously in slot, or null
+     * @param newNode <i>Node</i> now in slot, or null
+     */
+    private void onSlotChanged(int index, Node<N> oldNode, Node<N> newNode){
+        if((oldNode == null) != (newNode == null)){
+            this.levelCounts[BinaryTree.levelOf(index)] += newNode == null ? -1 : 1;
+            this.updateHeights(index);
+        }
+        this.updateAugmentedValues(index);
+        if(this.keyIndex == null)
+            return;
+        K oldKey = oldNode == null ? null : this.binaryNode(oldNode).getKey(), newKey = newNode == null ? null : this.binaryNode(newNode).getKey();
+        if(oldKey != null)
+            this.keyIndex.remove(oldKey, index);
+        if(newKey != null)
+            this.keyIndex.add(newKey, index);
+    }
+
+    /** Recomputes height of slot at <i>index</i> and of its ancestors, stopping at the first one whose height is unchanged
+     * @param index Index of slot that was filled or emptied
+     */
+    private void updateHeights(int index){
+        if(this.heights.length < this.tree.size())
+            this.heights = Arrays.copyOf(this.heights, Math.max(this.tree.size(), 2 * this.heights.length));
+        while(true){
+            int height = this.isOccupied(index) ? 1 + Math.max(this.countLevels(BinaryTree.getLeftChildIndex(index)),
+                    this.countLevels(BinaryTree.getRightChildIndex(index))) : 0;
+            if(height == this.heights[index])
+                return;
+            this.heights[index] = (byte)height;
+            if(index == 0)
+                return;
+            index = BinaryTree.getParentIndex(index);
+        }
+    }
+
+    /** Recomputes augmented value of slot at <i>index</i> and of all its ancestors
+     * @param index Index of slot whose contents, key or liveness changed
+     */
+    protected void updateAugmentedValues(int index){
+        if(this.augmentation == null)
+            return;
+        if(this.augmentedValues.length < this.tree.size())
+            this.augmentedValues = Arrays.copyOf(this.augmentedValues, Math.max(this.tree.size(), 2 * this.augmentedValues.length));
+        while(true){
+            this.augmentedValues[index] = this.isOccupied(index) ? this.computeAugmentedValue(index) : null;
+            if(index == 0)
+                return;
+            index = BinaryTree.getParentIndex(index);
+        }
+    }
+
+    /** Recomputes augmented value of every slot bottom-up, or drops them if no augmentation is attached
+     */
+    private void rebuildAugmentedValues(){
+        this.augmentedValues = new Object[this.augmentation == null || this.tree == null ? 0 : this.tree.size()];
+        for(int index = this.augmentedValues.length - 1; index >= 0; index--)
+            if(this.isOccupied(index))
+                this.augmentedValues[index] = this.computeAugmentedValue(index);
+    }
+
+    /** Combines augmented values of both child subtrees with the key at <i>index</i>
+     * @param index Index of an occupied slot whose children are up to date
+     * @return Augmented value of subtree rooted at <i>index</i>
+     */
+    private Object computeAugmentedValue(int index){ return this.computeAugmentedValue(this.augmentation, index); }
+
+    /** Combines augmented values of both child subtrees with the key at <i>index</i>, with value type of
+     * <i>augmentation</i> captured as <i>A</i>
+     * @param augmentation Attached <i>Augmentation</i>
+     * @param index Index of an occupied slot whose children are up to date
+     * @param <A> Data type of augmented value
+     * @return Augmented value of subtree rooted at <i>index</i>
+     */
+    private <A> A computeAugmentedValue(Augmentation<? super K, A> augmentation, int index){
+        A left = this.getAugmentedValue(BinaryTree.getLeftChildIndex(index)), right = this.getAugmentedValue(BinaryTree.getRightChildIndex(index));
+        return this.isLive(index) ? augmentation.combine(left, this.keyAt(index), right) : augmentation.combine(left, right);
+    }
+
+    /** Adds per-slot side tables and augmented values to what <i>Tree</i> measures
+     * @param footprint <i>Footprint</i> being accumulated
+     */
+    @Override
+    protected void measure(Footprint footprint){
+        super.measure(footprint);
+        footprint.add(Footprint.Category.SLOTS, 6L * Footprint.REFERENCE + Footprint.arraySize(this.heights.length, 1)
+                + Footprint.arraySize(this.levelCounts.length, 4) + Footprint.arraySize(this.augmentedValues.length, Footprint.REFERENCE)
+                + (this.keyIndex == null ? 0 : this.keyIndex.footprint()));
+        for(Object value : this.augmentedValues)
+            footprint.add(Footprint.Category.PAYLOADS, Footprint.valueSize(value));
+    }
+
+    /** Rebuilds side tables from scratch after <i>tree</i> was replaced or rearranged as a whole
+     */
+    protected void onSlotsReplaced(){
+        int size = this.tree == null ? 0 : this.tree.size();
+        this.heights = new byte[size];
+        Arrays.fill(this.levelCounts, 0);
+        for(int index = size - 1; index >= 0; index--)
+            if(this.isOccupied(index)){
+                this.heights[index] = (byte)(1 + Math.max(this.countLevels(BinaryTree.getLeftChildIndex(index)),
+                        this.countLevels(BinaryTree.getRightChildIndex(index))));
+                ++this.levelCounts[BinaryTree.levelOf(index)];
+            }
+        this.rebuildAugmentedValues();
+        if(this.keyIndex == null)
+            return;
+        this.keyIndex.clear();
+        for(int index = 0; this.tree != null && index < this.tree.size(); index++)
+            if(this.isOccupied(index) && this.keyAt(index) != null)
+                this.keyIndex.add(this.keyAt(index), index);
+    }
+
+    /** Sets new <i>BinaryNode</i> at some given index, including root, and replaces old <i>BinaryNode</i> if applicable.
+     * Note: does not check whether a parent already exists, therefore may lead to a detached <i>BinaryNode</i> in tree
+     * @param index Index to store new <i>BinaryNode</i>
+     * @param node <i>BinaryNode</i> to be added
+     * @return Whether adding new <i>BinaryNode</i> is successful or not
+     */
+    @Override
+    public boolean setNode(int index, Node<N> node){
+        if(node == null || index < 0 || index >= this.getCapacity() && this.getCapacity() != -1 || this.getDegree() != node.getChildCapacity())
+            return false;
+        node.setLeaf();
+        this.setSlot(index, node);
+        return true;
+    }
+
+    @Override
+    public boolean setCapacity(int capacity){
+        if(!super.setCapacity(capacity))
+            return false;
+        this.onSlotsReplaced();
+        return true;
+    }
+
+    @Override
+    public void clear(int newSize){
+        for(int index = 0; this.nodePool != null && index < this.tree.size(); index++)
+            this.releaseNode(this.tree.get(index));
+        super.clear(newSize);
+        this.onSlotsReplaced();
+    }
+
     /** Sets a new key for some <i>BinaryNode</i> at <i>index</i>
      * @param index Index of <i>BinaryNode</i> needing to change key
      * @param key New key to replace old key
      * @return Whether setting a new key is successful or not
      */
     public boolean setKey(int index, K key){
-        if(this.getNode(index).getKey().equals(key))
+        if(!this.isOccupied(index) || Objects.equals(this.keyAt(index), key))
             return false;
-        this.getNode(index).setKey(key);
+        BinaryNode<N, K> node = this.binaryNode(this.tree.get(index));
+        if(this.keyIndex != null && node.getKey() != null)
+            this.keyIndex.remove(node.getKey(), index);
+        node.setKey(key);
+        if(this.keyIndex != null && key != null)
+            this.keyIndex.add(key, index);
+        this.updateAugmentedValues(index);
         return true;
     }
 
@@ -440,22 +1137,18 @@ public class BinaryTree<N, K> extends Tree<N> {
         return true;
     }
 
-    /** Sets new left child for some <i>BinaryNode</i> without changing any other <i>BinaryNode</i>
+    /** Sets new left child for some <i>BinaryNode</i> without changing any other <i>BinaryNode</i>. Links between
+     * <i>BinaryNode</i> are implied by slot indices alone, so no <i>BinaryNode</i> keeps a list of its children.
      * @param parentIndex Index of parent
      * @param leftChild New left child
      * @return Whether setting a new left child is successful or not
      */
     public boolean setLeftChild(int parentIndex, BinaryNode<N, K> leftChild){
         int newIndex = BinaryTree.getLeftChildIndex(parentIndex);
-        if(!this.hasNode(parentIndex) || this.hasNode(leftChild))
+        if(!this.hasNode(parentIndex) || leftChild == null || this.hasNode(leftChild))
             return false;
         leftChild.setLeaf();
-        this.getNode(parentIndex).setLeftChild(leftChild);
-        this.tree.set(BinaryTree.getLeftChildIndex(parentIndex), leftChild);
-        if(this.hasNode(BinaryTree.getLeftChildIndex(newIndex)))
-            leftChild.setLeftChild(this.getNode(BinaryTree.getLeftChildIndex(newIndex)));
-        if(this.hasNode(BinaryTree.getRightChildIndex(newIndex)))
-            leftChild.setRightChild(this.getNode(BinaryTree.getRightChildIndex(newIndex)));
+        this.setSlot(newIndex, leftChild);
         return true;
     }
 
@@ -478,15 +1171,10 @@ public class BinaryTree<N, K> extends Tree<N> {
      */
     public boolean setRightChild(int parentIndex, BinaryNode<N, K> rightChild){
         int newIndex = BinaryTree.getRightChildIndex(parentIndex);
-        if(!this.hasNode(parentIndex) || this.hasNode(rightChild))
+        if(!this.hasNode(parentIndex) || rightChild == null || this.hasNode(rightChild))
             return false;
         rightChild.setLeaf();
-        this.getNode(parentIndex).setRightChild(rightChild);
-        this.tree.set(BinaryTree.getRightChildIndex(parentIndex), rightChild);
-        if(this.hasNode(BinaryTree.getLeftChildIndex(newIndex)))
-            rightChild.setLeftChild(this.getNode(BinaryTree.getLeftChildIndex(newIndex)));
-        if(this.hasNode(BinaryTree.getRightChildIndex(newIndex)))
-            rightChild.setRightChild(this.getNode(BinaryTree.getRightChildIndex(newIndex)));
+        this.setSlot(newIndex, rightChild);
         return true;
     }
 
@@ -502,11 +1190,63 @@ public class BinaryTree<N, K> extends Tree<N> {
         return this.setRightChild(parentIndex, rightChild);
     }
 
+    /** Creates the <i>BinaryNode</i> that inserting a bare key stores; subclasses override to supply their own node type
+     * @param key Key of new <i>BinaryNode</i>
+     * @return New <i>BinaryNode</i> holding <i>key</i>
+     */
+    protected BinaryNode<N, K> newNode(K key){
+        BinaryNode<N, K> node = this.acquireNode(key);
+        if(node != null)
+            return node;
+        if(TreeMetrics.ENABLED)
+            this.metrics().count(TreeMetrics.Operation.INSERT, TreeMetrics.Event.ALLOCATIONS, 1);
+        return new BinaryNode<>(key);
+    }
+
+    /** Creates a copy of <i>node</i> with same <i>ID</i>, weight and key, reusing a pooled <i>BinaryNode</i> if possible
+     * @param node <i>BinaryNode</i> to copy
+     * @return New <i>BinaryNode</i> equal to <i>node</i> but detached from any tree
+     */
+    protected BinaryNode<N, K> copyNode(BinaryNode<N, K> node){
+        if(this.nodePool == null){
+            if(TreeMetrics.ENABLED)
+                this.metrics().count(TreeMetrics.Operation.COPY, TreeMetrics.Event.ALLOCATIONS, 1);
+            return new BinaryNode<>(node);
+        }
+        BinaryNode<N, K> copy = this.newNode(node.getKey());
+        copy.setID(node.getID());
+        copy.setWeight(node.getWeight());
+        return copy;
+    }
+
+    /** Takes a recycled <i>BinaryNode</i> from attached pool
+     * @param key Key for reused <i>BinaryNode</i>
+     * @return Recycled <i>BinaryNode</i> holding <i>key</i>, or null if there is no pool or it is empty
+     */
+    protected BinaryNode<N, K> acquireNode(K key){ return this.acquireNode(key, BinaryNode.class); }
+
+    /** Takes a recycled <i>BinaryNode</i> of given type from attached pool, leaving the pool untouched otherwise
+     * @param key Key for reused <i>BinaryNode</i>
+     * @param type Class the recycled <i>BinaryNode</i> must be an instance of
+     * @return Recycled <i>BinaryNode</i> holding <i>key</i>, or null if there is no pool or its next node is not a <i>type</i>
+     */
+    protected BinaryNode<N, K> acquireNode(K key, Class<?> type){
+        return this.nodePool == null ? null : this.nodePool.acquire(key, type);
+    }
+
+    /** Returns a <i>BinaryNode</i> that is no longer stored in any slot to attached pool, if any
+     * @param node Removed <i>Node</i>
+     */
+    protected void releaseNode(Node<N> node){
+        if(this.nodePool != null && node != null)
+            this.nodePool.release(this.binaryNode(node));
+    }
+
     /** Inserts <i>BinaryNode</i> with given key at the first open spot, given that <i>BinaryTree</i> is not already full
      * @param key Key of inserted <i>BinaryNode</i>
      * @return Whether inserting <i></i>BinaryNode</i> is successful or not
      */
-    public boolean insertFirst(K key){ return this.insertFirst(new BinaryNode<>(key)); }
+    public boolean insertFirst(K key){ return this.insertFirst(this.newNode(key)); }
 
     /** Inserts <i>BinaryNode</i> at the first open spot, given that <i>BinaryTree</i> is not already full
      * @param node <i>BinaryNode</i> to insert
@@ -527,7 +1267,7 @@ public class BinaryTree<N, K> extends Tree<N> {
      * @param key Key of inserted <i>BinaryNode</i>
      * @return Whether inserting <i></i>BinaryNode</i> is successful or not
      */
-    public boolean insertLast(K key){ return this.insertLast(new BinaryNode<>(key)); }
+    public boolean insertLast(K key){ return this.insertLast(this.newNode(key)); }
 
     /** Inserts <i>BinaryNode</i> at first open spot after last fully filled level,
      * given that <i>BinaryTree</i> is not already full
@@ -559,7 +1299,8 @@ public class BinaryTree<N, K> extends Tree<N> {
     }
 
     /** If <i>BinaryNode</i> with given key is leaf, then <i>BinaryNode</i> will be simply removed.
-     * Otherwise, last <i>BinaryNode</i> is removed first and then replaces <i>BinaryNode</i> with given key.
+     * Otherwise, last <i>BinaryNode</i> is removed first and then replaces <i>BinaryNode</i> with given key. Children are
+     * read from slots, since the last <i>BinaryNode</i> has none and so can move without orphaning any.
      * @param key Key to remove
      * @return Whether removal of <i>BinaryNode</i> with given key is successful or not
      */
@@ -568,12 +1309,16 @@ public class BinaryTree<N, K> extends Tree<N> {
         if(index == -1)
             return false;
         BinaryNode<N, K> node = this.getNode(index);
-        if(node.isLeaf())
-            this.tree.set(index, null);
+        if(this.isLeaf(index))
+            this.setSlot(index, null);
         else {
-            this.setNode(index, this.getLast());
-            this.remove(this.getLast());
+            BinaryNode<N, K> last = this.getLast();
+            int lastIndex = this.tree.lastIndexOf(last);
+            this.setSlot(lastIndex, null);
+            if(lastIndex != index)
+                this.setNode(index, last);
         }
+        this.releaseNode(node);
         return true;
     }
 
@@ -586,7 +1331,8 @@ public class BinaryTree<N, K> extends Tree<N> {
         int index = this.tree.indexOf(node);
         if(index == -1)
             return false;
-        this.tree.set(index, null);
+        this.setSlot(index, null);
+        this.releaseNode(node);
         return true;
     }
 
@@ -599,25 +1345,56 @@ public class BinaryTree<N, K> extends Tree<N> {
     public boolean insertSubtree(int rootIndex, Tree<N> subtree){
         if(!this.hasNode(rootIndex))
             return false;
+        TreeEvent.Subtree event = new TreeEvent.Subtree();
+        event.begin();
         if(rootIndex == 0){
-            this.tree = subtree.tree;
+            //copied before clearing, so that nodes released by clear are never shared with subtree
+            List<Node<N>> copies = new ArrayList<>(subtree.tree.size());
+            for(Node<N> node : subtree.tree)
+                copies.add(node == null ? null : this.copyNode(this.binaryNode(node)));
+            this.clear();
+            this.tree = copies;
+            this.onSlotsReplaced();
+            this.commitSubtree(event, rootIndex, true, this.countOccupiedSlots());
             return true;
         }
         this.removeSubtree(rootIndex);
+        int subtreeNodes = 0;
         ArrayBlockingQueue<Pair<Integer, Integer>> Q = new ArrayBlockingQueue<>(this.getTreeSize());
         Q.offer(Pair.with(rootIndex, 0));
         while(!Q.isEmpty()){
             Pair<Integer, Integer> indexPair = Q.poll();
             int thisIndex = indexPair.getValue0(), subtreeIndex = indexPair.getValue1();
-            this.setNode(thisIndex, new BinaryNode<N, K>((BinaryNode<N, K>)subtree.getNode(subtreeIndex)));
+            this.setNode(thisIndex, this.copyNode((BinaryNode<N, K>)subtree.getNode(subtreeIndex)));
+            ++subtreeNodes;
             if(subtree.hasNode(((BinaryTree<N, K>)subtree).getLeftChild(subtreeIndex)))
                 Q.offer(Pair.with(BinaryTree.getLeftChildIndex(thisIndex), BinaryTree.getLeftChildIndex(subtreeIndex)));
             if(subtree.hasNode(((BinaryTree<N, K>)subtree).getRightChild(subtreeIndex)))
                 Q.offer(Pair.with(BinaryTree.getRightChildIndex(thisIndex), BinaryTree.getRightChildIndex(subtreeIndex)));
         }
+        this.commitSubtree(event, rootIndex, true, subtreeNodes);
         return true;
     }
 
+    /** Moves every <i>BinaryNode</i> of subtree rooted at <i>from</i> into the same relative slot under <i>to</i>, an
+     * ancestor of <i>from</i> whose subtree holds nothing else. A slot at depth <i>d</i> below <i>from</i> moves by
+     * <i>(to - from) * 2^d</i>; levels are moved top-down, so every slot written has already been vacated.
+     * @param from Index of subtree root to move
+     * @param to Index of empty slot that becomes subtree root
+     */
+    protected void liftSubtree(int from, int to){
+        int size = this.tree.size();
+        long shift = to - from;
+        for(long first = from, width = 1; first < size; first = 2 * first + 1, width <<= 1, shift <<= 1)
+            for(int index = (int)first, end = (int)Math.min(first + width, size); index < end; index++){
+                Node<N> node = this.tree.get(index);
+                if(node == null)
+                    continue;
+                this.setSlot(index, null);
+                this.setSlot((int)(index + shift), node);
+            }
+    }
+
     /** Deletes subtree rooted at <i>Node</i> located at given <i>rootIndex</i>
      * @param rootIndex Index of subtree root
      * @return Whether removal of subtree is successful or not
@@ -626,20 +1403,28 @@ public class BinaryTree<N, K> extends Tree<N> {
     public boolean removeSubtree(int rootIndex){
         if(!this.hasNode(rootIndex))
             return false;
+        TreeEvent.Subtree event = new TreeEvent.Subtree();
+        event.begin();
         if(rootIndex == 0){
+            int subtreeNodes = this.countOccupiedSlots();
             this.clear();
+            this.commitSubtree(event, rootIndex, false, subtreeNodes);
             return true;
         }
+        int subtreeNodes = 0;
         ArrayBlockingQueue<Integer> Q = new ArrayBlockingQueue<Integer>(this.getTreeSize());
         Q.offer(rootIndex);
         while(!Q.isEmpty()){
             int topIndex = Q.poll();
-            this.tree.set(topIndex, null);
+            this.releaseNode(this.tree.get(topIndex));
+            this.setSlot(topIndex, null);
+            ++subtreeNodes;
             if(this.hasNode(BinaryTree.getLeftChildIndex(topIndex)))
                 Q.offer(BinaryTree.getLeftChildIndex(topIndex));
             if(this.hasNode(BinaryTree.getRightChildIndex(topIndex)))
                 Q.offer(BinaryTree.getRightChildIndex(topIndex));
         }
+        this.commitSubtree(event, rootIndex, false, subtreeNodes);
         return true;
     }
 
@@ -650,6 +1435,9 @@ public class BinaryTree<N, K> extends Tree<N> {
     public boolean leftRotation(int rootIndex){
         if(!this.hasNode(rootIndex))
             return false;
+        long start = TreeMetrics.start();
+        TreeEvent.Rotation event = new TreeEvent.Rotation();
+        event.begin();
         int leftIndex = BinaryTree.getLeftChildIndex(rootIndex),
                 rightIndex = BinaryTree.getRightChildIndex(rootIndex),
                 grandChildIndex = BinaryTree.getLeftChildIndex(rightIndex);
@@ -663,6 +1451,11 @@ public class BinaryTree<N, K> extends Tree<N> {
         this.setLeftChild(rootIndex, originalRoot);
         this.insertSubtree(BinaryTree.getLeftChildIndex(leftIndex), leftSubtree);
         this.insertSubtree(BinaryTree.getRightChildIndex(leftIndex), grandChildSubtree);
+        if(TreeMetrics.ENABLED){
+            this.metrics().count(TreeMetrics.Operation.ROTATE, TreeMetrics.Event.ROTATIONS, 1);
+            this.metrics().record(TreeMetrics.Operation.ROTATE, start);
+        }
+        this.commitRotation(event, rootIndex, true);
         return true;
     }
 
@@ -673,6 +1466,9 @@ public class BinaryTree<N, K> extends Tree<N> {
     public boolean rightRotation(int rootIndex){
         if(!this.hasNode(rootIndex))
             return false;
+        long start = TreeMetrics.start();
+        TreeEvent.Rotation event = new TreeEvent.Rotation();
+        event.begin();
         int rightIndex = BinaryTree.getRightChildIndex(rootIndex),
                 leftIndex = BinaryTree.getLeftChildIndex(rootIndex),
                 grandChildIndex = BinaryTree.getRightChildIndex(leftIndex);
@@ -686,9 +1482,48 @@ public class BinaryTree<N, K> extends Tree<N> {
         this.setRightChild(rootIndex, originalRoot);
         this.insertSubtree(BinaryTree.getRightChildIndex(rightIndex), rightSubtree);
         this.insertSubtree(BinaryTree.getLeftChildIndex(leftIndex), grandChildSubtree);
+        if(TreeMetrics.ENABLED){
+            this.metrics().count(TreeMetrics.Operation.ROTATE, TreeMetrics.Event.ROTATIONS, 1);
+            this.metrics().record(TreeMetrics.Operation.ROTATE, start);
+        }
+        this.commitRotation(event, rootIndex, false);
         return true;
     }
 
+    /** Writes a finished rotation to the flight recording if it was slow enough
+     * @param event Event begun before rotation
+     * @param rootIndex Index of subtree root rotated about
+     * @param left Whether rotation was to the left
+     */
+    private void commitRotation(TreeEvent.Rotation event, int rootIndex, boolean left){
+        event.end();
+        if(!event.shouldCommit())
+            return;
+        event.treeClass = this.getClass().getSimpleName();
+        event.treeNodes = this.countOccupiedSlots();
+        event.rootIndex = rootIndex;
+        event.left = left;
+        event.commit();
+    }
+
+    /** Writes a finished subtree insertion or removal to the flight recording if it was slow enough
+     * @param event Event begun before operation
+     * @param rootIndex Index of subtree root
+     * @param insert Whether subtree was inserted rather than removed
+     * @param subtreeNodes Number of <i>Node</i> inserted or removed
+     */
+    private void commitSubtree(TreeEvent.Subtree event, int rootIndex, boolean insert, int subtreeNodes){
+        event.end();
+        if(!event.shouldCommit())
+            return;
+        event.treeClass = this.getClass().getSimpleName();
+        event.treeNodes = this.countOccupiedSlots();
+        event.rootIndex = rootIndex;
+        event.insert = insert;
+        event.subtreeNodes = subtreeNodes;
+        event.commit();
+    }
+
 }
 
 /** Variant of <i>BinaryTree</i> that sorts <i>key</i>
@@ -696,6 +1531,51 @@ public class BinaryTree<N, K> extends Tree<N> {
  * @param <K> Data type of <i>Key</i>
  */
 class BinarySearchTree<N, K> extends BinaryTree<N, K>{
+    //MEMBER VARIABLES
+    /** Number of lookups <i>searchBatch</i> advances together
+     */
+    public static final int BATCH_GROUP_SIZE = 16;
+
+    /** Fraction of occupied slots holding tombstones at which tombstone mode compacts by default
+     */
+    public static final double DEFAULT_COMPACTION_RATIO = 0.25;
+
+    /** Whether removals only mark slots dead instead of restructuring
+     */
+    private boolean tombstoneMode;
+
+    /** Slots whose <i>BinaryNode</i> was removed in tombstone mode but stays in place until compaction
+     */
+    private final BitSet tombstones = new BitSet();
+
+    /** Number of set bits in <i>tombstones</i>
+     */
+    private int tombstoneCount;
+
+    /** Fraction of occupied slots holding tombstones that triggers compaction
+     */
+    private double compactionRatio = BinarySearchTree.DEFAULT_COMPACTION_RATIO;
+
+    /** Executor that runs triggered compactions in the background, or null to compact on the removing thread
+     */
+    private Executor compactionExecutor;
+
+    /** Number of structural changes, used to tell whether a background compaction still matches the slots
+     */
+    private int modCount;
+
+    /** Whether a background compaction is running
+     */
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    /** Layout produced by a background compaction, waiting to be installed by the owning thread
+     */
+    private final AtomicReference<Compaction<N>> pendingCompaction = new AtomicReference<>();
+
+    /** Keys tombstoned after the running or pending compaction took its snapshot
+     */
+    private final List<K> lateRemovals = new ArrayList<>();
+
     //MEMBER FUNCTIONS
     //CONSTRUCTORS
     /** Default constructor creates empty tree
@@ -730,25 +1610,176 @@ class BinarySearchTree<N, K> extends BinaryTree<N, K>{
         return this.search(key, 0);
     }
 
+    /** Checks whether removals only mark slots dead
+     * @return Whether tombstone mode is enabled
+     */
+    public boolean isTombstoneMode(){ return this.tombstoneMode; }
+
+    /** Finds number of removed <i>BinaryNode</i> still occupying slots
+     * @return Number of tombstones
+     */
+    public int getTombstoneCount(){ return this.tombstoneCount; }
+
+    /** Finds fraction of occupied slots holding tombstones that triggers compaction
+     * @return Compaction ratio
+     */
+    public double getCompactionRatio(){ return this.compactionRatio; }
+
+    @Override
+    protected boolean isLive(int index){ return super.isLive(index) && !this.tombstones.get(index); }
+
+    /** Walks subtree like <i>BinaryTree.traverse</i> but skips tombstones, so every traversal, reduction and export
+     * built on it sees only live keys
+     */
+    @Override
+    public boolean traverse(TraversalOrder order, int rootIndex, IntPredicate visitor){
+        if(this.tombstoneCount == 0 || visitor == null)
+            return super.traverse(order, rootIndex, visitor);
+        return super.traverse(order, rootIndex, index -> this.tombstones.get(index) || visitor.test(index));
+    }
+
     /** Search for index of <i>BinaryNode</i> containing given key, but starting search at some given index
      * @param key Key to search for
      * @return Index of <i>BinaryNode</i> containing given key, otherwise -1 if does not exist
      */
     public int search(K key, int startIndex){
-        if(this.tree == null)
-            return -1;
-        if(this.tree.isEmpty())
-            return -1;
-        int index = startIndex;
+        long start = TreeMetrics.start();
+        this.applyPendingCompaction();
+        int index = startIndex, output = -1, visits = 0, comparisons = 0;
         while(this.hasNode(index)){
-            if(this.getKey(index).equals(key))
-                return index;
-            else if(String.valueOf(key).compareTo(String.valueOf(this.getKey(index))) < 0)
+            ++visits;
+            if(this.getKey(index).equals(key)){
+                output = this.isLive(index) ? index : -1;
+                break;
+            }
+            ++comparisons;
+            if(this.compare(key, this.getKey(index)) < 0)
                 index = BinaryTree.getLeftChildIndex(index);
             else
                 index = BinaryTree.getRightChildIndex(index);
         }
-        return -1;
+        if(TreeMetrics.ENABLED){
+            this.metrics().count(TreeMetrics.Operation.SEARCH, TreeMetrics.Event.NODE_VISITS, visits);
+            this.metrics().count(TreeMetrics.Operation.SEARCH, TreeMetrics.Event.COMPARISONS, comparisons);
+            this.metrics().record(TreeMetrics.Operation.SEARCH, start);
+        }
+        return output;
+    }
+
+    /** Searches for many keys at once. Lookups advance one level at a time in lock-step over groups of
+     * <i>BATCH_GROUP_SIZE</i> keys, so the cache misses of independent lookups overlap instead of stalling one by one.
+     * @param keys Keys to search for
+     * @param outIndices Receives, at the same position as each key, index of <i>BinaryNode</i> containing it or -1
+     * @return Number of keys found, or -1 if arguments are null or <i>outIndices</i> is shorter than <i>keys</i>
+     */
+    public int searchBatch(K[] keys, int[] outIndices){
+        if(keys == null || outIndices == null || outIndices.length < keys.length)
+            return -1;
+        this.applyPendingCompaction();
+        int found = 0;
+        int[] cursors = new int[BinarySearchTree.BATCH_GROUP_SIZE];
+        for(int start = 0; start < keys.length; start += cursors.length){
+            int count = Math.min(cursors.length, keys.length - start), active = count;
+            for(int i = 0; i < count; i++){
+                cursors[i] = 0;
+                outIndices[start + i] = -1;
+            }
+            while(active > 0){
+                active = 0;
+                for(int i = 0; i < count; i++){
+                    int index = cursors[i];
+                    if(index < 0)
+                        continue;
+                    if(!this.isOccupied(index)){
+                        cursors[i] = -1;
+                        continue;
+                    }
+                    K currentKey = this.getKey(index);
+                    if(currentKey.equals(keys[start + i])){
+                        if(this.isLive(index)){
+                            outIndices[start + i] = index;
+                            ++found;
+                        }
+                        cursors[i] = -1;
+                        continue;
+                    }
+                    cursors[i] = this.compare(keys[start + i], currentKey) < 0
+                            ? BinaryTree.getLeftChildIndex(index) : BinaryTree.getRightChildIndex(index);
+                    ++active;
+                }
+            }
+        }
+        return found;
+    }
+
+    /** Orders two keys the way <i>BinarySearchTree</i> places them, by their string representations
+     * @param key First key
+     * @param otherKey Second key
+     * @return Negative, zero or positive as <i>key</i> sorts before, with, or after <i>otherKey</i>
+     */
+    protected int compare(K key, K otherKey){ return String.valueOf(key).compareTo(String.valueOf(otherKey)); }
+
+    /** Combines augmented values of every key within an inclusive range, in time proportional to height: the search
+     * splits where the range does, and below that only the boundary paths are walked while whole subtrees inside the
+     * range contribute their stored values
+     * @param from Smallest key of range
+     * @param to Largest key of range
+     * @param <A> Data type of augmented value
+     * @return Combined value of keys <i>k</i> with <i>from</i> &lt;= <i>k</i> &lt;= <i>to</i>, or null if no augmentation is attached
+     */
+    public <A> A aggregate(K from, K to){
+        Augmentation<? super K, ?> augmentation = this.getAugmentation();
+        return augmentation == null ? null : BinaryTree.augmentedValue(this.aggregate(augmentation, from, to));
+    }
+
+    /** Combines augmented values of every key within an inclusive range, with value type of <i>augmentation</i>
+     * captured as <i>A</i>
+     * @param augmentation Attached <i>Augmentation</i>
+     * @param from Smallest key of range
+     * @param to Largest key of range
+     * @param <A> Data type of augmented value
+     * @return Combined value of keys <i>k</i> with <i>from</i> &lt;= <i>k</i> &lt;= <i>to</i>
+     */
+    private <A> A aggregate(Augmentation<? super K, A> augmentation, K from, K to){
+        int index = 0;
+        while(this.isOccupied(index)){
+            K key = this.getKey(index);
+            if(this.compare(key, from) < 0)
+                index = BinaryTree.getRightChildIndex(index);
+            else if(this.compare(key, to) > 0)
+                index = BinaryTree.getLeftChildIndex(index);
+            else {
+                A left = augmentation.getIdentity(), right = augmentation.getIdentity();
+                for(int i = BinaryTree.getLeftChildIndex(index); this.isOccupied(i); )
+                    if(this.compare(this.getKey(i), from) < 0)
+                        i = BinaryTree.getRightChildIndex(i);
+                    else {
+                        left = augmentation.combine(augmentation.combine(this.liftAt(augmentation, i),
+                                this.getAugmentedValue(BinaryTree.getRightChildIndex(i))), left);
+                        i = BinaryTree.getLeftChildIndex(i);
+                    }
+                for(int i = BinaryTree.getRightChildIndex(index); this.isOccupied(i); )
+                    if(this.compare(this.getKey(i), to) > 0)
+                        i = BinaryTree.getLeftChildIndex(i);
+                    else {
+                        right = augmentation.combine(right, augmentation.combine(
+                                this.getAugmentedValue(BinaryTree.getLeftChildIndex(i)), this.liftAt(augmentation, i)));
+                        i = BinaryTree.getRightChildIndex(i);
+                    }
+                return augmentation.combine(augmentation.combine(left, this.liftAt(augmentation, index)), right);
+            }
+        }
+        return augmentation.getIdentity();
+    }
+
+    /** Finds value a single slot contributes to an aggregate
+     * @param augmentation Attached <i>Augmentation</i>
+     * @param index Index of an occupied slot
+     * @param <A> Data type of augmented value
+     * @return Lifted key, or identity if slot holds a tombstone
+     */
+    private <A> A liftAt(Augmentation<? super K, A> augmentation, int index){
+        return this.isLive(index) ? augmentation.lift(this.getKey(index)) : augmentation.getIdentity();
     }
 
     //MUTATORS
@@ -756,32 +1787,47 @@ class BinarySearchTree<N, K> extends BinaryTree<N, K>{
      * @param key Key to insert
      * @return Whether inserting new <i>BinaryNode</i> is successful or not
      */
-    public boolean insert(K key){ return this.insert(new BinaryNode<>(key)); }
+    public boolean insert(K key){
+        BinaryNode<N, K> node = this.newNode(key);
+        if(this.insert(node))
+            return true;
+        this.releaseNode(node);
+        return false;
+    }
 
     /** Inserts given <i>BinaryNode</i> into correct spot by key ordering
      * @param node <i>BinaryNode</i> to insert
      * @return Whether inserting new <i>BinaryNode</i> is successful or not
      */
     public boolean insert(BinaryNode<N, K> node){
-        if(this.tree.isEmpty())
-            this.tree.set(0, node);
+        long start = TreeMetrics.start();
+        this.applyPendingCompaction();
         K key = node.getKey();
-        int p = 0, prev = 0;
+        int p = 0, visits = 0, comparisons = 0;
         while(this.hasNode(p)){
-            prev = p;
+            ++visits;
             K currentKey = ((BinaryNode<N, K>)this.tree.get(p)).getKey();
             if(currentKey.equals(key))
-                return false;
-            else if(String.valueOf(key).compareTo(String.valueOf(currentKey)) < 0)
-                p = BinaryTree.getLeftChildIndex(p);
-            else
-                p = BinaryTree.getRightChildIndex(p);
+                break;
+            ++comparisons;
+            p = this.compare(key, currentKey) < 0 ? BinaryTree.getLeftChildIndex(p) : BinaryTree.getRightChildIndex(p);
         }
-        if(String.valueOf(key).compareTo(String.valueOf(this.getKey(prev))) < 0)
-            this.setLeftChild(prev, node);
-        else
-            this.setRightChild(prev, node);
-        return true;
+        boolean output = true;
+        if(this.isLive(p))
+            output = false;
+        else {
+            //p is either the empty slot where the search fell off or a tombstone holding the same key
+            Node<N> dead = this.tree.size() > p ? this.tree.get(p) : null;
+            node.setLeaf();
+            this.setSlot(p, node);
+            this.releaseNode(dead);
+        }
+        if(TreeMetrics.ENABLED){
+            this.metrics().count(TreeMetrics.Operation.INSERT, TreeMetrics.Event.NODE_VISITS, visits);
+            this.metrics().count(TreeMetrics.Operation.INSERT, TreeMetrics.Event.COMPARISONS, comparisons);
+            this.metrics().record(TreeMetrics.Operation.INSERT, start);
+        }
+        return output;
     }
 
     /** Removes <i>BinaryNode</i> with given <i>key</i> from <i>this</i>, if exists
@@ -790,29 +1836,364 @@ class BinarySearchTree<N, K> extends BinaryTree<N, K>{
      */
     @Override
     public boolean remove(K key){
+        long start = TreeMetrics.start();
+        boolean output = this.removeKey(key);
+        if(TreeMetrics.ENABLED)
+            this.metrics().record(TreeMetrics.Operation.REMOVE, start);
+        return output;
+    }
+
+    /** Removes <i>BinaryNode</i> with given <i>key</i>, either by marking it dead in tombstone mode or by unlinking it
+     * @param key Value a <i>BinaryNode</i> holds
+     * @return Whether removing <i>key</i> is successful or not
+     */
+    private boolean removeKey(K key){
         int index = this.search(key);
         if(index == -1)
             return false;
-        if(this.getNode(index).isLeaf())
-            super.remove(key);
-        else if(!this.hasNode(BinaryTree.getLeftChildIndex(index))){
-            BinaryTree<N, K> rightSubtree = this.getSubtree(BinaryTree.getRightChildIndex(index));
-            this.tree.set(index, null);
-            this.insertSubtree(index, rightSubtree);
-        } else if(!this.hasNode(BinaryTree.getRightChildIndex(index))){
-            BinaryTree<N, K> leftSubtree = this.getSubtree(BinaryTree.getLeftChildIndex(index));
-            this.tree.set(index, null);
-            this.insertSubtree(index, leftSubtree);
+        if(this.tombstoneMode){
+            this.tombstones.set(index);
+            ++this.tombstoneCount;
+            if(this.compacting.get() || this.pendingCompaction.get() != null)
+                this.lateRemovals.add(key);
+            this.updateAugmentedValues(index);
+            if(this.tombstoneCount >= Math.max(1.0, this.compactionRatio * this.countOccupiedSlots())){
+                if(this.compactionExecutor == null)
+                    this.compact();
+                else
+                    this.compactAsync(this.compactionExecutor);
+            }
+            return true;
+        }
+        Node<N> node = this.tree.get(index);
+        int leftIndex = BinaryTree.getLeftChildIndex(index), rightIndex = leftIndex + 1;
+        if(!this.hasNode(leftIndex) || !this.hasNode(rightIndex)){
+            //at most one child, whose subtree takes over the vacated slot
+            this.setSlot(index, null);
+            if(this.hasNode(leftIndex))
+                this.liftSubtree(leftIndex, index);
+            else if(this.hasNode(rightIndex))
+                this.liftSubtree(rightIndex, index);
         } else {
-            int inorderSuccessorIndex = this.tree.indexOf(this.getInorderSuccessor(BinaryTree.getRightChildIndex(index)));
-            BinaryNode<N, K> newTopNode = this.getNode(inorderSuccessorIndex);
-            this.tree.set(inorderSuccessorIndex, null);
-            this.tree.set(index, null);
-            this.setNode(index, newTopNode);
+            //inorder successor has no left child, so its right subtree takes over its slot
+            int successorIndex = rightIndex;
+            while(this.hasNode(BinaryTree.getLeftChildIndex(successorIndex)))
+                successorIndex = BinaryTree.getLeftChildIndex(successorIndex);
+            Node<N> successor = this.tree.get(successorIndex);
+            this.setSlot(successorIndex, null);
+            this.setSlot(index, successor);
+            if(this.hasNode(BinaryTree.getRightChildIndex(successorIndex)))
+                this.liftSubtree(BinaryTree.getRightChildIndex(successorIndex), successorIndex);
+        }
+        this.releaseNode(node);
+        return true;
+    }
+
+    /** Enables or disables tombstone mode. While enabled, <i>remove</i> only marks the slot of the removed key dead, in
+     * time proportional to height, searches and traversals skip dead slots, and the tree is compacted once tombstones
+     * reach <i>compactionRatio</i> of occupied slots. Disabling compacts immediately.
+     * @param tombstoneMode Whether removals leave tombstones
+     */
+    public void setTombstoneMode(boolean tombstoneMode){
+        this.tombstoneMode = tombstoneMode;
+        if(!tombstoneMode)
+            this.compact();
+    }
+
+    /** Sets fraction of occupied slots holding tombstones that triggers compaction
+     * @param compactionRatio Ratio in (0, 1]
+     * @return Whether setting compaction ratio is successful or not
+     */
+    public boolean setCompactionRatio(double compactionRatio){
+        if(!(compactionRatio > 0 && compactionRatio <= 1))
+            return false;
+        this.compactionRatio = compactionRatio;
+        return true;
+    }
+
+    /** Sets executor that runs triggered compactions in the background
+     * @param compactionExecutor Executor to use, or null to compact on the thread that triggers it
+     */
+    public void setCompactionExecutor(Executor compactionExecutor){ this.compactionExecutor = compactionExecutor; }
+
+    /** Rebuilds tree from live <i>BinaryNode</i> only, dropping every tombstone, and discards any pending background result
+     * @return Whether any tombstone was dropped
+     */
+    public boolean compact(){
+        this.pendingCompaction.set(null);
+        this.lateRemovals.clear();
+        if(this.tombstoneCount == 0)
+            return false;
+        List<Node<N>> dead = new ArrayList<>(this.tombstoneCount);
+        this.tombstones.stream().forEach(index -> dead.add(this.tree.get(index)));
+        this.rebuild(this.getNodesInOrder());
+        dead.forEach(this::releaseNode);
+        return true;
+    }
+
+    /** Starts a compaction on <i>executor</i>. Slots and tombstones are snapshotted on the calling thread and the new
+     * layout is built in the background, then published through an atomic reference. The owning thread installs it at
+     * its next search, insert or removal, or via <i>applyPendingCompaction</i>, provided no structural change happened in
+     * between; keys tombstoned meanwhile are marked again in the new layout.
+     * @param executor Executor to build layout on
+     * @return Whether a compaction was started; <i>false</i> if there is nothing to compact, one is already running, or
+     * <i>executor</i> rejected it
+     */
+    public boolean compactAsync(Executor executor){
+        if(executor == null || this.tombstoneCount == 0 || !this.compacting.compareAndSet(false, true))
+            return false;
+        List<Node<N>> slots = new ArrayList<>(this.tree);
+        BitSet dead = (BitSet)this.tombstones.clone();
+        int expectedModCount = this.modCount;
+        this.lateRemovals.clear();
+        try {
+            executor.execute(() -> {
+                try {
+                    this.pendingCompaction.set(BinarySearchTree.layOut(slots, dead, expectedModCount));
+                } finally {
+                    this.compacting.set(false);
+                }
+            });
+        } catch(RejectedExecutionException e){
+            this.compacting.set(false);
+            return false;
+        }
+        return true;
+    }
+
+    /** Installs layout of a finished background compaction if it still matches the slots, otherwise discards it
+     * @return Whether a layout was installed
+     */
+    public boolean applyPendingCompaction(){
+        if(this.pendingCompaction.get() == null)
+            return false;
+        Compaction<N> compaction = this.pendingCompaction.getAndSet(null);
+        List<K> late = new ArrayList<>(this.lateRemovals);
+        this.lateRemovals.clear();
+        if(compaction == null || compaction.modCount != this.modCount)
+            return false;
+        compaction.layout.forEach(Node::setLeaf);
+        this.tree = compaction.layout;
+        this.onSlotsReplaced();
+        compaction.dead.forEach(this::releaseNode);
+        for(K key : late){
+            int index = this.search(key, 0);
+            if(index != -1){
+                this.tombstones.set(index);
+                ++this.tombstoneCount;
+                this.updateAugmentedValues(index);
+            }
+        }
+        return true;
+    }
+
+    /** Builds compacted layout from a snapshot of slots, without touching the tree itself
+     * @param slots Snapshot of <i>tree</i>
+     * @param dead Snapshot of <i>tombstones</i>
+     * @param modCount Structural change count at snapshot
+     * @param <N> Data type of <i>BinaryNode</i>
+     * @return Compacted layout with dropped <i>BinaryNode</i>
+     */
+    private static <N> Compaction<N> layOut(List<Node<N>> slots, BitSet dead, int modCount){
+        List<Node<N>> live = new ArrayList<>(), removed = new ArrayList<>();
+        BinarySearchTree.collectInOrder(slots, dead, 0, live);
+        dead.stream().forEach(index -> removed.add(slots.get(index)));
+        List<Node<N>> layout = new ArrayList<>(Collections.nCopies(live.size(), null));
+        BinarySearchTree.place(live, layout, 0, 0);
+        return new Compaction<>(modCount, layout, removed);
+    }
+
+    /** Collects live <i>Node</i> of snapshot subtree in LVR order
+     * @param slots Snapshot of <i>tree</i>
+     * @param dead Snapshot of <i>tombstones</i>
+     * @param index Index of subtree root
+     * @param live Receives live <i>Node</i>
+     * @param <N> Data type of <i>BinaryNode</i>
+     */
+    private static <N> void collectInOrder(List<Node<N>> slots, BitSet dead, int index, List<Node<N>> live){
+        if(index >= slots.size() || slots.get(index) == null)
+            return;
+        BinarySearchTree.collectInOrder(slots, dead, BinaryTree.getLeftChildIndex(index), live);
+        if(!dead.get(index))
+            live.add(slots.get(index));
+        BinarySearchTree.collectInOrder(slots, dead, BinaryTree.getRightChildIndex(index), live);
+    }
+
+    @Override
+    protected void setSlot(int index, Node<N> node){
+        if(this.tombstones.get(index)){
+            this.tombstones.clear(index);
+            --this.tombstoneCount;
+        }
+        ++this.modCount;
+        super.setSlot(index, node);
+    }
+
+    @Override
+    public boolean setKey(int index, K key){
+        ++this.modCount;
+        return super.setKey(index, key);
+    }
+
+    /** Adds tombstone bits and compaction state to what <i>BinaryTree</i> measures
+     * @param footprint <i>Footprint</i> being accumulated
+     */
+    @Override
+    protected void measure(Footprint footprint){
+        super.measure(footprint);
+        footprint.add(Footprint.Category.SLOTS, 6L * Footprint.REFERENCE + 2L * 4 + 8 + 1
+                + Footprint.objectSize(1, 1, 0, 1) + Footprint.arraySize(this.tombstones.size() / Long.SIZE, 8)
+                + 2 * Footprint.objectSize(1, 0, 0, 0) + Footprint.listSize(this.lateRemovals));
+    }
+
+    @Override
+    protected void onSlotsReplaced(){
+        this.tombstones.clear();
+        this.tombstoneCount = 0;
+        ++this.modCount;
+        super.onSlotsReplaced();
+    }
+
+    /** Inserts a batch of keys in one ordered pass: the batch is sorted, merged with the keys already stored in LVR order,
+     * and the tree is rebuilt once as a complete, height-balanced tree. Batches small enough that per-key insertion is
+     * cheaper than touching every <i>BinaryNode</i> are inserted one by one instead.
+     * @param keys Keys to insert; keys already present, or repeated in batch, are skipped
+     * @return Whether any key was inserted
+     */
+    public boolean insertAll(Collection<? extends K> keys){
+        if(keys == null || keys.isEmpty())
+            return false;
+        int currentSize = this.getTreeSize();
+        if(BinarySearchTree.preferPerKey(keys.size(), currentSize)){
+            boolean changed = false;
+            for(K key : keys)
+                changed |= this.insert(key);
+            return changed;
         }
+        List<K> batch = new ArrayList<>(keys);
+        batch.sort(this::compare);
+        List<BinaryNode<N, K>> existing = this.getNodesInOrder();
+        List<BinaryNode<N, K>> merged = new ArrayList<>(existing.size() + batch.size());
+        int i = 0, j = 0;
+        while(i < existing.size() || j < batch.size()){
+            if(j == batch.size()){
+                merged.add(existing.get(i++));
+                continue;
+            }
+            K key = batch.get(j);
+            int comparison = i == existing.size() ? -1 : this.compare(key, existing.get(i).getKey());
+            if(comparison > 0)
+                merged.add(existing.get(i++));
+            else {
+                if(comparison < 0 && (merged.isEmpty() || this.compare(key, merged.get(merged.size() - 1).getKey()) != 0))
+                    merged.add(this.newNode(key));
+                ++j;
+            }
+        }
+        if(merged.size() == existing.size() || this.getCapacity() != -1 && merged.size() > this.getCapacity())
+            return false;
+        this.rebuild(merged);
+        return true;
+    }
+
+    /** Removes a batch of keys in one ordered pass: the batch is sorted, the stored keys are walked in LVR order skipping
+     * every match, and the tree is rebuilt once from the survivors. Batches small enough that per-key removal is cheaper
+     * are removed one by one instead.
+     * @param keys Keys to remove; keys not present are ignored
+     * @return Whether any key was removed
+     */
+    public boolean removeAll(Collection<? extends K> keys){
+        if(keys == null || keys.isEmpty())
+            return false;
+        int currentSize = this.getTreeSize();
+        if(BinarySearchTree.preferPerKey(keys.size(), currentSize)){
+            boolean changed = false;
+            for(K key : keys)
+                changed |= this.remove(key);
+            return changed;
+        }
+        List<K> batch = new ArrayList<>(keys);
+        batch.sort(this::compare);
+        List<BinaryNode<N, K>> existing = this.getNodesInOrder();
+        List<BinaryNode<N, K>> kept = new ArrayList<>(existing.size()), removed = new ArrayList<>();
+        int j = 0;
+        for(BinaryNode<N, K> node : existing){
+            while(j < batch.size() && this.compare(batch.get(j), node.getKey()) < 0)
+                ++j;
+            if(j == batch.size() || this.compare(batch.get(j), node.getKey()) != 0)
+                kept.add(node);
+            else
+                removed.add(node);
+        }
+        if(removed.isEmpty())
+            return false;
+        this.rebuild(kept);
+        removed.forEach(this::releaseNode);
         return true;
     }
 
+    /** Finds every <i>BinaryNode</i> in LVR order, i.e. sorted by key
+     * @return List of <i>BinaryNode</i> sorted by key
+     */
+    protected List<BinaryNode<N, K>> getNodesInOrder(){
+        List<BinaryNode<N, K>> output = new ArrayList<>(this.tree == null ? 0 : this.getTreeSize());
+        this.forEachIndex(TraversalOrder.INORDER, index -> output.add(this.getNode(index)));
+        return output;
+    }
+
+    /** Replaces contents of <i>tree</i> with given <i>BinaryNode</i> arranged as a complete binary search tree, so
+     * that slots 0 to size - 1 are all filled and heights of sibling subtrees differ by at most 1
+     * @param sortedNodes <i>BinaryNode</i> sorted by key
+     */
+    protected void rebuild(List<? extends BinaryNode<N, K>> sortedNodes){
+        List<Node<N>> layout = new ArrayList<>(Collections.nCopies(sortedNodes.size(), null));
+        sortedNodes.forEach(Node::setLeaf);
+        BinarySearchTree.place(sortedNodes, layout, 0, 0);
+        this.tree = layout;
+        this.onSlotsReplaced();
+    }
+
+    /** Fills subtree of <i>layout</i> rooted at <i>index</i> in LVR order from <i>sortedNodes</i>
+     * @param sortedNodes <i>BinaryNode</i> sorted by key
+     * @param layout Slots being filled
+     * @param index Index of subtree root
+     * @param next Position in <i>sortedNodes</i> of next <i>BinaryNode</i> to place
+     * @param <N> Data type of <i>BinaryNode</i>
+     * @return Position in <i>sortedNodes</i> after subtree is filled
+     */
+    private static <N> int place(List<? extends Node<N>> sortedNodes, List<Node<N>> layout, int index, int next){
+        if(index >= layout.size())
+            return next;
+        next = BinarySearchTree.place(sortedNodes, layout, BinaryTree.getLeftChildIndex(index), next);
+        layout.set(index, sortedNodes.get(next));
+        return BinarySearchTree.place(sortedNodes, layout, BinaryTree.getRightChildIndex(index), next + 1);
+    }
+
+    /** Decides whether a batch is cheaper to apply key by key, which costs about one root-to-leaf walk per key, than by
+     * one ordered merge and rebuild, which touches every <i>BinaryNode</i>
+     * @param batchSize Number of keys in batch
+     * @param treeSize Number of <i>BinaryNode</i> currently stored
+     * @return Whether to fall back to per-key operations
+     */
+    private static boolean preferPerKey(int batchSize, int treeSize){
+        return (long)batchSize * Math.max(BinaryTree.getLevels(treeSize), 1) < treeSize;
+    }
+
+    /** Result of a background compaction: new layout, the <i>BinaryNode</i> it dropped, and the structural change count
+     * of the slots it was built from
+     * @param <N> Data type of <i>BinaryNode</i>
+     */
+    private static class Compaction<N> {
+        private final int modCount;
+        private final List<Node<N>> layout, dead;
+
+        Compaction(int modCount, List<Node<N>> layout, List<Node<N>> dead){
+            this.modCount = modCount;
+            this.layout = layout;
+            this.dead = dead;
+        }
+    }
+
 }
 
 /** Variant of <i>BinarySearchTree</i> that uses threads to faciliate traversal
@@ -882,13 +2263,23 @@ class AVLTree<N, K> extends BinarySearchTree<N, K> {
         return (AVLNode<N, K>)this.tree.get(index);
     }
 
+    @Override
+    protected AVLNode<N, K> newNode(K key){
+        AVLNode<N, K> node = (AVLNode<N, K>)this.acquireNode(key, AVLNode.class);
+        if(node != null)
+            return node;
+        if(TreeMetrics.ENABLED)
+            this.metrics().count(TreeMetrics.Operation.INSERT, TreeMetrics.Event.ALLOCATIONS, 1);
+        return new AVLNode<>(key);
+    }
+
     /** Checks whether <i>AVLNode</i> under <i>avlTree</i> at given <i>index</i> has balance factor equal either to -1, 0, or 1
      * @param index Index of <i>AVLNode</i> to check
      * @param avlTree <i>AVLTree</i>
      * @return Whether balance factor of <i>AVLNode</i> is acceptable
      */
     public static <N, K> boolean acceptableBalanceFactor(int index, AVLTree<N, K> avlTree){
-        return AVLNode.acceptableBalanceFactor(avlTree.getNode(index), avlTree);
+        return Math.abs(avlTree.getBalanceFactor(index)) <= 1;
     }
 
     /** Checks whether <i>AVLNode</i> in <i>this</i> at given <i>index</i> has balance factor equal either to -1, 0
@@ -904,10 +2295,20 @@ class AVLTree<N, K> extends BinarySearchTree<N, K> {
      * @return Balance factor
      */
     public int getBalanceFactor(int index){
-        if(index < 0 || index >= this.getTreeSize())
+        if(!this.isOccupied(index))
             return 0;
-        return this.getHeight(BinaryTree.getRightChildIndex(index))
-                - this.getHeight(BinaryTree.getLeftChildIndex(index));
+        return this.countLevels(BinaryTree.getRightChildIndex(index))
+                - this.countLevels(BinaryTree.getLeftChildIndex(index));
+    }
+
+    /** Checks whether every <i>AVLNode</i> has a balance factor of -1, 0, or 1, in one pass over the slots
+     * @return Whether <i>this</i> satisfies the AVL property
+     */
+    public boolean isBalanced(){
+        for(int index = 0; this.tree != null && index < this.tree.size(); index++)
+            if(!AVLTree.acceptableBalanceFactor(index, this))
+                return false;
+        return true;
     }
 
     //MUTATORS
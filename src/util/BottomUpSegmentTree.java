@@ -0,0 +1,209 @@
+package JTreeLib.util;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/** Sum segment tree over doubles, laid out bottom-up in one array of <i>2n</i> slots: elements occupy slots <i>n</i> to
+ * <i>2n - 1</i> and slot <i>i</i> holds the sum of slots <i>2i</i> and <i>2i + 1</i>. The layout works for any <i>n</i>;
+ * when <i>n</i> is a power of 2 it is a perfect tree and slot 1 is the total. Queries and updates are plain loops over
+ * slot indices, with no recursion, bounds objects, boxing or overridable calls, so the class is final.
+ * <p>Slots with the same bit length form a level, and the children of a level all lie in deeper levels, so
+ * <i>updateBatch</i> can recompute a whole level at once, in parallel, after every deeper level is done.</p>
+ */
+public final class BottomUpSegmentTree {
+    //MEMBER VARIABLES
+    /** Sums by slot; slot 0 is unused
+     */
+    private final double[] tree;
+
+    /** Number of elements
+     */
+    private final int size;
+
+    /** Bit per inner slot marking it for recomputation by <i>updateBatch</i>; allocated by the first sparse batch and
+     * all clear between batches
+     */
+    private long[] dirty;
+
+    //MEMBER FUNCTIONS
+    //CONSTRUCTORS
+    /** Constructor builds tree from an array in linear time
+     * @param arr Array to implement into tree, which is not kept
+     */
+    public BottomUpSegmentTree(double[] arr){
+        this.size = arr == null ? 0 : arr.length;
+        this.tree = new double[2 * this.size];
+        if(this.size > 0)
+            System.arraycopy(arr, 0, this.tree, this.size, this.size);
+        for(int i = this.size - 1; i > 0; i--)
+            this.tree[i] = this.tree[2 * i] + this.tree[2 * i + 1];
+    }
+
+    //ACCESSORS
+    /** Finds number of elements
+     * @return Length of array represented by tree
+     */
+    public int size(){ return this.size; }
+
+    /** Finds current value of one element
+     * @param index Index of element
+     * @return Value of element, or 0 if <i>index</i> is out of bounds
+     */
+    public double get(int index){ return index < 0 || index >= this.size ? 0 : this.tree[this.size + index]; }
+
+    /** Finds sum of sub-array bounded by 2 indices
+     * @param startIndex Index of first element in sub-array for summation
+     * @param endIndex Index of last element in sub-array for summation
+     * @return Sum of sub-array, or -1 if array does not fully contain sub-array with given bounds
+     */
+    public double sum(int startIndex, int endIndex){
+        if(startIndex < 0 || endIndex >= this.size || startIndex > endIndex)
+            return -1;
+        double[] tree = this.tree;
+        double output = 0;
+        for(int low = startIndex + this.size, high = endIndex + this.size + 1; low < high; low >>= 1, high >>= 1){
+            if((low & 1) != 0)
+                output += tree[low++];
+            if((high & 1) != 0)
+                output += tree[--high];
+        }
+        return output;
+    }
+
+    /** Estimates bytes retained by tree; everything is one array, counted as slots
+     * @return <i>Footprint</i> of tree
+     */
+    public Footprint footprint(){
+        Footprint footprint = new Footprint();
+        footprint.add(Footprint.Category.SLOTS, Footprint.objectSize(2, 1, 0, 0) + Footprint.arraySize(this.tree.length, 8)
+                + (this.dirty == null ? 0 : Footprint.arraySize(this.dirty.length, 8)));
+        return footprint;
+    }
+
+    //MUTATORS
+    /** Updates element at given index and recomputes sums on its path to root
+     * @param index Index of element to be updated
+     * @param newValue New value to replace current value located at given index
+     * @return Whether update is successful or not
+     */
+    public boolean update(int index, double newValue){
+        if(index < 0 || index >= this.size)
+            return false;
+        double[] tree = this.tree;
+        int slot = index + this.size;
+        tree[slot] = newValue;
+        for(slot >>= 1; slot > 0; slot >>= 1)
+            tree[slot] = tree[2 * slot] + tree[2 * slot + 1];
+        return true;
+    }
+
+    /** Adds a value to element at given index and to every sum containing it
+     * @param index Index of element to be changed
+     * @param delta Value to add
+     * @return Whether update is successful or not
+     */
+    public boolean add(int index, double delta){
+        if(index < 0 || index >= this.size)
+            return false;
+        double[] tree = this.tree;
+        for(int slot = index + this.size; slot > 0; slot >>= 1)
+            tree[slot] += delta;
+        return true;
+    }
+
+    /** Updates many elements at once. Leaves are written first, then every inner slot above them is recomputed exactly
+     * once, level by level from the bottom; levels wider than <i>Tree.DEFAULT_PARALLEL_THRESHOLD</i> slots are split
+     * across the common <i>ForkJoinPool</i>. A batch dense enough to touch about every slot anyway rebuilds all of
+     * them instead of tracking which changed.
+     * @param indices Indices of elements to be updated; if an index repeats, its last value wins
+     * @param values New values, in the same order as <i>indices</i>
+     * @return Whether update is successful or not; nothing changes if arrays differ in length or any index is out of
+     * bounds
+     */
+    public boolean updateBatch(int[] indices, double[] values){
+        if(indices == null || values == null || indices.length != values.length)
+            return false;
+        for(int index : indices)
+            if(index < 0 || index >= this.size)
+                return false;
+        for(int i = 0; i < indices.length; i++)
+            this.tree[this.size + indices[i]] = values[i];
+        if(this.size < 2 || indices.length == 0)
+            return true;
+        int topLevel = 31 - Integer.numberOfLeadingZeros(this.size - 1);
+        boolean dense = (long)indices.length * (topLevel + 1) >= this.size;
+        if(!dense){
+            if(this.dirty == null)
+                this.dirty = new long[(this.size + 63) >> 6];
+            for(int index : indices){
+                int parent = (this.size + index) >> 1;
+                this.dirty[parent >> 6] |= 1L << parent;
+            }
+        }
+        for(int level = topLevel; level >= 0; level--){
+            int from = 1 << level, to = Math.min(this.size, from << 1);
+            if(to - from <= Tree.DEFAULT_PARALLEL_THRESHOLD)
+                this.recompute(from, to, dense);
+            else
+                ForkJoinPool.commonPool().invoke(new LevelTask(from, to, dense));
+        }
+        return true;
+    }
+
+    /** Recomputes inner slots of one level in a range, all of them or only those marked dirty. Marked slots are
+     * cleared and mark their parents in turn.
+     * @param from First slot of range
+     * @param to One past last slot of range
+     * @param dense Whether to recompute every slot rather than only marked ones
+     */
+    private void recompute(int from, int to, boolean dense){
+        double[] tree = this.tree;
+        if(dense){
+            for(int slot = from; slot < to; slot++)
+                tree[slot] = tree[2 * slot] + tree[2 * slot + 1];
+            return;
+        }
+        long[] dirty = this.dirty;
+        for(int word = from >> 6, last = (to - 1) >> 6; word <= last; word++){
+            long mask = -1L;
+            if(word == from >> 6)
+                mask &= -1L << from;
+            if(word == last)
+                mask &= -1L >>> (63 - ((to - 1) & 63));
+            long bits = dirty[word] & mask;
+            dirty[word] &= ~mask;
+            for(; bits != 0; bits &= bits - 1){
+                int slot = word << 6 | Long.numberOfTrailingZeros(bits), parent = slot >> 1;
+                tree[slot] = tree[2 * slot] + tree[2 * slot + 1];
+                if(parent > 0)
+                    dirty[parent >> 6] |= 1L << parent;
+            }
+        }
+    }
+
+    /** Fork/join task recomputing a range of one level. Ranges are split at multiples of 128 slots, so the parents
+     * marked by each half fall in separate words of <i>dirty</i>.
+     */
+    private class LevelTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to;
+        private final boolean dense;
+
+        LevelTask(int from, int to, boolean dense){
+            this.from = from;
+            this.to = to;
+            this.dense = dense;
+        }
+
+        @Override
+        protected void compute(){
+            int middle = (this.from + (this.to - this.from) / 2) & -128;
+            if(this.to - this.from <= Tree.DEFAULT_PARALLEL_THRESHOLD || middle <= this.from){
+                BottomUpSegmentTree.this.recompute(this.from, this.to, this.dense);
+                return;
+            }
+            invokeAll(new LevelTask(this.from, middle, this.dense), new LevelTask(middle, this.to, this.dense));
+        }
+    }
+
+}
@@ -0,0 +1,348 @@
+package JTreeLib.util;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+/** Min-heap priority queue laid out implicitly in an array like <i>BinaryTree</i>, but with <i>arity</i> children per
+ * slot: the children of slot <i>i</i> are <i>arity * i + 1</i> to <i>arity * i + arity</i>. A wider node makes the tree
+ * shallower, and with an arity of 4 or 8 the children of a slot share one or two cache lines, so <i>poll</i> touches
+ * fewer lines than with 2. Every offered element gets an <i>int</i> handle, which stays valid until the element leaves
+ * the heap and lets <i>decreaseKey</i>, <i>update</i> and <i>remove</i> find it in constant time. Handles of elements
+ * that left are given to later elements, so the handle table never outgrows the most elements the heap has held.
+ * @param <E> Data type of element
+ */
+public class DaryHeap<E> {
+    //MEMBER VARIABLES
+    /** Number of children per slot used when none is given
+     */
+    public static final int DEFAULT_ARITY = 4;
+
+    /** Most elements a heap can hold, the largest array length every JVM allows
+     */
+    public static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    /** Number of children per slot
+     */
+    private final int arity;
+
+    /** Orders elements, smallest first; null means natural ordering
+     */
+    private final Comparator<? super E> comparator;
+
+    /** Elements in heap order
+     */
+    private Object[] elements;
+
+    /** Handle of element at each slot
+     */
+    private int[] handles;
+
+    /** Slot of each handle, or -1 if its element is no longer in the heap
+     */
+    private int[] slots;
+
+    /** Number of elements
+     */
+    private int size;
+
+    /** Handle given to next offered element
+     */
+    private int nextHandle;
+
+    /** Most recently freed handle, which <i>offer</i> gives out again before a new one, or -1 if none is free. Freed
+     * handles form a list through <i>slots</i>, where a free handle's entry is <i>-2 - next</i> and <i>next</i> is the
+     * handle freed before it, or -1.
+     */
+    private int freeHandle = -1;
+
+    //MEMBER FUNCTIONS
+    //CONSTRUCTORS
+    /** Default constructor creates empty heap of <i>DEFAULT_ARITY</i> ordered naturally
+     */
+    public DaryHeap(){ this(DaryHeap.DEFAULT_ARITY, null); }
+
+    /** Constructor applies <i>arity</i> and <i>comparator</i>
+     * @param arity Number of children per slot; values below 2 count as 2
+     * @param comparator Orders elements, smallest first, or null for natural ordering
+     */
+    public DaryHeap(int arity, Comparator<? super E> comparator){
+        this.arity = Math.max(arity, 2);
+        this.comparator = comparator;
+        this.elements = new Object[16];
+        this.handles = new int[16];
+        this.slots = new int[16];
+    }
+
+    /** Constructor builds heap from <i>elements</i> in linear time by sifting down every inner slot, bottom-up. The
+     * element at position <i>i</i> of <i>elements</i> gets handle <i>i</i>.
+     * @param arity Number of children per slot; values below 2 count as 2
+     * @param comparator Orders elements, smallest first, or null for natural ordering
+     * @param elements Initial elements, none of them null
+     */
+    public DaryHeap(int arity, Comparator<? super E> comparator, E[] elements){
+        this.arity = Math.max(arity, 2);
+        this.comparator = comparator;
+        int capacity = Math.max(elements == null ? 0 : elements.length, 16);
+        this.elements = new Object[capacity];
+        this.handles = new int[capacity];
+        this.slots = new int[capacity];
+        this.size = elements == null ? 0 : elements.length;
+        this.nextHandle = this.size;
+        for(int i = 0; i < this.size; i++){
+            this.elements[i] = elements[i];
+            this.handles[i] = i;
+            this.slots[i] = i;
+        }
+        for(int slot = this.size <= 1 ? -1 : DaryHeap.getParentIndex(this.size - 1, this.arity); slot >= 0; slot--)
+            this.siftDown(slot);
+    }
+
+    //ACCESSORS
+    /** Finds number of elements
+     * @return Number of elements in heap
+     */
+    public int size(){ return this.size; }
+
+    /** Checks whether heap has no elements
+     * @return Whether heap is empty
+     */
+    public boolean isEmpty(){ return this.size == 0; }
+
+    /** Finds number of children per slot
+     * @return Arity of heap
+     */
+    public int getArity(){ return this.arity; }
+
+    /** Finds smallest element without removing it
+     * @return Smallest element, or null if heap is empty
+     */
+    @SuppressWarnings("unchecked")
+    public E peek(){ return this.size == 0 ? null : (E)this.elements[0]; }
+
+    /** Finds handle of smallest element
+     * @return Handle of smallest element, or -1 if heap is empty
+     */
+    public int peekHandle(){ return this.size == 0 ? -1 : this.handles[0]; }
+
+    /** Checks whether element with given handle is still in heap
+     * @param handle Handle returned when element was offered
+     * @return Whether element is in heap
+     */
+    public boolean contains(int handle){ return handle >= 0 && handle < this.nextHandle && this.slots[handle] >= 0; }
+
+    /** Finds element with given handle
+     * @param handle Handle returned when element was offered
+     * @return Element, or null if it is not in heap
+     */
+    @SuppressWarnings("unchecked")
+    public E get(int handle){ return this.contains(handle) ? (E)this.elements[this.slots[handle]] : null; }
+
+    /** Finds index of parent slot in a heap with given arity
+     * @param childIndex Index of a slot that is not root
+     * @param arity Number of children per slot
+     * @return Index of parent slot
+     */
+    public static int getParentIndex(int childIndex, int arity){ return (childIndex - 1) / arity; }
+
+    /** Finds index of first child slot in a heap with given arity
+     * @param parentIndex Index of a slot
+     * @param arity Number of children per slot
+     * @return Index of first child slot
+     */
+    public static int getFirstChildIndex(int parentIndex, int arity){ return arity * parentIndex + 1; }
+
+    /** Finds length to grow a full array to, doubling it without passing <i>MAX_CAPACITY</i>
+     * @param length Current length
+     * @return New length
+     */
+    static int grow(int length){ return (int)Math.min(2L * Math.max(length, 1), DaryHeap.MAX_CAPACITY); }
+
+    //MUTATORS
+    /** Adds an element
+     * @param element Element to add
+     * @return Handle of added element, or -1 if <i>element</i> is null or heap already holds <i>MAX_CAPACITY</i> elements
+     */
+    public int offer(E element){
+        if(element == null || this.size == DaryHeap.MAX_CAPACITY)
+            return -1;
+        if(this.size == this.elements.length){
+            this.elements = Arrays.copyOf(this.elements, DaryHeap.grow(this.size));
+            this.handles = Arrays.copyOf(this.handles, DaryHeap.grow(this.size));
+        }
+        int handle = this.takeHandle();
+        this.place(this.size, element, handle);
+        this.siftUp(this.size++);
+        return handle;
+    }
+
+    /** Removes smallest element
+     * @return Smallest element, or null if heap is empty
+     */
+    @SuppressWarnings("unchecked")
+    public E poll(){
+        if(this.size == 0)
+            return null;
+        E output = (E)this.elements[0];
+        this.removeAt(0);
+        return output;
+    }
+
+    /** Removes up to <i>n</i> smallest elements in ascending order
+     * @param n Number of elements to remove
+     * @param output Receives removed elements
+     * @return Number of elements removed
+     */
+    public int pollN(int n, Collection<? super E> output){
+        if(output == null)
+            return 0;
+        int count = 0;
+        for(; count < n && this.size > 0; count++)
+            output.add(this.poll());
+        return count;
+    }
+
+    /** Replaces element with given handle by a smaller one and moves it up
+     * @param handle Handle returned when element was offered
+     * @param element New element, not greater than current one
+     * @return Whether element was replaced; <i>false</i> if handle is not in heap or <i>element</i> is greater or null
+     */
+    @SuppressWarnings("unchecked")
+    public boolean decreaseKey(int handle, E element){
+        if(element == null || !this.contains(handle) || this.compare(element, (E)this.elements[this.slots[handle]]) > 0)
+            return false;
+        int slot = this.slots[handle];
+        this.elements[slot] = element;
+        this.siftUp(slot);
+        return true;
+    }
+
+    /** Replaces element with given handle and moves it whichever way restores heap order
+     * @param handle Handle returned when element was offered
+     * @param element New element
+     * @return Whether element was replaced; <i>false</i> if handle is not in heap or <i>element</i> is null
+     */
+    public boolean update(int handle, E element){
+        if(element == null || !this.contains(handle))
+            return false;
+        int slot = this.slots[handle];
+        this.elements[slot] = element;
+        this.siftUp(slot);
+        this.siftDown(this.slots[handle]);
+        return true;
+    }
+
+    /** Removes element with given handle
+     * @param handle Handle returned when element was offered
+     * @return Removed element, or null if it is not in heap
+     */
+    @SuppressWarnings("unchecked")
+    public E remove(int handle){
+        if(!this.contains(handle))
+            return null;
+        int slot = this.slots[handle];
+        E output = (E)this.elements[slot];
+        this.removeAt(slot);
+        return output;
+    }
+
+    /** Removes every element and starts handles over from 0
+     */
+    public void clear(){
+        Arrays.fill(this.elements, 0, this.size, null);
+        this.size = 0;
+        this.nextHandle = 0;
+        this.freeHandle = -1;
+    }
+
+    /** Gives out most recently freed handle, or a new one if none is free, growing <i>slots</i> only in the latter case
+     * @return Handle for an added element
+     */
+    private int takeHandle(){
+        if(this.freeHandle == -1){
+            if(this.nextHandle == this.slots.length)
+                this.slots = Arrays.copyOf(this.slots, DaryHeap.grow(this.nextHandle));
+            return this.nextHandle++;
+        }
+        int handle = this.freeHandle;
+        this.freeHandle = -2 - this.slots[handle];
+        return handle;
+    }
+
+    /** Removes element at given slot by moving last element into it
+     * @param slot Index of an occupied slot
+     */
+    @SuppressWarnings("unchecked")
+    private void removeAt(int slot){
+        this.slots[this.handles[slot]] = -2 - this.freeHandle;
+        this.freeHandle = this.handles[slot];
+        int last = --this.size, movedHandle = this.handles[last];
+        if(slot != last){
+            this.place(slot, (E)this.elements[last], movedHandle);
+            this.siftUp(slot);
+            this.siftDown(this.slots[movedHandle]);
+        }
+        this.elements[last] = null;
+    }
+
+    /** Moves element at <i>slot</i> up while it is smaller than its parent, shifting parents down into the hole
+     * @param slot Index of an occupied slot
+     */
+    @SuppressWarnings("unchecked")
+    private void siftUp(int slot){
+        E element = (E)this.elements[slot];
+        int handle = this.handles[slot];
+        while(slot > 0){
+            int parent = DaryHeap.getParentIndex(slot, this.arity);
+            if(this.compare(element, (E)this.elements[parent]) >= 0)
+                break;
+            this.place(slot, (E)this.elements[parent], this.handles[parent]);
+            slot = parent;
+        }
+        this.place(slot, element, handle);
+    }
+
+    /** Moves element at <i>slot</i> down while a child is smaller, shifting smallest children up into the hole
+     * @param slot Index of an occupied slot
+     */
+    @SuppressWarnings("unchecked")
+    private void siftDown(int slot){
+        E element = (E)this.elements[slot];
+        int handle = this.handles[slot];
+        while(true){
+            int first = DaryHeap.getFirstChildIndex(slot, this.arity);
+            if(first >= this.size || first < 0)
+                break;
+            int best = first;
+            for(int child = first + 1, end = Math.min(first + this.arity, this.size); child < end; child++)
+                if(this.compare((E)this.elements[child], (E)this.elements[best]) < 0)
+                    best = child;
+            if(this.compare((E)this.elements[best], element) >= 0)
+                break;
+            this.place(slot, (E)this.elements[best], this.handles[best]);
+            slot = best;
+        }
+        this.place(slot, element, handle);
+    }
+
+    /** Stores element and its handle at a slot
+     * @param slot Index of slot
+     * @param element Element to store
+     * @param handle Handle of element
+     */
+    private void place(int slot, E element, int handle){
+        this.elements[slot] = element;
+        this.handles[slot] = handle;
+        this.slots[handle] = slot;
+    }
+
+    /** Compares two elements with <i>comparator</i>, or naturally if it is null
+     * @param element First element
+     * @param otherElement Second element
+     * @return Negative, zero or positive as <i>element</i> is smaller than, equal to, or greater than <i>otherElement</i>
+     */
+    @SuppressWarnings("unchecked")
+    private int compare(E element, E otherElement){
+        return this.comparator != null ? this.comparator.compare(element, otherElement) : ((Comparable<? super E>)element).compareTo(otherElement);
+    }
+
+}
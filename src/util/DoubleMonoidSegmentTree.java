@@ -0,0 +1,128 @@
+package JTreeLib.util;
+import java.util.function.DoubleBinaryOperator;
+
+/** Variant of <i>MonoidSegmentTree</i> over primitive double elements, so no element is ever boxed. Static factories build
+ * trees for the common operators.
+ */
+public class DoubleMonoidSegmentTree {
+    //MEMBER VARIABLES
+    /** Combined values by slot; slot 0 is unused
+     */
+    private final double[] tree;
+
+    /** Number of elements
+     */
+    private final int size;
+
+    /** Identity of <i>operator</i>, the result of an empty range
+     */
+    private final double identity;
+
+    /** Associative operator combining two adjacent ranges, left one first
+     */
+    private final DoubleBinaryOperator operator;
+
+    //MEMBER FUNCTIONS
+    //CONSTRUCTORS
+    /** Constructor builds tree from elements in linear time
+     * @param elements Initial elements, which are not kept
+     * @param identity Identity of <i>operator</i>
+     * @param operator Associative operator
+     */
+    public DoubleMonoidSegmentTree(double[] elements, double identity, DoubleBinaryOperator operator){
+        this.size = elements == null ? 0 : elements.length;
+        this.identity = identity;
+        this.operator = operator;
+        this.tree = new double[2 * this.size];
+        if(this.size > 0)
+            System.arraycopy(elements, 0, this.tree, this.size, this.size);
+        for(int i = this.size - 1; i > 0; i--)
+            this.tree[i] = this.operator.applyAsDouble(this.tree[2 * i], this.tree[2 * i + 1]);
+    }
+
+    /** Builds tree answering range sums
+     * @param elements Initial elements
+     * @return New <i>DoubleMonoidSegmentTree</i>
+     */
+    public static DoubleMonoidSegmentTree sum(double[] elements){ return new DoubleMonoidSegmentTree(elements, 0, Double::sum); }
+
+    /** Builds tree answering range minimums
+     * @param elements Initial elements
+     * @return New <i>DoubleMonoidSegmentTree</i>
+     */
+    public static DoubleMonoidSegmentTree min(double[] elements){ return new DoubleMonoidSegmentTree(elements, Double.POSITIVE_INFINITY, Math::min); }
+
+    /** Builds tree answering range maximums
+     * @param elements Initial elements
+     * @return New <i>DoubleMonoidSegmentTree</i>
+     */
+    public static DoubleMonoidSegmentTree max(double[] elements){ return new DoubleMonoidSegmentTree(elements, Double.NEGATIVE_INFINITY, Math::max); }
+
+    //ACCESSORS
+    /** Finds number of elements
+     * @return Number of elements
+     */
+    public int size(){ return this.size; }
+
+    /** Finds identity of operator
+     * @return Identity
+     */
+    public double getIdentity(){ return this.identity; }
+
+    /** Finds element at given index
+     * @param index Index of element
+     * @return Element, or identity if <i>index</i> is out of bounds
+     */
+    public double get(int index){ return index < 0 || index >= this.size ? this.identity : this.tree[this.size + index]; }
+
+    /** Combines elements of a range in order
+     * @param startIndex Index of first element
+     * @param endIndex Index of last element
+     * @return Combined value, or identity if range is empty or out of bounds
+     */
+    public double query(int startIndex, int endIndex){
+        if(startIndex < 0 || endIndex >= this.size || startIndex > endIndex)
+            return this.identity;
+        double left = this.identity, right = this.identity;
+        for(int low = startIndex + this.size, high = endIndex + this.size + 1; low < high; low >>= 1, high >>= 1){
+            if((low & 1) == 1)
+                left = this.operator.applyAsDouble(left, this.tree[low++]);
+            if((high & 1) == 1)
+                right = this.operator.applyAsDouble(this.tree[--high], right);
+        }
+        return this.operator.applyAsDouble(left, right);
+    }
+
+    /** Estimates bytes retained by tree; everything is one array, counted as slots
+     * @return <i>Footprint</i> of tree
+     */
+    public Footprint footprint(){
+        Footprint footprint = new Footprint();
+        footprint.add(Footprint.Category.SLOTS, Footprint.objectSize(2, 1, 1, 0) + Footprint.arraySize(this.tree.length, 8));
+        return footprint;
+    }
+
+    //MUTATORS
+    /** Replaces element at given index and recomputes its ancestors
+     * @param index Index of element
+     * @param element New element
+     * @return Whether update is successful or not
+     */
+    public boolean set(int index, double element){
+        if(index < 0 || index >= this.size)
+            return false;
+        int slot = this.size + index;
+        this.tree[slot] = element;
+        for(slot >>= 1; slot > 0; slot >>= 1)
+            this.tree[slot] = this.operator.applyAsDouble(this.tree[2 * slot], this.tree[2 * slot + 1]);
+        return true;
+    }
+
+    /** Combines element at given index with a value, e.g. adds to it when operator is a sum
+     * @param index Index of element
+     * @param value Value combined to the right of element
+     * @return Whether update is successful or not
+     */
+    public boolean accumulate(int index, double value){ return index >= 0 && index < this.size && this.set(index, this.operator.applyAsDouble(this.get(index), value)); }
+
+}
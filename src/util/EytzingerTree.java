@@ -0,0 +1,199 @@
+package JTreeLib.util;
+import java.util.Arrays;
+import java.util.function.ToLongFunction;
+
+/** Static, read-only binary search tree over primitive long keys stored in Eytzinger (BFS) order, the same implicit
+ * layout <i>BinaryTree</i> uses but 1-based, so the children of slot <i>k</i> are <i>2k</i> and <i>2k + 1</i>. The tree is
+ * padded to a perfect tree with <i>Long.MAX_VALUE</i>, which lets every search run the same number of branch-free steps;
+ * the turns taken on the way down spell out the answer's position directly.
+ */
+public class EytzingerTree {
+    //MEMBER VARIABLES
+    /** Number of lookups batched searches advance together
+     */
+    public static final int BATCH_GROUP_SIZE = 32;
+
+    /** Keys in 1-based BFS order, including padding; slot 0 is unused
+     */
+    private final long[] keys;
+
+    /** Number of real keys
+     */
+    private final int size;
+
+    /** Number of levels of the padded perfect tree
+     */
+    private final int height;
+
+    //MEMBER FUNCTIONS
+    //CONSTRUCTORS
+    /** Constructor builds layout from an array of keys, which is copied and sorted first
+     * @param sortedKeys Keys to index, ideally already in ascending order
+     */
+    public EytzingerTree(long[] sortedKeys){
+        long[] sorted = sortedKeys == null ? new long[0] : Arrays.copyOf(sortedKeys, sortedKeys.length);
+        Arrays.sort(sorted);
+        this.size = sorted.length;
+        this.height = 32 - Integer.numberOfLeadingZeros(this.size);
+        this.keys = new long[1 << this.height];
+        for(int rank = 0; rank < this.keys.length - 1; rank++)
+            this.keys[this.slotOf(rank)] = rank < this.size ? sorted[rank] : Long.MAX_VALUE;
+    }
+
+    /** Builds a static <i>EytzingerTree</i> from the keys of a <i>BinaryTree</i>, typically a <i>BinarySearchTree</i>
+     * that is rebuilt rarely and queried often
+     * @param tree Source tree
+     * @param mapper Converts each key to a primitive long
+     * @param <N> Data type of <i>BinaryNode</i>
+     * @param <K> Data type of <i>Key</i>
+     * @return New <i>EytzingerTree</i> holding every key of <i>tree</i>
+     */
+    public static <N, K> EytzingerTree of(BinaryTree<N, K> tree, ToLongFunction<? super K> mapper){
+        return new EytzingerTree(tree == null ? null : tree.toLongArray(mapper));
+    }
+
+    //ACCESSORS
+    /** Finds number of keys
+     * @return Number of keys, not counting padding
+     */
+    public int size(){ return this.size; }
+
+    /** Finds key at given position in ascending order
+     * @param rank 0-based position in ascending order
+     * @return Key at <i>rank</i>, or <i>Long.MIN_VALUE</i> if <i>rank</i> is out of bounds
+     */
+    public long get(int rank){
+        if(rank < 0 || rank >= this.size)
+            return Long.MIN_VALUE;
+        return this.keys[this.slotOf(rank)];
+    }
+
+    /** Finds position of first key greater than or equal to <i>key</i>
+     * @param key Key to search for
+     * @return 0-based position in ascending order, or <i>size()</i> if every key is smaller
+     */
+    public int lowerBound(long key){
+        long[] keys = this.keys;
+        int k = 1;
+        for(int level = 0; level < this.height; level++)
+            k = 2 * k + (keys[k] < key ? 1 : 0);
+        return Math.min(k - (1 << this.height), this.size);
+    }
+
+    /** Finds position of first key strictly greater than <i>key</i>
+     * @param key Key to search for
+     * @return 0-based position in ascending order, or <i>size()</i> if no key is greater
+     */
+    public int upperBound(long key){
+        long[] keys = this.keys;
+        int k = 1;
+        for(int level = 0; level < this.height; level++)
+            k = 2 * k + (keys[k] <= key ? 1 : 0);
+        return Math.min(k - (1 << this.height), this.size);
+    }
+
+    /** Searches for given key
+     * @param key Key to search for
+     * @return 0-based position of <i>key</i> in ascending order if exists, otherwise -1
+     */
+    public int search(long key){
+        int rank = this.lowerBound(key);
+        return rank < this.size && this.keys[this.slotOf(rank)] == key ? rank : -1;
+    }
+
+    /** Checks whether given key exists
+     * @param key Key to search for
+     * @return Whether <i>key</i> is indexed
+     */
+    public boolean contains(long key){ return this.search(key) != -1; }
+
+    /** Finds lower bounds of many keys at once. Every search takes exactly <i>height</i> steps, so groups of
+     * <i>BATCH_GROUP_SIZE</i> lookups advance one level at a time in lock-step and their cache misses overlap.
+     * @param keys Keys to search for, in any order
+     * @param outRanks Receives <i>lowerBound</i> of each key at the same position
+     * @return Whether <i>outRanks</i> was filled; <i>false</i> if arguments are null or <i>outRanks</i> is too short
+     */
+    public boolean lowerBoundBatch(long[] keys, int[] outRanks){
+        if(keys == null || outRanks == null || outRanks.length < keys.length)
+            return false;
+        long[] tree = this.keys;
+        int[] cursors = new int[BATCH_GROUP_SIZE];
+        for(int start = 0; start < keys.length; start += BATCH_GROUP_SIZE){
+            int count = Math.min(BATCH_GROUP_SIZE, keys.length - start);
+            Arrays.fill(cursors, 0, count, 1);
+            for(int level = 0; level < this.height; level++)
+                for(int i = 0; i < count; i++)
+                    cursors[i] = 2 * cursors[i] + (tree[cursors[i]] < keys[start + i] ? 1 : 0);
+            for(int i = 0; i < count; i++)
+                outRanks[start + i] = Math.min(cursors[i] - (1 << this.height), this.size);
+        }
+        return true;
+    }
+
+    /** Finds lower bounds of many keys at once by sorting a copy of the batch first, so that consecutive searches share
+     * the upper part of their paths; see <i>lowerBoundAscending</i>
+     * @param keys Keys to search for, in any order
+     * @param outRanks Receives <i>lowerBound</i> of each key at the same position
+     * @return Whether <i>outRanks</i> was filled; <i>false</i> if arguments are null or <i>outRanks</i> is too short
+     */
+    public boolean lowerBoundBatchSorted(long[] keys, int[] outRanks){
+        if(keys == null || outRanks == null || outRanks.length < keys.length)
+            return false;
+        long[] sorted = Arrays.copyOf(keys, keys.length);
+        Arrays.sort(sorted);
+        int[] sortedRanks = new int[sorted.length];
+        this.lowerBoundAscending(sorted, sortedRanks);
+        for(int i = 0; i < keys.length; i++)
+            outRanks[i] = sortedRanks[Arrays.binarySearch(sorted, keys[i])];
+        return true;
+    }
+
+    /** Finds lower bounds of keys given in ascending order, reusing the path of the previous key. Because keys only
+     * grow, the new path can only leave the old one at a node where the old path turned left; those nodes are checked
+     * bottom-up, which stays within the part of the tree the previous search already brought into cache, and the descent
+     * resumes below the highest one that now sends the search right.
+     * @param ascendingKeys Keys to search for, in ascending order
+     * @param outRanks Receives <i>lowerBound</i> of each key at the same position
+     * @return Whether <i>outRanks</i> was filled; <i>false</i> if arguments are null or <i>outRanks</i> is too short
+     */
+    public boolean lowerBoundAscending(long[] ascendingKeys, int[] outRanks){
+        if(ascendingKeys == null || outRanks == null || outRanks.length < ascendingKeys.length)
+            return false;
+        long[] tree = this.keys;
+        int leaves = 1 << this.height, k = 0;
+        for(int i = 0; i < ascendingKeys.length; i++){
+            long key = ascendingKeys[i];
+            int resume = 1;
+            if(k != 0){
+                resume = 0;
+                for(int node = k >>> 1, child = k; node > 0; child = node, node >>>= 1){
+                    if((child & 1) == 1)
+                        continue;
+                    if(tree[node] >= key)
+                        break;
+                    resume = node;
+                }
+                if(resume != 0)
+                    resume = 2 * resume + 1;
+            }
+            if(resume != 0){
+                k = resume;
+                while(k < leaves)
+                    k = 2 * k + (tree[k] < key ? 1 : 0);
+            }
+            outRanks[i] = Math.min(k - leaves, this.size);
+        }
+        return true;
+    }
+
+    /** Finds slot of the padded perfect tree holding given in-order position; position <i>r</i> sits at depth
+     * <i>height - 1 - t</i> where 2<sup>t</sup> is the largest power of 2 dividing <i>r + 1</i>
+     * @param rank 0-based in-order position
+     * @return 1-based BFS slot
+     */
+    private int slotOf(int rank){
+        int trailing = Integer.numberOfTrailingZeros(rank + 1);
+        return (1 << (this.height - 1 - trailing)) + ((rank + 1) >>> (trailing + 1));
+    }
+
+}
@@ -0,0 +1,140 @@
+package JTreeLib.util;
+
+/** Two-dimensional <i>FenwickTree</i> over a grid of doubles, for rectangle sums and point updates in O(log rows *
+ * log columns). Slot <i>(i, j)</i> covers the <i>i &amp; -i</i> rows and <i>j &amp; -j</i> columns ending at element
+ * <i>(i - 1, j - 1)</i>; slots are stored row after row in one flat array.
+ */
+public class FenwickTree2D {
+    //MEMBER VARIABLES
+    /** Partial sums by 1-based slot, at <i>i * (columns + 1) + j</i>; row 0 and column 0 are unused
+     */
+    private final double[] tree;
+
+    /** Number of rows
+     */
+    private final int rows;
+
+    /** Number of columns
+     */
+    private final int columns;
+
+    //MEMBER FUNCTIONS
+    //CONSTRUCTORS
+    /** Constructor creates grid of zeros
+     * @param rows Number of rows; negative values count as 0
+     * @param columns Number of columns; negative values count as 0
+     */
+    public FenwickTree2D(int rows, int columns){
+        this.rows = Math.max(rows, 0);
+        this.columns = Math.max(columns, 0);
+        this.tree = new double[(this.rows + 1) * (this.columns + 1)];
+    }
+
+    /** Constructor builds tree from a rectangular grid in linear time, first along each row and then along each column
+     * @param values Initial grid, indexed by row then column, which is not kept; every row must be as long as the first
+     */
+    public FenwickTree2D(double[][] values){
+        this(values == null ? 0 : values.length, values == null || values.length == 0 ? 0 : values[0].length);
+        int width = this.columns + 1;
+        for(int i = 1; i <= this.rows; i++)
+            for(int j = 1; j <= this.columns; j++){
+                this.tree[i * width + j] += values[i - 1][j - 1];
+                int parent = j + (j & -j);
+                if(parent <= this.columns)
+                    this.tree[i * width + parent] += this.tree[i * width + j];
+            }
+        for(int i = 1; i <= this.rows; i++){
+            int parent = i + (i & -i);
+            if(parent <= this.rows)
+                for(int j = 1; j <= this.columns; j++)
+                    this.tree[parent * width + j] += this.tree[i * width + j];
+        }
+    }
+
+    //ACCESSORS
+    /** Finds number of rows
+     * @return Number of rows
+     */
+    public int getRows(){ return this.rows; }
+
+    /** Finds number of columns
+     * @return Number of columns
+     */
+    public int getColumns(){ return this.columns; }
+
+    /** Finds sum of rectangle from <i>(0, 0)</i> through <i>(row, column)</i>
+     * @param row Last row in sum; -1 gives the empty sum
+     * @param column Last column in sum; -1 gives the empty sum
+     * @return Prefix sum, or 0 if <i>row</i> or <i>column</i> is out of bounds
+     */
+    public double prefixSum(int row, int column){
+        if(row < 0 || row >= this.rows || column < 0 || column >= this.columns)
+            return 0;
+        int width = this.columns + 1;
+        double output = 0;
+        for(int i = row + 1; i > 0; i &= i - 1)
+            for(int j = column + 1; j > 0; j &= j - 1)
+                output += this.tree[i * width + j];
+        return output;
+    }
+
+    /** Finds sum of rectangle bounded by 2 corners, both included
+     * @param startRow First row
+     * @param startColumn First column
+     * @param endRow Last row
+     * @param endColumn Last column
+     * @return Sum of rectangle, or -1 if grid does not fully contain rectangle with given bounds
+     */
+    public double rangeSum(int startRow, int startColumn, int endRow, int endColumn){
+        if(startRow < 0 || startColumn < 0 || endRow >= this.rows || endColumn >= this.columns || startRow > endRow || startColumn > endColumn)
+            return -1;
+        return this.prefixSum(endRow, endColumn) - this.prefixSum(startRow - 1, endColumn)
+                - this.prefixSum(endRow, startColumn - 1) + this.prefixSum(startRow - 1, startColumn - 1);
+    }
+
+    /** Finds current value of one element
+     * @param row Row of element
+     * @param column Column of element
+     * @return Value of element, or 0 if it is out of bounds
+     */
+    public double get(int row, int column){
+        if(row < 0 || row >= this.rows || column < 0 || column >= this.columns)
+            return 0;
+        return this.rangeSum(row, column, row, column);
+    }
+
+    /** Estimates bytes retained by tree; everything is one array, counted as slots
+     * @return <i>Footprint</i> of tree
+     */
+    public Footprint footprint(){
+        Footprint footprint = new Footprint();
+        footprint.add(Footprint.Category.SLOTS, Footprint.objectSize(1, 2, 0, 0) + Footprint.arraySize(this.tree.length, 8));
+        return footprint;
+    }
+
+    //MUTATORS
+    /** Adds a value to one element
+     * @param row Row of element
+     * @param column Column of element
+     * @param delta Value to add
+     * @return Whether update is successful or not
+     */
+    public boolean add(int row, int column, double delta){
+        if(row < 0 || row >= this.rows || column < 0 || column >= this.columns)
+            return false;
+        int width = this.columns + 1;
+        for(int i = row + 1; i <= this.rows; i += i & -i)
+            for(int j = column + 1; j <= this.columns; j += j & -j)
+                this.tree[i * width + j] += delta;
+        return true;
+    }
+
+    /** Replaces value of one element
+     * @param row Row of element
+     * @param column Column of element
+     * @param newValue New value of element
+     * @return Whether update is successful or not
+     */
+    public boolean set(int row, int column, double newValue){ return this.add(row, column, newValue - this.get(row, column)); }
+
+}
@@ -0,0 +1,353 @@
+package JTreeLib.util;
+
+/** Sum segment tree over an array of doubles, kept as one flat <i>double[]</i> instead of <i>BinaryNode</i> objects.
+ * Nodes use the same indices as <i>SegmentTree</i>: root is 0, children of <i>i</i> are <i>2i + 1</i> and <i>2i + 2</i>, and a
+ * node over <i>[l, r]</i> gives its left child the first <i>(r - l + 1) / 2</i> elements. Bounds are not stored but
+ * derived from the index, and no node keeps a copy of its sub-array, so memory is a single array of at most <i>4n</i>
+ * doubles and building is linear.
+ * <p>Range updates are lazy: a node covered by a whole update records it as a pending tag for its children instead of
+ * visiting them, so <i>rangeAdd</i> and <i>rangeAssign</i> take O(log n) like <i>sum</i>. Tag arrays are allocated by the
+ * first range update. Queries carry pending tags down without writing them, so concurrent readers stay safe as long as
+ * nothing writes.</p>
+ */
+public class FlatSegmentTree {
+    //MEMBER VARIABLES
+    /** Sum of each node's range by node index; slots of indices that are not nodes hold 0
+     */
+    private final double[] sums;
+
+    /** Number of elements
+     */
+    private final int length;
+
+    /** Addition pending for the children of each node, allocated by the first range update
+     */
+    private double[] pendingAdd;
+
+    /** Assignment pending for the children of each node, valid where <i>pendingAssigned</i> is set; an assignment
+     * absorbs later additions, so a node never holds both
+     */
+    private double[] pendingAssign;
+
+    /** Whether each node has a pending assignment
+     */
+    private boolean[] pendingAssigned;
+
+    //MEMBER FUNCTIONS
+    //CONSTRUCTORS
+    /** Constructor builds <i>FlatSegmentTree</i> from an array, which is not kept
+     * @param arr Array to implement into tree
+     */
+    public FlatSegmentTree(double[] arr){
+        this.length = arr == null ? 0 : arr.length;
+        this.sums = new double[FlatSegmentTree.slotCount(this.length)];
+        if(this.length > 0)
+            this.build(arr, 0, 0, this.length - 1);
+    }
+
+    /** Finds number of slots needed for a tree over <i>length</i> elements. The right child never covers fewer elements
+     * than its sibling, so the highest index lies on the rightmost path.
+     * @param length Number of elements
+     * @return One past the highest node index
+     */
+    private static int slotCount(int length){
+        if(length == 0)
+            return 0;
+        long index = 0;
+        for(int span = length; span > 1; span -= span / 2)
+            index = 2 * index + 2;
+        return (int)(index + 1);
+    }
+
+    /** Fills sums of subtree covering <i>[left, right]</i>
+     * @param arr Array to implement into tree
+     * @param index Index of node covering <i>[left, right]</i>
+     * @param left Index of first element covered
+     * @param right Index of last element covered
+     * @return Sum of <i>arr</i> over <i>[left, right]</i>
+     */
+    private double build(double[] arr, int index, int left, int right){
+        if(left == right)
+            return this.sums[index] = arr[left];
+        int middle = left + (right - left + 1) / 2;
+        return this.sums[index] = this.build(arr, 2 * index + 1, left, middle - 1) + this.build(arr, 2 * index + 2, middle, right);
+    }
+
+    //ACCESSORS
+    /** Finds number of elements
+     * @return Length of array represented by tree
+     */
+    public int getLength(){ return this.length; }
+
+    /** Finds out if node exists at given index
+     * @param index Node index
+     * @return Whether a node covers some range at <i>index</i>
+     */
+    public boolean hasNode(int index){ return this.bounds(index) != -1; }
+
+    /** Finds out if node at given index is a leaf
+     * @param index Node index
+     * @return Whether node exists and covers a single element
+     */
+    public boolean isLeaf(int index){
+        long bounds = this.bounds(index);
+        return bounds != -1 && (int)(bounds >>> 32) == (int)bounds;
+    }
+
+    /** Finds range covered by node at given index by replaying the turns from root, which the bits of <i>index + 1</i>
+     * below its highest bit spell out
+     * @param index Node index
+     * @return Left bound in the high half and right bound in the low half, or -1 if no node has this index
+     */
+    private long bounds(int index){
+        if(index < 0 || index >= this.sums.length)
+            return -1;
+        int path = index + 1, left = 0, right = this.length - 1;
+        for(int bit = 30 - Integer.numberOfLeadingZeros(path); bit >= 0; bit--){
+            if(left == right)
+                return -1;
+            int middle = left + (right - left + 1) / 2;
+            if((path >>> bit & 1) == 0)
+                right = middle - 1;
+            else
+                left = middle;
+        }
+        return (long)left << 32 | right;
+    }
+
+    /** Finds the leftmost element's index of array represented by tree, which is 0 by definition
+     * @return If array is not empty, returns 0, otherwise returns -1
+     */
+    public int getLeftBound(){ return this.length == 0 ? -1 : 0; }
+
+    /** Finds the leftmost element's index in range of some node
+     * @param index Node index
+     * @return Leftmost element's index, or -1 if no node has this index
+     */
+    public int getLeftBound(int index){
+        long bounds = this.bounds(index);
+        return bounds == -1 ? -1 : (int)(bounds >>> 32);
+    }
+
+    /** Finds the rightmost element's index of array represented by tree, which is length - 1 by definition
+     * @return If array is not empty, returns length - 1, otherwise returns -1
+     */
+    public int getRightBound(){ return this.length - 1; }
+
+    /** Finds the rightmost element's index in range of some node
+     * @param index Node index
+     * @return Rightmost element's index, or -1 if no node has this index
+     */
+    public int getRightBound(int index){
+        long bounds = this.bounds(index);
+        return bounds == -1 ? -1 : (int)bounds;
+    }
+
+    /** Finds sum of node's whole range
+     * @param index Node index
+     * @return Sum stored at node, or 0 if no node has this index
+     */
+    public double getKey(int index){
+        long bounds = this.bounds(index);
+        if(bounds == -1)
+            return 0;
+        return index == 0 || this.pendingAdd == null ? this.sums[index] : this.sum((int)(bounds >>> 32), (int)bounds);
+    }
+
+    /** Finds current value of one element
+     * @param index Index of element
+     * @return Value of element, or 0 if <i>index</i> is out of bounds
+     */
+    public double get(int index){ return index < 0 || index >= this.length ? 0 : this.sumAt(0, 0, this.length - 1, index, index, false, 0); }
+
+    /** Finds sum of sub-array bounded by 2 indices, searching from root
+     * @param startIndex Index of first element in sub-array for summation
+     * @param endIndex Index of last element in sub-array for summation
+     * @return Sum of sub-array, or -1 if array does not fully contain sub-array with given bounds
+     */
+    public double sum(int startIndex, int endIndex){ return this.sum(0, startIndex, endIndex); }
+
+    /** Finds sum of sub-array bounded by 2 indices, searching from given node like <i>SegmentTree.sum</i>
+     * @param nodeIndex Index of node whose range contains sub-array
+     * @param startIndex Index of first element in sub-array for summation
+     * @param endIndex Index of last element in sub-array for summation
+     * @return Sum of sub-array, or -1 if node's range does not fully contain sub-array with given bounds
+     */
+    public double sum(int nodeIndex, int startIndex, int endIndex){
+        long bounds = this.bounds(nodeIndex);
+        int left = (int)(bounds >>> 32), right = (int)bounds;
+        if(bounds == -1 || startIndex > endIndex || startIndex < left || endIndex > right)
+            return -1;
+        if(this.pendingAdd != null) //ancestors of nodeIndex may hold tags, which only a walk from root picks up
+            return this.sumAt(0, 0, this.length - 1, startIndex, endIndex, false, 0);
+        return this.sumAt(nodeIndex, left, right, startIndex, endIndex, false, 0);
+    }
+
+    /** Finds sum of the part of <i>[startIndex, endIndex]</i> inside node's range
+     * @param index Node index
+     * @param left Index of first element covered by node
+     * @param right Index of last element covered by node
+     * @param startIndex Index of first element in sub-array for summation
+     * @param endIndex Index of last element in sub-array for summation
+     * @param assigned Whether an ancestor's pending assignment covers node
+     * @param pending Value assigned by ancestors if <i>assigned</i>, otherwise total of their pending additions
+     * @return Partial sum
+     */
+    private double sumAt(int index, int left, int right, int startIndex, int endIndex, boolean assigned, double pending){
+        if(startIndex <= left && right <= endIndex)
+            return (assigned ? 0 : this.sums[index]) + pending * (right - left + 1);
+        if(!assigned && this.pendingAdd != null){ //tags of ancestors are newer than this node's, so they apply after it
+            assigned = this.pendingAssigned[index];
+            pending += assigned ? this.pendingAssign[index] : this.pendingAdd[index];
+        }
+        int middle = left + (right - left + 1) / 2;
+        double output = 0;
+        if(startIndex < middle)
+            output += this.sumAt(2 * index + 1, left, middle - 1, startIndex, endIndex, assigned, pending);
+        if(endIndex >= middle)
+            output += this.sumAt(2 * index + 2, middle, right, startIndex, endIndex, assigned, pending);
+        return output;
+    }
+
+    /** Estimates bytes retained by tree; everything is one array, counted as slots
+     * @return <i>Footprint</i> of tree
+     */
+    public Footprint footprint(){
+        Footprint footprint = new Footprint();
+        footprint.add(Footprint.Category.SLOTS, Footprint.objectSize(4, 1, 0, 0) + Footprint.arraySize(this.sums.length, 8));
+        if(this.pendingAdd != null)
+            footprint.add(Footprint.Category.SLOTS, 2 * Footprint.arraySize(this.sums.length, 8) + Footprint.arraySize(this.sums.length, 1));
+        return footprint;
+    }
+
+    //MUTATORS
+    /** Updates element at given index and recomputes sums on its path to root
+     * @param index Index of element to be updated
+     * @param newValue New value to replace current value located at given index
+     * @return Whether update is successful or not
+     */
+    public boolean update(int index, double newValue){
+        if(index < 0 || index >= this.length)
+            return false;
+        int node = 0, left = 0, right = this.length - 1;
+        while(left != right){
+            int middle = left + (right - left + 1) / 2;
+            this.push(node, left, middle, right);
+            if(index < middle){
+                node = 2 * node + 1;
+                right = middle - 1;
+            } else {
+                node = 2 * node + 2;
+                left = middle;
+            }
+        }
+        this.sums[node] = newValue;
+        while(node > 0){
+            node = (node - 1) >> 1;
+            this.sums[node] = this.sums[2 * node + 1] + this.sums[2 * node + 2];
+        }
+        return true;
+    }
+
+    /** Adds a value to every element in a range
+     * @param startIndex Index of first element to change
+     * @param endIndex Index of last element to change
+     * @param delta Value to add
+     * @return Whether update is successful or not
+     */
+    public boolean rangeAdd(int startIndex, int endIndex, double delta){ return this.rangeUpdate(startIndex, endIndex, false, delta); }
+
+    /** Sets every element in a range to the same value
+     * @param startIndex Index of first element to change
+     * @param endIndex Index of last element to change
+     * @param value New value of elements
+     * @return Whether update is successful or not
+     */
+    public boolean rangeAssign(int startIndex, int endIndex, double value){ return this.rangeUpdate(startIndex, endIndex, true, value); }
+
+    /** Checks bounds of a range update, allocates tag arrays on first use and applies update from root
+     * @param startIndex Index of first element to change
+     * @param endIndex Index of last element to change
+     * @param assign Whether to assign <i>value</i> rather than add it
+     * @param value Value to assign or add
+     * @return Whether update is successful or not
+     */
+    private boolean rangeUpdate(int startIndex, int endIndex, boolean assign, double value){
+        if(startIndex < 0 || endIndex >= this.length || startIndex > endIndex)
+            return false;
+        if(this.pendingAdd == null){
+            this.pendingAdd = new double[this.sums.length];
+            this.pendingAssign = new double[this.sums.length];
+            this.pendingAssigned = new boolean[this.sums.length];
+        }
+        this.rangeUpdateAt(0, 0, this.length - 1, startIndex, endIndex, assign, value);
+        return true;
+    }
+
+    /** Applies a range update to subtree, tagging nodes the range covers whole and recomputing sums of the others
+     * @param index Node index
+     * @param left Index of first element covered by node
+     * @param right Index of last element covered by node
+     * @param startIndex Index of first element to change
+     * @param endIndex Index of last element to change
+     * @param assign Whether to assign <i>value</i> rather than add it
+     * @param value Value to assign or add
+     */
+    private void rangeUpdateAt(int index, int left, int right, int startIndex, int endIndex, boolean assign, double value){
+        if(startIndex <= left && right <= endIndex){
+            this.apply(index, right - left + 1, assign, value);
+            return;
+        }
+        int middle = left + (right - left + 1) / 2;
+        this.push(index, left, middle, right);
+        if(startIndex < middle)
+            this.rangeUpdateAt(2 * index + 1, left, middle - 1, startIndex, endIndex, assign, value);
+        if(endIndex >= middle)
+            this.rangeUpdateAt(2 * index + 2, middle, right, startIndex, endIndex, assign, value);
+        this.sums[index] = this.sums[2 * index + 1] + this.sums[2 * index + 2];
+    }
+
+    /** Applies an update to a node's sum and records it as pending for the node's children
+     * @param index Node index
+     * @param span Number of elements covered by node
+     * @param assign Whether to assign <i>value</i> rather than add it
+     * @param value Value to assign or add
+     */
+    private void apply(int index, int span, boolean assign, double value){
+        if(assign)
+            this.sums[index] = value * span;
+        else
+            this.sums[index] += value * span;
+        if(span == 1)
+            return;
+        if(assign){
+            this.pendingAssigned[index] = true;
+            this.pendingAssign[index] = value;
+            this.pendingAdd[index] = 0;
+        } else if(this.pendingAssigned[index])
+            this.pendingAssign[index] += value;
+        else
+            this.pendingAdd[index] += value;
+    }
+
+    /** Hands pending update of a node down to its children
+     * @param index Node index
+     * @param left Index of first element covered by node
+     * @param middle Index of first element covered by right child
+     * @param right Index of last element covered by node
+     */
+    private void push(int index, int left, int middle, int right){
+        if(this.pendingAdd == null)
+            return;
+        if(this.pendingAssigned[index]){
+            this.apply(2 * index + 1, middle - left, true, this.pendingAssign[index]);
+            this.apply(2 * index + 2, right - middle + 1, true, this.pendingAssign[index]);
+            this.pendingAssigned[index] = false;
+        } else if(this.pendingAdd[index] != 0){
+            this.apply(2 * index + 1, middle - left, false, this.pendingAdd[index]);
+            this.apply(2 * index + 2, right - middle + 1, false, this.pendingAdd[index]);
+            this.pendingAdd[index] = 0;
+        }
+    }
+
+}
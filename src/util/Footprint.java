@@ -0,0 +1,214 @@
+package JTreeLib.util;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Estimate of bytes retained by a tree, broken down by what holds them. Sizes follow the layout of 64-bit HotSpot with
+ * compressed references and class pointers (the default below 32 GB of heap): 12-byte object headers, 16-byte array
+ * headers, 4-byte references and 8-byte alignment. Boxed values from the <i>valueOf</i> caches are shared by the whole
+ * JVM, so they count as 0 bytes.
+ */
+public final class Footprint {
+    //MEMBER VARIABLES
+    /** What retained bytes are spent on
+     */
+    public enum Category {
+        /** Node objects themselves */
+        NODES,
+        /** Tree objects, slot lists and per-slot side tables */
+        SLOTS,
+        /** Boxed keys and collections holding keys */
+        KEYS,
+        /** Per-node child lists, child maps and thread links */
+        CHILD_LISTS,
+        /** Node identifiers and per-node data such as copied sub-arrays */
+        PAYLOADS
+    }
+
+    /** Bytes of an object header
+     */
+    public static final int OBJECT_HEADER = 12;
+
+    /** Bytes of an array header, including its length
+     */
+    public static final int ARRAY_HEADER = 16;
+
+    /** Bytes of a reference
+     */
+    public static final int REFERENCE = 4;
+
+    /** Every object size is rounded up to a multiple of this
+     */
+    public static final int ALIGNMENT = 8;
+
+    /** Bytes per category, indexed by ordinal
+     */
+    private final long[] bytes = new long[Category.values().length];
+
+    /** Number of nodes counted
+     */
+    private long nodeCount;
+
+    //MEMBER FUNCTIONS
+    //ACCESSORS
+    /** Finds bytes spent on one category
+     * @param category Category of interest
+     * @return Retained bytes of category
+     */
+    public long getBytes(Category category){ return this.bytes[category.ordinal()]; }
+
+    /** Finds bytes of every category together
+     * @return Total retained bytes
+     */
+    public long getTotalBytes(){
+        long total = 0;
+        for(long value : this.bytes)
+            total += value;
+        return total;
+    }
+
+    /** Finds number of nodes counted
+     * @return Number of nodes
+     */
+    public long getNodeCount(){ return this.nodeCount; }
+
+    /** Exports breakdown as a plain map from lower-case category name to bytes, followed by <i>total</i> and
+     * <i>node_count</i>
+     * @return Ordered map of breakdown
+     */
+    public Map<String, Long> toMap(){
+        Map<String, Long> output = new LinkedHashMap<>();
+        for(Category category : Category.values())
+            output.put(category.name().toLowerCase(), this.getBytes(category));
+        output.put("total", this.getTotalBytes());
+        output.put("node_count", this.nodeCount);
+        return output;
+    }
+
+    @Override
+    public String toString(){ return this.toMap().toString(); }
+
+    /** Rounds a size up to <i>ALIGNMENT</i>
+     * @param size Unaligned size in bytes
+     * @return Aligned size in bytes
+     */
+    public static long align(long size){ return (size + Footprint.ALIGNMENT - 1) & -Footprint.ALIGNMENT; }
+
+    /** Estimates size of an object from its instance fields, including inherited ones. A field of 8 bytes must be
+     * 8-byte aligned, so the 4 bytes after the header are filled with a narrower field if there is one.
+     * @param references Number of reference fields
+     * @param narrowFields Number of 4-byte primitive fields
+     * @param wideFields Number of 8-byte primitive fields
+     * @param byteFields Number of 1-byte primitive fields
+     * @return Size of object in bytes
+     */
+    public static long objectSize(int references, int narrowFields, int wideFields, int byteFields){
+        long narrow = (long)(references + narrowFields) * Footprint.REFERENCE, size = Footprint.OBJECT_HEADER;
+        if(wideFields > 0 && narrow == 0 && byteFields < Footprint.REFERENCE)
+            size += Footprint.REFERENCE;
+        return Footprint.align(size + 8L * wideFields + narrow + byteFields);
+    }
+
+    /** Estimates size of an array
+     * @param length Number of elements
+     * @param elementBytes Bytes per element, i.e. <i>REFERENCE</i> for object arrays
+     * @return Size of array in bytes
+     */
+    public static long arraySize(int length, int elementBytes){ return Footprint.align(Footprint.ARRAY_HEADER + (long)length * elementBytes); }
+
+    /** Estimates size of an <i>ArrayList</i> holding <i>size</i> elements, assuming its backing array grew from 10 by
+     * half each time; elements themselves are not included
+     * @param size Number of elements
+     * @return Size of list and its backing array in bytes
+     */
+    public static long arrayListSize(int size){
+        long capacity = size == 0 ? 0 : 10;
+        while(capacity < size)
+            capacity += capacity >> 1;
+        return Footprint.objectSize(1, 2, 0, 0) + (capacity == 0 ? 0 : Footprint.arraySize((int)capacity, Footprint.REFERENCE));
+    }
+
+    /** Estimates size of a list and its backing storage, but not of its elements. Unmodifiable and synchronized wrappers
+     * are assumed to wrap an <i>ArrayList</i>.
+     * @param list List of interest, possibly null
+     * @return Size in bytes; 0 for null and the shared empty list
+     */
+    public static long listSize(List<?> list){
+        if(list == null || list == Collections.emptyList())
+            return 0;
+        if(list instanceof ArrayList)
+            return Footprint.arrayListSize(list.size());
+        return Footprint.objectSize(2, 0, 0, 0) + Footprint.arrayListSize(list.size());
+    }
+
+    /** Estimates size of a javatuples tuple: the tuple with its value array and list view, but not its values
+     * @param arity Number of values in tuple
+     * @return Size in bytes
+     */
+    public static long tupleSize(int arity){
+        return Footprint.objectSize(2 + arity, 0, 0, 0) + Footprint.arraySize(arity, Footprint.REFERENCE) + Footprint.objectSize(1, 0, 0, 0);
+    }
+
+    /** Estimates size of a value held by a node: boxed primitives, strings and primitive arrays are measured, boxes
+     * from the <i>valueOf</i> caches count as 0, and objects of any other class count as a bare object header
+     * @param value Value of interest, possibly null
+     * @return Size in bytes
+     */
+    public static long valueSize(Object value){
+        if(value == null || value instanceof Boolean)
+            return 0;
+        if(value instanceof Integer || value instanceof Short || value instanceof Byte || value instanceof Long){
+            long number = ((Number)value).longValue();
+            if(number >= -128 && number <= 127)
+                return 0;
+            return value instanceof Long ? Footprint.objectSize(0, 0, 1, 0) : Footprint.objectSize(0, 1, 0, 0);
+        }
+        if(value instanceof Character)
+            return (Character)value <= 127 ? 0 : Footprint.objectSize(0, 1, 0, 0);
+        if(value instanceof Float)
+            return Footprint.objectSize(0, 1, 0, 0);
+        if(value instanceof Double)
+            return Footprint.objectSize(0, 0, 1, 0);
+        if(value instanceof String){
+            String string = (String)value;
+            boolean latin1 = string.chars().allMatch(c -> c < 256);
+            return Footprint.objectSize(1, 1, 0, 2) + Footprint.arraySize(string.length(), latin1 ? 1 : 2);
+        }
+        if(value instanceof double[])
+            return Footprint.arraySize(((double[])value).length, 8);
+        if(value instanceof long[])
+            return Footprint.arraySize(((long[])value).length, 8);
+        if(value instanceof int[])
+            return Footprint.arraySize(((int[])value).length, 4);
+        if(value instanceof byte[])
+            return Footprint.arraySize(((byte[])value).length, 1);
+        return Footprint.objectSize(0, 0, 0, 0);
+    }
+
+    //MUTATORS
+    /** Adds bytes to a category
+     * @param category Category the bytes are spent on
+     * @param bytes Bytes to add
+     */
+    public void add(Category category, long bytes){ this.bytes[category.ordinal()] += bytes; }
+
+    /** Counts one node and adds its own size to <i>NODES</i>
+     * @param bytes Size of node object in bytes
+     */
+    public void addNode(long bytes){
+        ++this.nodeCount;
+        this.add(Category.NODES, bytes);
+    }
+
+    /** Counts many nodes stored together, e.g. in parallel arrays, and adds their combined size to <i>NODES</i>
+     * @param count Number of nodes
+     * @param bytes Combined size of nodes in bytes
+     */
+    public void addNodes(long count, long bytes){
+        this.nodeCount += count;
+        this.add(Category.NODES, bytes);
+    }
+
+}
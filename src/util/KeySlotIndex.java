@@ -0,0 +1,130 @@
+package JTreeLib.util;
+import java.util.Arrays;
+
+/** Open-addressing hash index from key to slot index, used by <i>BinaryTree</i> to find keys without scanning.
+ * Entries are (key, slot) pairs kept in parallel arrays with linear probing, so slot values stay primitive and equal keys
+ * stored in several slots are all kept; removal shifts later entries of the probe run back instead of leaving markers.
+ * @param <K> Data type of <i>Key</i>
+ */
+class KeySlotIndex<K> {
+    //MEMBER VARIABLES
+    /** Keys of entries, or null for free entries
+     */
+    private Object[] keys;
+
+    /** Slot index of each entry
+     */
+    private int[] slots;
+
+    /** Number of entries in use
+     */
+    private int size;
+
+    //MEMBER FUNCTIONS
+    //CONSTRUCTORS
+    /** Constructor reserves room for a number of entries
+     * @param expectedSize Number of entries expected
+     */
+    KeySlotIndex(int expectedSize){
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 8) * 2 - 1) << 1;
+        this.keys = new Object[capacity];
+        this.slots = new int[capacity];
+    }
+
+    //ACCESSORS
+    /** Finds number of entries
+     * @return Number of (key, slot) pairs stored
+     */
+    int size(){ return this.size; }
+
+    /** Estimates bytes retained by index, for <i>Footprint</i>; keys themselves are counted with their nodes
+     * @return Size in bytes
+     */
+    long footprint(){
+        return Footprint.objectSize(2, 1, 0, 0) + Footprint.arraySize(this.keys.length, Footprint.REFERENCE) + Footprint.arraySize(this.slots.length, 4);
+    }
+
+    /** Finds lowest slot index stored for given key
+     * @param key Non-null key
+     * @return Lowest slot index holding <i>key</i>, or -1 if absent
+     */
+    int find(Object key){
+        int mask = this.keys.length - 1, output = -1;
+        for(int i = KeySlotIndex.hash(key) & mask; this.keys[i] != null; i = (i + 1) & mask)
+            if(this.keys[i].equals(key) && (output == -1 || this.slots[i] < output))
+                output = this.slots[i];
+        return output;
+    }
+
+    //MUTATORS
+    /** Adds an entry
+     * @param key Non-null key
+     * @param slot Slot index holding <i>key</i>
+     */
+    void add(Object key, int slot){
+        if(2 * (this.size + 1) > this.keys.length)
+            this.resize(this.keys.length * 2);
+        int mask = this.keys.length - 1, i = KeySlotIndex.hash(key) & mask;
+        while(this.keys[i] != null)
+            i = (i + 1) & mask;
+        this.keys[i] = key;
+        this.slots[i] = slot;
+        ++this.size;
+    }
+
+    /** Removes the entry pairing <i>key</i> with <i>slot</i>
+     * @param key Non-null key
+     * @param slot Slot index holding <i>key</i>
+     * @return Whether such an entry existed
+     */
+    boolean remove(Object key, int slot){
+        int mask = this.keys.length - 1, i = KeySlotIndex.hash(key) & mask;
+        while(this.keys[i] != null && !(this.slots[i] == slot && this.keys[i].equals(key)))
+            i = (i + 1) & mask;
+        if(this.keys[i] == null)
+            return false;
+        //shift back every later entry of the probe run whose home position does not lie between the hole and itself
+        for(int j = (i + 1) & mask; this.keys[j] != null; j = (j + 1) & mask){
+            int home = KeySlotIndex.hash(this.keys[j]) & mask;
+            if(i <= j ? i < home && home <= j : i < home || home <= j)
+                continue;
+            this.keys[i] = this.keys[j];
+            this.slots[i] = this.slots[j];
+            i = j;
+        }
+        this.keys[i] = null;
+        --this.size;
+        return true;
+    }
+
+    /** Removes every entry
+     */
+    void clear(){
+        Arrays.fill(this.keys, null);
+        this.size = 0;
+    }
+
+    /** Rehashes every entry into arrays of a new length
+     * @param capacity New power-of-2 length
+     */
+    private void resize(int capacity){
+        Object[] oldKeys = this.keys;
+        int[] oldSlots = this.slots;
+        this.keys = new Object[capacity];
+        this.slots = new int[capacity];
+        this.size = 0;
+        for(int i = 0; i < oldKeys.length; i++)
+            if(oldKeys[i] != null)
+                this.add(oldKeys[i], oldSlots[i]);
+    }
+
+    /** Spreads hash code of key so that linear probing over a power-of-2 table sees its high bits too
+     * @param key Non-null key
+     * @return Spread hash
+     */
+    private static int hash(Object key){
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+}
@@ -0,0 +1,285 @@
+package JTreeLib.util;
+import java.util.Arrays;
+
+/** Variant of <i>DaryHeap</i> over primitive long keys, so no key is ever boxed. Each key is identified by the
+ * <i>int</i> handle returned when it was offered, which callers can use as the id of whatever the key prioritizes,
+ * e.g. a vertex in Dijkstra's algorithm when the heap is built from an array of distances. As in <i>DaryHeap</i>, the
+ * handle of a key that left the heap is given to a later key.
+ */
+public class LongDaryHeap {
+    //MEMBER VARIABLES
+    /** Number of children per slot
+     */
+    private final int arity;
+
+    /** Keys in heap order
+     */
+    private long[] keys;
+
+    /** Handle of key at each slot
+     */
+    private int[] handles;
+
+    /** Slot of each handle, or -1 if its key is no longer in the heap
+     */
+    private int[] slots;
+
+    /** Number of keys
+     */
+    private int size;
+
+    /** Handle given to next offered key
+     */
+    private int nextHandle;
+
+    /** Most recently freed handle, which <i>offer</i> gives out again before a new one, or -1 if none is free. Freed
+     * handles form a list through <i>slots</i>, where a free handle's entry is <i>-2 - next</i> and <i>next</i> is the
+     * handle freed before it, or -1.
+     */
+    private int freeHandle = -1;
+
+    //MEMBER FUNCTIONS
+    //CONSTRUCTORS
+    /** Default constructor creates empty heap of <i>DaryHeap.DEFAULT_ARITY</i>
+     */
+    public LongDaryHeap(){ this(DaryHeap.DEFAULT_ARITY); }
+
+    /** Constructor applies <i>arity</i>
+     * @param arity Number of children per slot; values below 2 count as 2
+     */
+    public LongDaryHeap(int arity){
+        this.arity = Math.max(arity, 2);
+        this.keys = new long[16];
+        this.handles = new int[16];
+        this.slots = new int[16];
+    }
+
+    /** Constructor builds heap from <i>keys</i> in linear time by sifting down every inner slot, bottom-up. The key at
+     * position <i>i</i> of <i>keys</i> gets handle <i>i</i>.
+     * @param arity Number of children per slot; values below 2 count as 2
+     * @param keys Initial keys
+     */
+    public LongDaryHeap(int arity, long[] keys){
+        this.arity = Math.max(arity, 2);
+        int capacity = Math.max(keys == null ? 0 : keys.length, 16);
+        this.keys = new long[capacity];
+        this.handles = new int[capacity];
+        this.slots = new int[capacity];
+        this.size = keys == null ? 0 : keys.length;
+        this.nextHandle = this.size;
+        for(int i = 0; i < this.size; i++){
+            this.keys[i] = keys[i];
+            this.handles[i] = i;
+            this.slots[i] = i;
+        }
+        for(int slot = this.size <= 1 ? -1 : DaryHeap.getParentIndex(this.size - 1, this.arity); slot >= 0; slot--)
+            this.siftDown(slot);
+    }
+
+    //ACCESSORS
+    /** Finds number of keys
+     * @return Number of keys in heap
+     */
+    public int size(){ return this.size; }
+
+    /** Checks whether heap has no keys
+     * @return Whether heap is empty
+     */
+    public boolean isEmpty(){ return this.size == 0; }
+
+    /** Finds number of children per slot
+     * @return Arity of heap
+     */
+    public int getArity(){ return this.arity; }
+
+    /** Finds smallest key without removing it
+     * @return Smallest key, or <i>Long.MAX_VALUE</i> if heap is empty
+     */
+    public long peekKey(){ return this.size == 0 ? Long.MAX_VALUE : this.keys[0]; }
+
+    /** Finds handle of smallest key
+     * @return Handle of smallest key, or -1 if heap is empty
+     */
+    public int peekHandle(){ return this.size == 0 ? -1 : this.handles[0]; }
+
+    /** Checks whether key with given handle is still in heap
+     * @param handle Handle returned when key was offered
+     * @return Whether key is in heap
+     */
+    public boolean contains(int handle){ return handle >= 0 && handle < this.nextHandle && this.slots[handle] >= 0; }
+
+    /** Finds key with given handle
+     * @param handle Handle returned when key was offered
+     * @return Key, or <i>Long.MAX_VALUE</i> if it is not in heap
+     */
+    public long getKey(int handle){ return this.contains(handle) ? this.keys[this.slots[handle]] : Long.MAX_VALUE; }
+
+    //MUTATORS
+    /** Adds a key
+     * @param key Key to add
+     * @return Handle of added key, or -1 if heap already holds <i>DaryHeap.MAX_CAPACITY</i> keys
+     */
+    public int offer(long key){
+        if(this.size == DaryHeap.MAX_CAPACITY)
+            return -1;
+        if(this.size == this.keys.length){
+            this.keys = Arrays.copyOf(this.keys, DaryHeap.grow(this.size));
+            this.handles = Arrays.copyOf(this.handles, DaryHeap.grow(this.size));
+        }
+        int handle = this.takeHandle();
+        this.place(this.size, key, handle);
+        this.siftUp(this.size++);
+        return handle;
+    }
+
+    /** Removes smallest key
+     * @return Handle of removed key, or -1 if heap is empty
+     */
+    public int poll(){
+        if(this.size == 0)
+            return -1;
+        int output = this.handles[0];
+        this.removeAt(0);
+        return output;
+    }
+
+    /** Removes up to <i>n</i> smallest keys in ascending order
+     * @param n Number of keys to remove
+     * @param outHandles Receives handles of removed keys, from position 0
+     * @return Number of keys removed, which is at most <i>outHandles.length</i>
+     */
+    public int pollN(int n, int[] outHandles){
+        if(outHandles == null)
+            return 0;
+        int count = 0;
+        for(int limit = Math.min(n, outHandles.length); count < limit && this.size > 0; count++)
+            outHandles[count] = this.poll();
+        return count;
+    }
+
+    /** Lowers key with given handle and moves it up
+     * @param handle Handle returned when key was offered
+     * @param key New key, not greater than current one
+     * @return Whether key was lowered; <i>false</i> if handle is not in heap or <i>key</i> is greater
+     */
+    public boolean decreaseKey(int handle, long key){
+        if(!this.contains(handle) || key > this.keys[this.slots[handle]])
+            return false;
+        int slot = this.slots[handle];
+        this.keys[slot] = key;
+        this.siftUp(slot);
+        return true;
+    }
+
+    /** Changes key with given handle and moves it whichever way restores heap order
+     * @param handle Handle returned when key was offered
+     * @param key New key
+     * @return Whether key was changed; <i>false</i> if handle is not in heap
+     */
+    public boolean update(int handle, long key){
+        if(!this.contains(handle))
+            return false;
+        int slot = this.slots[handle];
+        this.keys[slot] = key;
+        this.siftUp(slot);
+        this.siftDown(this.slots[handle]);
+        return true;
+    }
+
+    /** Removes key with given handle
+     * @param handle Handle returned when key was offered
+     * @return Whether key was in heap
+     */
+    public boolean remove(int handle){
+        if(!this.contains(handle))
+            return false;
+        this.removeAt(this.slots[handle]);
+        return true;
+    }
+
+    /** Removes every key and starts handles over from 0
+     */
+    public void clear(){
+        this.size = 0;
+        this.nextHandle = 0;
+        this.freeHandle = -1;
+    }
+
+    /** Gives out most recently freed handle, or a new one if none is free, growing <i>slots</i> only in the latter case
+     * @return Handle for an added key
+     */
+    private int takeHandle(){
+        if(this.freeHandle == -1){
+            if(this.nextHandle == this.slots.length)
+                this.slots = Arrays.copyOf(this.slots, DaryHeap.grow(this.nextHandle));
+            return this.nextHandle++;
+        }
+        int handle = this.freeHandle;
+        this.freeHandle = -2 - this.slots[handle];
+        return handle;
+    }
+
+    /** Removes key at given slot by moving last key into it
+     * @param slot Index of an occupied slot
+     */
+    private void removeAt(int slot){
+        this.slots[this.handles[slot]] = -2 - this.freeHandle;
+        this.freeHandle = this.handles[slot];
+        int last = --this.size, movedHandle = this.handles[last];
+        if(slot != last){
+            this.place(slot, this.keys[last], movedHandle);
+            this.siftUp(slot);
+            this.siftDown(this.slots[movedHandle]);
+        }
+    }
+
+    /** Moves key at <i>slot</i> up while it is smaller than its parent, shifting parents down into the hole
+     * @param slot Index of an occupied slot
+     */
+    private void siftUp(int slot){
+        long key = this.keys[slot];
+        int handle = this.handles[slot];
+        while(slot > 0){
+            int parent = DaryHeap.getParentIndex(slot, this.arity);
+            if(key >= this.keys[parent])
+                break;
+            this.place(slot, this.keys[parent], this.handles[parent]);
+            slot = parent;
+        }
+        this.place(slot, key, handle);
+    }
+
+    /** Moves key at <i>slot</i> down while a child is smaller, shifting smallest children up into the hole
+     * @param slot Index of an occupied slot
+     */
+    private void siftDown(int slot){
+        long key = this.keys[slot];
+        int handle = this.handles[slot];
+        while(true){
+            int first = DaryHeap.getFirstChildIndex(slot, this.arity);
+            if(first >= this.size || first < 0)
+                break;
+            int best = first;
+            for(int child = first + 1, end = Math.min(first + this.arity, this.size); child < end; child++)
+                if(this.keys[child] < this.keys[best])
+                    best = child;
+            if(this.keys[best] >= key)
+                break;
+            this.place(slot, this.keys[best], this.handles[best]);
+            slot = best;
+        }
+        this.place(slot, key, handle);
+    }
+
+    /** Stores key and its handle at a slot
+     * @param slot Index of slot
+     * @param key Key to store
+     * @param handle Handle of key
+     */
+    private void place(int slot, long key, int handle){
+        this.keys[slot] = key;
+        this.handles[slot] = handle;
+        this.slots[handle] = slot;
+    }
+
+}
@@ -0,0 +1,123 @@
+package JTreeLib.util;
+
+/** Variant of <i>FenwickTree</i> over primitive longs, so counters stay exact and no element is ever boxed
+ */
+public class LongFenwickTree {
+    //MEMBER VARIABLES
+    /** Partial sums by 1-based slot; slot 0 is unused
+     */
+    private final long[] tree;
+
+    /** Number of elements
+     */
+    private final int size;
+
+    //MEMBER FUNCTIONS
+    //CONSTRUCTORS
+    /** Constructor creates tree of zeros
+     * @param size Number of elements; negative values count as 0
+     */
+    public LongFenwickTree(int size){
+        this.size = Math.max(size, 0);
+        this.tree = new long[this.size + 1];
+    }
+
+    /** Constructor builds tree from an array in linear time, adding each slot into the next slot covering it
+     * @param values Initial elements, which are not kept
+     */
+    public LongFenwickTree(long[] values){
+        this(values == null ? 0 : values.length);
+        for(int i = 1; i <= this.size; i++){
+            this.tree[i] += values[i - 1];
+            int parent = i + (i & -i);
+            if(parent <= this.size)
+                this.tree[parent] += this.tree[i];
+        }
+    }
+
+    //ACCESSORS
+    /** Finds number of elements
+     * @return Number of elements
+     */
+    public int size(){ return this.size; }
+
+    /** Finds sum of elements from 0 through <i>endIndex</i>
+     * @param endIndex Index of last element in sum; -1 gives the empty sum
+     * @return Prefix sum, or 0 if <i>endIndex</i> is out of bounds
+     */
+    public long prefixSum(int endIndex){
+        if(endIndex < 0 || endIndex >= this.size)
+            return 0;
+        long output = 0;
+        for(int i = endIndex + 1; i > 0; i &= i - 1)
+            output += this.tree[i];
+        return output;
+    }
+
+    /** Finds sum of sub-array bounded by 2 indices
+     * @param startIndex Index of first element in sub-array for summation
+     * @param endIndex Index of last element in sub-array for summation
+     * @return Sum of sub-array, or -1 if array does not fully contain sub-array with given bounds
+     */
+    public long rangeSum(int startIndex, int endIndex){
+        if(startIndex < 0 || endIndex >= this.size || startIndex > endIndex)
+            return -1;
+        return this.prefixSum(endIndex) - this.prefixSum(startIndex - 1);
+    }
+
+    /** Finds current value of one element
+     * @param index Index of element
+     * @return Value of element, or 0 if <i>index</i> is out of bounds
+     */
+    public long get(int index){ return index < 0 || index >= this.size ? 0 : this.rangeSum(index, index); }
+
+    /** Finds first element whose prefix sum reaches <i>prefix</i>, descending by powers of 2 in O(log n). With
+     * non-negative elements as weights, a <i>prefix</i> drawn uniformly below the total picks each element with
+     * probability proportional to its weight.
+     * @param prefix Target prefix sum
+     * @return Smallest index whose prefix sum is at least <i>prefix</i>, or <i>size()</i> if the total is smaller; only
+     * meaningful if no element is negative
+     */
+    public int lowerBound(long prefix){
+        int position = 0;
+        for(int step = Integer.highestOneBit(Math.max(this.size, 1)); step > 0; step >>= 1){
+            int next = position + step;
+            if(next <= this.size && this.tree[next] < prefix){
+                position = next;
+                prefix -= this.tree[next];
+            }
+        }
+        return position;
+    }
+
+    /** Estimates bytes retained by tree; everything is one array, counted as slots
+     * @return <i>Footprint</i> of tree
+     */
+    public Footprint footprint(){
+        Footprint footprint = new Footprint();
+        footprint.add(Footprint.Category.SLOTS, Footprint.objectSize(1, 1, 0, 0) + Footprint.arraySize(this.tree.length, 8));
+        return footprint;
+    }
+
+    //MUTATORS
+    /** Adds a value to one element
+     * @param index Index of element
+     * @param delta Value to add
+     * @return Whether update is successful or not
+     */
+    public boolean add(int index, long delta){
+        if(index < 0 || index >= this.size)
+            return false;
+        for(int i = index + 1; i <= this.size; i += i & -i)
+            this.tree[i] += delta;
+        return true;
+    }
+
+    /** Replaces value of one element
+     * @param index Index of element
+     * @param newValue New value of element
+     * @return Whether update is successful or not
+     */
+    public boolean set(int index, long newValue){ return this.add(index, newValue - this.get(index)); }
+
+}
@@ -0,0 +1,154 @@
+package JTreeLib.util;
+import java.util.function.LongBinaryOperator;
+
+/** Variant of <i>MonoidSegmentTree</i> over primitive long elements, so no element is ever boxed. Static factories build
+ * trees for the common operators.
+ */
+public class LongMonoidSegmentTree {
+    //MEMBER VARIABLES
+    /** Combined values by slot; slot 0 is unused
+     */
+    private final long[] tree;
+
+    /** Number of elements
+     */
+    private final int size;
+
+    /** Identity of <i>operator</i>, the result of an empty range
+     */
+    private final long identity;
+
+    /** Associative operator combining two adjacent ranges, left one first
+     */
+    private final LongBinaryOperator operator;
+
+    //MEMBER FUNCTIONS
+    //CONSTRUCTORS
+    /** Constructor builds tree from elements in linear time
+     * @param elements Initial elements, which are not kept
+     * @param identity Identity of <i>operator</i>
+     * @param operator Associative operator
+     */
+    public LongMonoidSegmentTree(long[] elements, long identity, LongBinaryOperator operator){
+        this.size = elements == null ? 0 : elements.length;
+        this.identity = identity;
+        this.operator = operator;
+        this.tree = new long[2 * this.size];
+        if(this.size > 0)
+            System.arraycopy(elements, 0, this.tree, this.size, this.size);
+        for(int i = this.size - 1; i > 0; i--)
+            this.tree[i] = this.operator.applyAsLong(this.tree[2 * i], this.tree[2 * i + 1]);
+    }
+
+    /** Builds tree answering range sums
+     * @param elements Initial elements
+     * @return New <i>LongMonoidSegmentTree</i>
+     */
+    public static LongMonoidSegmentTree sum(long[] elements){ return new LongMonoidSegmentTree(elements, 0, Long::sum); }
+
+    /** Builds tree answering range minimums
+     * @param elements Initial elements
+     * @return New <i>LongMonoidSegmentTree</i>
+     */
+    public static LongMonoidSegmentTree min(long[] elements){ return new LongMonoidSegmentTree(elements, Long.MAX_VALUE, Math::min); }
+
+    /** Builds tree answering range maximums
+     * @param elements Initial elements
+     * @return New <i>LongMonoidSegmentTree</i>
+     */
+    public static LongMonoidSegmentTree max(long[] elements){ return new LongMonoidSegmentTree(elements, Long.MIN_VALUE, Math::max); }
+
+    /** Builds tree answering greatest common divisors of ranges, which are never negative
+     * @param elements Initial elements
+     * @return New <i>LongMonoidSegmentTree</i>
+     */
+    public static LongMonoidSegmentTree gcd(long[] elements){ return new LongMonoidSegmentTree(elements, 0, LongMonoidSegmentTree::gcd); }
+
+    /** Builds tree answering bitwise exclusive-or of ranges
+     * @param elements Initial elements
+     * @return New <i>LongMonoidSegmentTree</i>
+     */
+    public static LongMonoidSegmentTree xor(long[] elements){ return new LongMonoidSegmentTree(elements, 0, (a, b) -> a ^ b); }
+
+    /** Finds greatest common divisor with Euclid's algorithm
+     * @param a First value
+     * @param b Second value
+     * @return Non-negative greatest common divisor, 0 only if both values are 0
+     */
+    private static long gcd(long a, long b){
+        while(b != 0){
+            long remainder = a % b;
+            a = b;
+            b = remainder;
+        }
+        return Math.abs(a);
+    }
+
+    //ACCESSORS
+    /** Finds number of elements
+     * @return Number of elements
+     */
+    public int size(){ return this.size; }
+
+    /** Finds identity of operator
+     * @return Identity
+     */
+    public long getIdentity(){ return this.identity; }
+
+    /** Finds element at given index
+     * @param index Index of element
+     * @return Element, or identity if <i>index</i> is out of bounds
+     */
+    public long get(int index){ return index < 0 || index >= this.size ? this.identity : this.tree[this.size + index]; }
+
+    /** Combines elements of a range in order
+     * @param startIndex Index of first element
+     * @param endIndex Index of last element
+     * @return Combined value, or identity if range is empty or out of bounds
+     */
+    public long query(int startIndex, int endIndex){
+        if(startIndex < 0 || endIndex >= this.size || startIndex > endIndex)
+            return this.identity;
+        long left = this.identity, right = this.identity;
+        for(int low = startIndex + this.size, high = endIndex + this.size + 1; low < high; low >>= 1, high >>= 1){
+            if((low & 1) == 1)
+                left = this.operator.applyAsLong(left, this.tree[low++]);
+            if((high & 1) == 1)
+                right = this.operator.applyAsLong(this.tree[--high], right);
+        }
+        return this.operator.applyAsLong(left, right);
+    }
+
+    /** Estimates bytes retained by tree; everything is one array, counted as slots
+     * @return <i>Footprint</i> of tree
+     */
+    public Footprint footprint(){
+        Footprint footprint = new Footprint();
+        footprint.add(Footprint.Category.SLOTS, Footprint.objectSize(2, 1, 1, 0) + Footprint.arraySize(this.tree.length, 8));
+        return footprint;
+    }
+
+    //MUTATORS
+    /** Replaces element at given index and recomputes its ancestors
+     * @param index Index of element
+     * @param element New element
+     * @return Whether update is successful or not
+     */
+    public boolean set(int index, long element){
+        if(index < 0 || index >= this.size)
+            return false;
+        int slot = this.size + index;
+        this.tree[slot] = element;
+        for(slot >>= 1; slot > 0; slot >>= 1)
+            this.tree[slot] = this.operator.applyAsLong(this.tree[2 * slot], this.tree[2 * slot + 1]);
+        return true;
+    }
+
+    /** Combines element at given index with a value, e.g. adds to it when operator is a sum
+     * @param index Index of element
+     * @param value Value combined to the right of element
+     * @return Whether update is successful or not
+     */
+    public boolean accumulate(int index, long value){ return index >= 0 && index < this.size && this.set(index, this.operator.applyAsLong(this.get(index), value)); }
+
+}
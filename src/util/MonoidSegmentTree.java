@@ -0,0 +1,126 @@
+package JTreeLib.util;
+import java.util.function.BinaryOperator;
+
+/** Segment tree over any monoid: an associative operator with an identity, e.g. min, max, gcd, string concatenation or
+ * matrix product. The operator does not need to be commutative; results always combine elements left to right.
+ * <p>Nodes live in one array of <i>2n</i> slots, bottom-up: elements occupy slots <i>n</i> to <i>2n - 1</i> and slot
+ * <i>i</i> combines slots <i>2i</i> and <i>2i + 1</i>, for any <i>n</i>, so queries and updates are loops without
+ * recursion. See <i>IntMonoidSegmentTree</i>, <i>LongMonoidSegmentTree</i> and <i>DoubleMonoidSegmentTree</i> for
+ * primitive elements without boxing.</p>
+ * @param <E> Data type of elements
+ */
+public class MonoidSegmentTree<E> {
+    //MEMBER VARIABLES
+    /** Combined values by slot; slot 0 is unused
+     */
+    private final Object[] tree;
+
+    /** Number of elements
+     */
+    private final int size;
+
+    /** Identity of <i>operator</i>, the result of an empty range
+     */
+    private final E identity;
+
+    /** Associative operator combining two adjacent ranges, left one first
+     */
+    private final BinaryOperator<E> operator;
+
+    //MEMBER FUNCTIONS
+    //CONSTRUCTORS
+    /** Constructor builds tree from elements in linear time
+     * @param elements Initial elements, which are not kept
+     * @param identity Identity of <i>operator</i>
+     * @param operator Associative operator
+     */
+    public MonoidSegmentTree(E[] elements, E identity, BinaryOperator<E> operator){
+        this.size = elements == null ? 0 : elements.length;
+        this.identity = identity;
+        this.operator = operator;
+        this.tree = new Object[2 * this.size];
+        for(int i = 0; i < this.size; i++)
+            this.tree[this.size + i] = elements[i];
+        for(int i = this.size - 1; i > 0; i--)
+            this.tree[i] = this.combine(2 * i);
+    }
+
+    /** Combines a pair of sibling slots
+     * @param leftSlot Slot of left sibling
+     * @return Combined value of both siblings
+     */
+    @SuppressWarnings("unchecked")
+    private E combine(int leftSlot){ return this.operator.apply((E)this.tree[leftSlot], (E)this.tree[leftSlot + 1]); }
+
+    //ACCESSORS
+    /** Finds number of elements
+     * @return Number of elements
+     */
+    public int size(){ return this.size; }
+
+    /** Finds identity of operator
+     * @return Identity
+     */
+    public E getIdentity(){ return this.identity; }
+
+    /** Finds element at given index
+     * @param index Index of element
+     * @return Element, or identity if <i>index</i> is out of bounds
+     */
+    @SuppressWarnings("unchecked")
+    public E get(int index){ return index < 0 || index >= this.size ? this.identity : (E)this.tree[this.size + index]; }
+
+    /** Combines elements of a range in order
+     * @param startIndex Index of first element
+     * @param endIndex Index of last element
+     * @return Combined value, or identity if range is empty or out of bounds
+     */
+    @SuppressWarnings("unchecked")
+    public E query(int startIndex, int endIndex){
+        if(startIndex < 0 || endIndex >= this.size || startIndex > endIndex)
+            return this.identity;
+        E left = this.identity, right = this.identity;
+        for(int low = startIndex + this.size, high = endIndex + this.size + 1; low < high; low >>= 1, high >>= 1){
+            if((low & 1) == 1)
+                left = this.operator.apply(left, (E)this.tree[low++]);
+            if((high & 1) == 1)
+                right = this.operator.apply((E)this.tree[--high], right);
+        }
+        return this.operator.apply(left, right);
+    }
+
+    /** Estimates bytes retained by tree; elements are payloads, measured with <i>Footprint.valueSize</i>
+     * @return <i>Footprint</i> of tree
+     */
+    public Footprint footprint(){
+        Footprint footprint = new Footprint();
+        footprint.add(Footprint.Category.SLOTS, Footprint.objectSize(3, 1, 0, 0) + Footprint.arraySize(this.tree.length, Footprint.REFERENCE));
+        for(int i = 1; i < this.tree.length; i++)
+            footprint.add(Footprint.Category.PAYLOADS, Footprint.valueSize(this.tree[i]));
+        return footprint;
+    }
+
+    //MUTATORS
+    /** Replaces element at given index and recomputes its ancestors
+     * @param index Index of element
+     * @param element New element
+     * @return Whether update is successful or not
+     */
+    public boolean set(int index, E element){
+        if(index < 0 || index >= this.size)
+            return false;
+        int slot = this.size + index;
+        this.tree[slot] = element;
+        for(slot >>= 1; slot > 0; slot >>= 1)
+            this.tree[slot] = this.combine(2 * slot);
+        return true;
+    }
+
+    /** Combines element at given index with a value, e.g. adds to it when operator is a sum
+     * @param index Index of element
+     * @param value Value combined to the right of element
+     * @return Whether update is successful or not
+     */
+    public boolean accumulate(int index, E value){ return index >= 0 && index < this.size && this.set(index, this.operator.apply(this.get(index), value)); }
+
+}
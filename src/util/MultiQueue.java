@@ -0,0 +1,317 @@
+package JTreeLib.util;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/** Relaxed concurrent priority queue made of <i>shardsPerThread * threads</i> d-ary heaps, each behind its own lock.
+ * <i>offer</i> adds to a random heap and <i>poll</i> removes from the better of two random heap tops, using
+ * <i>tryLock</i> and moving on to other heaps instead of waiting, so threads rarely contend for the same lock. In exchange,
+ * <i>poll</i> returns an element close to, but not necessarily, the smallest one; the expected rank of the returned
+ * element grows with the number of heaps, not with the number of elements.
+ * <p>Each heap is a bare array laid out like <i>DaryHeap</i> with <i>DaryHeap.DEFAULT_ARITY</i> children per slot, but
+ * without handles, since elements are never looked up once offered.</p>
+ * @param <E> Data type of element
+ */
+public class MultiQueue<E> {
+    //MEMBER VARIABLES
+    /** Number of heaps per thread used when none is given
+     */
+    public static final int DEFAULT_SHARDS_PER_THREAD = 2;
+
+    /** Heaps elements are spread over
+     */
+    private final Shard<E>[] shards;
+
+    /** Orders elements, smallest first; null means natural ordering
+     */
+    private final Comparator<? super E> comparator;
+
+    //MEMBER FUNCTIONS
+    //CONSTRUCTORS
+    /** Constructor creates <i>DEFAULT_SHARDS_PER_THREAD</i> heaps per thread, ordered naturally
+     * @param threads Number of threads expected to use queue at once
+     */
+    public MultiQueue(int threads){ this(threads, MultiQueue.DEFAULT_SHARDS_PER_THREAD, null); }
+
+    /** Constructor applies <i>threads</i>, <i>shardsPerThread</i> and <i>comparator</i>
+     * @param threads Number of threads expected to use queue at once; values below 1 count as 1
+     * @param shardsPerThread Number of heaps per thread; values below 1 count as 1
+     * @param comparator Orders elements, smallest first, or null for natural ordering
+     */
+    public MultiQueue(int threads, int shardsPerThread, Comparator<? super E> comparator){
+        this.comparator = comparator;
+        @SuppressWarnings("unchecked")
+        Shard<E>[] shards = (Shard<E>[])new Shard<?>[Math.max(threads, 1) * Math.max(shardsPerThread, 1)];
+        this.shards = shards;
+        for(int i = 0; i < this.shards.length; i++)
+            this.shards[i] = new Shard<>(comparator);
+    }
+
+    //ACCESSORS
+    /** Finds number of heaps elements are spread over
+     * @return Number of heaps
+     */
+    public int getShardCount(){ return this.shards.length; }
+
+    /** Counts elements; the result is exact only while no other thread modifies queue
+     * @return Number of elements in queue
+     */
+    public int size(){
+        int size = 0;
+        for(Shard<E> shard : this.shards)
+            size += shard.size;
+        return size;
+    }
+
+    /** Checks whether queue has no elements; the result is exact only while no other thread modifies queue
+     * @return Whether queue is empty
+     */
+    public boolean isEmpty(){
+        for(Shard<E> shard : this.shards)
+            if(shard.top != null)
+                return false;
+        return true;
+    }
+
+    /** Finds an element close to the smallest one without removing it
+     * @return Smaller of two random heap tops, or of all of them if both are empty, or null if queue is empty
+     */
+    public E peek(){
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        E first = this.shards[random.nextInt(this.shards.length)].top, second = this.shards[random.nextInt(this.shards.length)].top;
+        if(first != null || second != null)
+            return this.better(first, second);
+        E output = null;
+        for(Shard<E> shard : this.shards)
+            output = this.better(output, shard.top);
+        return output;
+    }
+
+    //MUTATORS
+    /** Adds an element to a random heap, skipping heaps whose lock is held by another thread; after as many failed
+     * samples as there are heaps, waits for the lock of one more random heap instead of spinning
+     * @param element Element to add
+     * @return Whether element was added; <i>false</i> if it is null
+     */
+    public boolean offer(E element){
+        if(element == null)
+            return false;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for(int attempt = 0; attempt < this.shards.length; attempt++){
+            Shard<E> shard = this.shards[random.nextInt(this.shards.length)];
+            if(!shard.lock.tryLock())
+                continue;
+            try{
+                shard.offer(element);
+                return true;
+            } finally{
+                shard.lock.unlock();
+            }
+        }
+        Shard<E> shard = this.shards[random.nextInt(this.shards.length)];
+        shard.lock.lock();
+        try{
+            shard.offer(element);
+            return true;
+        } finally{
+            shard.lock.unlock();
+        }
+    }
+
+    /** Removes an element close to the smallest one. Two random heaps are sampled and the one with the smaller cached top
+     * is locked if it is free; after as many failed samples as there are heaps, every heap is swept in turn so that an
+     * element is found whenever queue is not empty.
+     * @return Removed element, or null if queue is empty
+     */
+    public E poll(){
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for(int attempt = 0; attempt < this.shards.length; attempt++){
+            Shard<E> first = this.shards[random.nextInt(this.shards.length)], second = this.shards[random.nextInt(this.shards.length)];
+            E firstTop = first.top, secondTop = second.top;
+            if(firstTop == null && secondTop == null)
+                continue;
+            Shard<E> shard = this.better(firstTop, secondTop) == firstTop ? first : second;
+            if(!shard.lock.tryLock())
+                continue;
+            try{
+                E output = shard.poll();
+                if(output != null)
+                    return output;
+            } finally{
+                shard.lock.unlock();
+            }
+        }
+        for(Shard<E> shard : this.shards){
+            if(shard.top == null)
+                continue;
+            shard.lock.lock();
+            try{
+                E output = shard.poll();
+                if(output != null)
+                    return output;
+            } finally{
+                shard.lock.unlock();
+            }
+        }
+        return null;
+    }
+
+    /** Removes every element, locking each heap in turn
+     */
+    public void clear(){
+        for(Shard<E> shard : this.shards){
+            shard.lock.lock();
+            try{
+                shard.clear();
+            } finally{
+                shard.lock.unlock();
+            }
+        }
+    }
+
+    /** Chooses smaller of two elements, either of which may be null
+     * @param element First element
+     * @param otherElement Second element
+     * @return Smaller non-null element, or null if both are null
+     */
+    private E better(E element, E otherElement){
+        if(element == null || otherElement == null)
+            return element == null ? otherElement : element;
+        return MultiQueue.compare(this.comparator, element, otherElement) <= 0 ? element : otherElement;
+    }
+
+    /** Compares two elements with <i>comparator</i>, or naturally if it is null
+     * @param comparator Orders elements, or null for natural ordering
+     * @param element First element
+     * @param otherElement Second element
+     * @param <E> Data type of element
+     * @return Negative, zero or positive as <i>element</i> is smaller than, equal to, or greater than <i>otherElement</i>
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> int compare(Comparator<? super E> comparator, E element, E otherElement){
+        return comparator != null ? comparator.compare(element, otherElement) : ((Comparable<? super E>)element).compareTo(otherElement);
+    }
+
+    /** One heap of <i>MultiQueue</i> with its lock and a cached copy of its top, readable without the lock. Elements sit
+     * in a plain array in d-ary heap order, so the only memory a shard keeps is that array.
+     * @param <E> Data type of element
+     */
+    private static final class Shard<E> {
+        //MEMBER VARIABLES
+        /** Guards <i>elements</i> and <i>count</i>
+         */
+        final ReentrantLock lock = new ReentrantLock();
+
+        /** Orders elements, smallest first; null means natural ordering
+         */
+        private final Comparator<? super E> comparator;
+
+        /** Elements in heap order
+         */
+        private Object[] elements = new Object[16];
+
+        /** Number of elements in <i>elements</i>
+         */
+        private int count;
+
+        /** Smallest element as of last modification, or null if empty
+         */
+        volatile E top;
+
+        /** Number of elements as of last modification
+         */
+        volatile int size;
+
+        //MEMBER FUNCTIONS
+        //CONSTRUCTORS
+        /** Constructor creates empty heap ordered by <i>comparator</i>
+         * @param comparator Orders elements, smallest first, or null for natural ordering
+         */
+        Shard(Comparator<? super E> comparator){ this.comparator = comparator; }
+
+        //MUTATORS
+        /** Adds an element; called with <i>lock</i> held
+         * @param element Element to add, not null
+         */
+        void offer(E element){
+            if(this.count == this.elements.length)
+                this.elements = Arrays.copyOf(this.elements, DaryHeap.grow(this.count));
+            this.siftUp(this.count++, element);
+            this.refresh();
+        }
+
+        /** Removes smallest element; called with <i>lock</i> held
+         * @return Smallest element, or null if heap is empty
+         */
+        @SuppressWarnings("unchecked")
+        E poll(){
+            if(this.count == 0)
+                return null;
+            E output = (E)this.elements[0];
+            int last = --this.count;
+            E moved = (E)this.elements[last];
+            this.elements[last] = null;
+            if(last > 0)
+                this.siftDown(0, moved);
+            this.refresh();
+            return output;
+        }
+
+        /** Removes every element; called with <i>lock</i> held
+         */
+        void clear(){
+            Arrays.fill(this.elements, 0, this.count, null);
+            this.count = 0;
+            this.refresh();
+        }
+
+        /** Moves an element up from an empty slot while it is smaller than the parent, shifting parents down into the hole
+         * @param slot Index of empty slot
+         * @param element Element to place
+         */
+        @SuppressWarnings("unchecked")
+        private void siftUp(int slot, E element){
+            while(slot > 0){
+                int parent = DaryHeap.getParentIndex(slot, DaryHeap.DEFAULT_ARITY);
+                if(MultiQueue.compare(this.comparator, element, (E)this.elements[parent]) >= 0)
+                    break;
+                this.elements[slot] = this.elements[parent];
+                slot = parent;
+            }
+            this.elements[slot] = element;
+        }
+
+        /** Moves an element down from an empty slot while a child is smaller, shifting smallest children up into the hole
+         * @param slot Index of empty slot
+         * @param element Element to place
+         */
+        @SuppressWarnings("unchecked")
+        private void siftDown(int slot, E element){
+            while(true){
+                int first = DaryHeap.getFirstChildIndex(slot, DaryHeap.DEFAULT_ARITY);
+                if(first >= this.count || first < 0)
+                    break;
+                int best = first;
+                for(int child = first + 1, end = Math.min(first + DaryHeap.DEFAULT_ARITY, this.count); child < end; child++)
+                    if(MultiQueue.compare(this.comparator, (E)this.elements[child], (E)this.elements[best]) < 0)
+                        best = child;
+                if(MultiQueue.compare(this.comparator, (E)this.elements[best], element) >= 0)
+                    break;
+                this.elements[slot] = this.elements[best];
+                slot = best;
+            }
+            this.elements[slot] = element;
+        }
+
+        /** Publishes top and size; called with <i>lock</i> held after every modification
+         */
+        @SuppressWarnings("unchecked")
+        private void refresh(){
+            this.top = this.count == 0 ? null : (E)this.elements[0];
+            this.size = this.count;
+        }
+
+    }
+
+}
@@ -1,4 +1,5 @@
 package JTreeLib.util;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.Queue;
@@ -54,6 +55,26 @@ public abstract class MultiTree<T, N, K> implements Cloneable {
         return this.root;
     }
 
+    //estimates bytes retained by tree, walking every node reachable from root
+    public Footprint footprint(){
+        Footprint footprint = new Footprint();
+        footprint.add(Footprint.Category.SLOTS, Footprint.objectSize(4, 0, 0, 0)
+                + (this.visitedNodes == null ? 0 : Footprint.arraySize(this.visitedNodes.length, Footprint.REFERENCE)));
+        footprint.add(Footprint.Category.PAYLOADS, Footprint.valueSize(this.id));
+        ArrayDeque<MultiNode<N, K>> Q = new ArrayDeque<>();
+        if(this.root != null)
+            Q.offer(this.root);
+        while(!Q.isEmpty()){
+            MultiNode<N, K> top = Q.poll();
+            footprint.addNode(top.shallowSize());
+            footprint.add(Footprint.Category.KEYS, top.keySize());
+            footprint.add(Footprint.Category.CHILD_LISTS, top.childListSize());
+            footprint.add(Footprint.Category.PAYLOADS, Footprint.valueSize(top.getID()));
+            top.collectChildren(Q);
+        }
+        return footprint;
+    }
+
     public void traverseByBreath(){
         this.traverseByBreadth_Array();
         for(MultiNode<N, K> node : this.visitedNodes)
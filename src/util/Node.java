@@ -1,6 +1,7 @@
 package JTreeLib.util;
 import java.util.Arrays;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.stream.Collectors;
 import java.util.Collections;
 import java.util.List;
@@ -124,6 +125,21 @@ public abstract class Node<N> implements Cloneable {
         return this.children == null || this.children.stream().noneMatch(Objects::nonNull);
     }
 
+    /** Estimates size of this <i>Node</i> object alone, for <i>Footprint</i>
+     * @return Size in bytes
+     */
+    long shallowSize(){ return Footprint.objectSize(2, 1, 1, 0); }
+
+    /** Estimates size of links to children of <i>Node</i>, excluding children themselves
+     * @return Size in bytes
+     */
+    long childListSize(){ return Footprint.listSize(this.children); }
+
+    /** Estimates size of keys held by <i>Node</i>
+     * @return Size in bytes
+     */
+    long keySize(){ return 0; }
+
     //MUTATORS
     /** Sets new <i>ID</i> for <i>Node</i>
      * @param identifier <i>ID</i> for <i>Node</i>
@@ -231,6 +247,12 @@ class OmniNode<N, K> extends Node<N> {
         return output;
     }
 
+    @Override
+    long shallowSize(){ return Footprint.objectSize(4, 1, 1, 0); }
+
+    @Override
+    long keySize(){ return Footprint.valueSize(this.key); }
+
     //MUTATORS
 
 }
@@ -256,7 +278,7 @@ class BinaryNode<N, K> extends Node<N> {
      * @param key Key for <i>Node</i>
      */
     public BinaryNode(K key){
-        super(null, 2, Collections.unmodifiableList(new ArrayList<>(2)));
+        super(null, 2, Collections.emptyList());
         this.setChildCapacity(2);
         this.key = key;
     }
@@ -266,7 +288,7 @@ class BinaryNode<N, K> extends Node<N> {
      * @param key Key for <i>BinaryNode</i>
      */
     public BinaryNode(N identifier, K key){
-        super(identifier, 2, Collections.unmodifiableList(new ArrayList<>(2)));
+        super(identifier, 2, Collections.emptyList());
         this.setChildCapacity(2);
         this.key = key;
     }
@@ -319,6 +341,15 @@ class BinaryNode<N, K> extends Node<N> {
         return this.thread.getValue1();
     }
 
+    @Override
+    long shallowSize(){ return Footprint.objectSize(4, 1, 1, 0); }
+
+    @Override
+    long childListSize(){ return super.childListSize() + (this.thread == null ? 0 : Footprint.tupleSize(2)); }
+
+    @Override
+    long keySize(){ return Footprint.valueSize(this.key); }
+
     //MUTATORS
     @Override
     public boolean addChild(Node<N> node){ return false; }
@@ -330,6 +361,17 @@ class BinaryNode<N, K> extends Node<N> {
         this.key = key;
     }
 
+    /** Clears all state of a released <i>BinaryNode</i> so that a <i>NodePool</i> can hand it out again
+     * @param key Key for reused <i>BinaryNode</i>
+     */
+    void recycle(K key){
+        this.setID(null);
+        this.setWeight(1);
+        this.setLeaf();
+        this.key = key;
+        this.thread = null;
+    }
+
     /** Sets a new left child
      * @param leftChild <i>BinaryNode</i> to be set as left child
      * @return Whether setting new left child is successful or not
@@ -497,7 +539,16 @@ class AVLNode<N, K> extends BinaryNode<N, K> {
         return this.balanceFactor;
     }
 
+    @Override
+    long shallowSize(){ return Footprint.objectSize(4, 2, 1, 0); }
+
     //MUTATORS
+    @Override
+    void recycle(K key){
+        super.recycle(key);
+        this.balanceFactor = 0;
+    }
+
     /** Sets or updates current balance factor to any user-given <i>int</i> value
      * @param bf Balance factor
      * @return Whether setting new balance factor is successful or not
@@ -652,6 +703,34 @@ class MultiNode<N, K> extends Node<N> {
         return func.andThen(TreeMap::firstKey).apply(key, this.keys);
     }
 
+    @Override
+    long shallowSize(){ return Footprint.objectSize(4, 2, 1, 0); }
+
+    @Override
+    long childListSize(){
+        return super.childListSize() + (this.keys == null ? 0 : Footprint.objectSize(5, 2, 0, 0) + this.keys.size() * Footprint.objectSize(5, 0, 0, 1));
+    }
+
+    @Override
+    long keySize(){
+        long size = 0;
+        for(K key : this.keys == null ? Collections.<K>emptySet() : this.keys.keySet())
+            size += Footprint.valueSize(key);
+        return size;
+    }
+
+    /** Adds every non-null child <i>MultiNode</i> to <i>output</i>
+     * @param output Collection receiving children
+     */
+    void collectChildren(Collection<MultiNode<N, K>> output){
+        if(this.firstChild != null)
+            output.add(this.firstChild);
+        if(this.keys != null)
+            for(MultiNode<N, K> child : this.keys.values())
+                if(child != null)
+                    output.add(child);
+    }
+
     //MUTATORS
     /** Set a limit to number of keys allowed in <i>MultiNode</i>
      * @param keyCapacity Maximum number of keys allowed
@@ -859,6 +938,22 @@ class TrieNode<N> extends Node<N> {
      */
     public boolean search(char specificNodeKey){ return this.nodeKeys.contains(specificNodeKey); }
 
+    /** Finds single child of current <i>TrieNode</i>
+     * @return Child <i>TrieNode</i>, or null if there is none
+     */
+    TrieNode<N> getChild(){ return this.child; }
+
+    @Override
+    long shallowSize(){ return Footprint.objectSize(4, 1, 1, 1); }
+
+    @Override
+    long keySize(){
+        long size = Footprint.listSize(this.nodeKeys);
+        for(Character nodeKey : this.nodeKeys == null ? Collections.<Character>emptyList() : this.nodeKeys)
+            size += Footprint.valueSize(nodeKey);
+        return size;
+    }
+
     //MUTATORS
     /** Inserts new child for current <i>TrieNode</i> and replaces any previous child
      * @param newChild New <i>TrieNode</i> to be child of current <i>TrieNode</i>
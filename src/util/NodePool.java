@@ -0,0 +1,109 @@
+package JTreeLib.util;
+import java.util.Arrays;
+
+/** Free-list of released <i>BinaryNode</i> that a <i>BinaryTree</i> reuses instead of allocating, for workloads that
+ * insert and remove at a high rate. Nodes are returned by removals and handed out again by insertions; at most
+ * <i>retentionLimit</i> are kept and the rest are left to the garbage collector. A pool is not thread-safe and can be
+ * shared only by trees used from the same thread.
+ * @param <N> Data type of <i>BinaryNode</i>
+ * @param <K> Data type of <i>Key</i>
+ */
+public class NodePool<N, K> {
+    //MEMBER VARIABLES
+    /** Number of released <i>BinaryNode</i> kept by default
+     */
+    public static final int DEFAULT_RETENTION_LIMIT = 1 << 16;
+
+    /** Released <i>BinaryNode</i>, used as a stack
+     */
+    private BinaryNode<N, K>[] free;
+
+    /** Number of <i>BinaryNode</i> currently kept
+     */
+    private int size;
+
+    /** Maximum number of <i>BinaryNode</i> kept
+     */
+    private int retentionLimit;
+
+    //MEMBER FUNCTIONS
+    //CONSTRUCTORS
+    /** Default constructor keeps up to <i>DEFAULT_RETENTION_LIMIT</i> nodes
+     */
+    public NodePool(){ this(NodePool.DEFAULT_RETENTION_LIMIT); }
+
+    /** Constructor applies <i>retentionLimit</i>
+     * @param retentionLimit Maximum number of released <i>BinaryNode</i> kept; negative values count as 0
+     */
+    public NodePool(int retentionLimit){
+        this.retentionLimit = Math.max(retentionLimit, 0);
+        @SuppressWarnings("unchecked")
+        BinaryNode<N, K>[] free = (BinaryNode<N, K>[])new BinaryNode<?, ?>[Math.min(this.retentionLimit, 16)];
+        this.free = free;
+    }
+
+    //ACCESSORS
+    /** Finds number of released <i>BinaryNode</i> currently kept
+     * @return Number of <i>BinaryNode</i> ready for reuse
+     */
+    public int size(){ return this.size; }
+
+    /** Finds maximum number of released <i>BinaryNode</i> kept
+     * @return Retention limit
+     */
+    public int getRetentionLimit(){ return this.retentionLimit; }
+
+    //MUTATORS
+    /** Sets maximum number of released <i>BinaryNode</i> kept, dropping any beyond the new limit
+     * @param retentionLimit New retention limit; negative values count as 0
+     */
+    public void setRetentionLimit(int retentionLimit){
+        this.retentionLimit = Math.max(retentionLimit, 0);
+        if(this.size > this.retentionLimit){
+            Arrays.fill(this.free, this.retentionLimit, this.size, null);
+            this.size = this.retentionLimit;
+        }
+    }
+
+    /** Drops every kept <i>BinaryNode</i>
+     */
+    public void clear(){
+        Arrays.fill(this.free, 0, this.size, null);
+        this.size = 0;
+    }
+
+    /** Takes most recently released <i>BinaryNode</i> and resets it to hold <i>key</i>
+     * @param key Key for reused <i>BinaryNode</i>
+     * @return Recycled <i>BinaryNode</i>, or null if pool is empty
+     */
+    BinaryNode<N, K> acquire(K key){ return this.acquire(key, BinaryNode.class); }
+
+    /** Takes most recently released <i>BinaryNode</i> if it is an instance of <i>type</i>, and resets it to hold <i>key</i>.
+     * A node of another type stays in the pool for a tree that can use it.
+     * @param key Key for reused <i>BinaryNode</i>
+     * @param type Class the reused <i>BinaryNode</i> must be an instance of
+     * @return Recycled <i>BinaryNode</i>, or null if pool is empty or its most recent node is not a <i>type</i>
+     */
+    BinaryNode<N, K> acquire(K key, Class<?> type){
+        if(this.size == 0 || !type.isInstance(this.free[this.size - 1]))
+            return null;
+        BinaryNode<N, K> node = this.free[--this.size];
+        this.free[this.size] = null;
+        node.recycle(key);
+        return node;
+    }
+
+    /** Keeps a <i>BinaryNode</i> that no tree references anymore
+     * @param node Released <i>BinaryNode</i>
+     * @return Whether <i>node</i> was kept; <i>false</i> if pool is at its retention limit
+     */
+    boolean release(BinaryNode<N, K> node){
+        if(node == null || this.size >= this.retentionLimit)
+            return false;
+        if(this.size == this.free.length)
+            this.free = Arrays.copyOf(this.free, Math.min(Math.max(2 * this.free.length, 16), this.retentionLimit));
+        this.free[this.size++] = node;
+        return true;
+    }
+
+}
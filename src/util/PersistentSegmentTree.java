@@ -0,0 +1,249 @@
+package JTreeLib.util;
+import java.util.Arrays;
+
+/** Sum segment tree over doubles that keeps every version. Updating an element copies only the nodes on its path from
+ * root, O(log n) of them, and shares everything else with the version it came from, so any version can still be
+ * queried. Nodes of all versions live in one arena of parallel primitive arrays, addressed by <i>int</i>, and each
+ * version is just the arena index of its root.
+ * <p>Ranges split like <i>SegmentTree</i>: a node over <i>[l, r]</i> gives its left child the first
+ * <i>(r - l + 1) / 2</i> elements.</p>
+ */
+public class PersistentSegmentTree {
+    //MEMBER VARIABLES
+    /** Arena index of each node's left child; unused for leaves
+     */
+    private int[] lefts;
+
+    /** Arena index of each node's right child; unused for leaves
+     */
+    private int[] rights;
+
+    /** Sum of each node's range
+     */
+    private double[] sums;
+
+    /** Number of arena slots in use
+     */
+    private int nodeCount;
+
+    /** Arena index of root of each version
+     */
+    private int[] roots;
+
+    /** Number of versions
+     */
+    private int versionCount;
+
+    /** Number of elements
+     */
+    private final int length;
+
+    /** Arena indices of nodes on path of current update, from root down
+     */
+    private final int[] path;
+
+    //MEMBER FUNCTIONS
+    //CONSTRUCTORS
+    /** Constructor builds version 0 from an array, which is not kept
+     * @param arr Array to implement into tree
+     */
+    public PersistentSegmentTree(double[] arr){
+        this.length = arr == null ? 0 : arr.length;
+        int capacity = Math.max(2 * this.length, 16);
+        this.lefts = new int[capacity];
+        this.rights = new int[capacity];
+        this.sums = new double[capacity];
+        this.roots = new int[16];
+        this.path = new int[34 - Integer.numberOfLeadingZeros(Math.max(this.length, 1))];
+        this.roots[this.versionCount++] = this.length == 0 ? -1 : this.build(arr, 0, this.length - 1);
+    }
+
+    /** Allocates nodes of subtree covering <i>[left, right]</i>
+     * @param arr Array to implement into tree
+     * @param left Index of first element covered
+     * @param right Index of last element covered
+     * @return Arena index of subtree root
+     */
+    private int build(double[] arr, int left, int right){
+        int node = this.nodeCount++;
+        if(left == right){
+            this.sums[node] = arr[left];
+            return node;
+        }
+        int middle = left + (right - left + 1) / 2;
+        this.lefts[node] = this.build(arr, left, middle - 1);
+        this.rights[node] = this.build(arr, middle, right);
+        this.sums[node] = this.sums[this.lefts[node]] + this.sums[this.rights[node]];
+        return node;
+    }
+
+    //ACCESSORS
+    /** Finds number of elements, which is the same in every version
+     * @return Length of array represented by tree
+     */
+    public int getLength(){ return this.length; }
+
+    /** Finds number of versions; versions are numbered from 0, the array given to the constructor
+     * @return Number of versions
+     */
+    public int getVersionCount(){ return this.versionCount; }
+
+    /** Finds newest version
+     * @return Number of newest version
+     */
+    public int getLatestVersion(){ return this.versionCount - 1; }
+
+    /** Finds number of nodes allocated across all versions
+     * @return Number of arena slots in use
+     */
+    public int getNodeCount(){ return this.nodeCount; }
+
+    /** Checks whether a version exists and has elements
+     * @param version Number of version
+     * @return Whether version can be queried
+     */
+    private boolean isQueryable(int version){ return version >= 0 && version < this.versionCount && this.length > 0; }
+
+    /** Finds value of one element in a version
+     * @param version Number of version
+     * @param index Index of element
+     * @return Value of element, or 0 if version or index does not exist
+     */
+    public double get(int version, int index){
+        if(!this.isQueryable(version) || index < 0 || index >= this.length)
+            return 0;
+        int node = this.roots[version], left = 0, right = this.length - 1;
+        while(left != right){
+            int middle = left + (right - left + 1) / 2;
+            if(index < middle){
+                node = this.lefts[node];
+                right = middle - 1;
+            } else {
+                node = this.rights[node];
+                left = middle;
+            }
+        }
+        return this.sums[node];
+    }
+
+    /** Finds sum of sub-array in newest version
+     * @param startIndex Index of first element in sub-array for summation
+     * @param endIndex Index of last element in sub-array for summation
+     * @return Sum of sub-array, or -1 if array does not fully contain sub-array with given bounds
+     */
+    public double sum(int startIndex, int endIndex){ return this.sum(this.versionCount - 1, startIndex, endIndex); }
+
+    /** Finds sum of sub-array as it was in given version
+     * @param version Number of version
+     * @param startIndex Index of first element in sub-array for summation
+     * @param endIndex Index of last element in sub-array for summation
+     * @return Sum of sub-array, or -1 if version does not exist or array does not fully contain sub-array
+     */
+    public double sum(int version, int startIndex, int endIndex){
+        if(!this.isQueryable(version) || startIndex < 0 || endIndex >= this.length || startIndex > endIndex)
+            return -1;
+        return this.sumAt(this.roots[version], 0, this.length - 1, startIndex, endIndex);
+    }
+
+    /** Finds sum of the part of <i>[startIndex, endIndex]</i> inside node's range
+     * @param node Arena index of node
+     * @param left Index of first element covered by node
+     * @param right Index of last element covered by node
+     * @param startIndex Index of first element in sub-array for summation
+     * @param endIndex Index of last element in sub-array for summation
+     * @return Partial sum
+     */
+    private double sumAt(int node, int left, int right, int startIndex, int endIndex){
+        if(startIndex <= left && right <= endIndex)
+            return this.sums[node];
+        int middle = left + (right - left + 1) / 2;
+        double output = 0;
+        if(startIndex < middle)
+            output += this.sumAt(this.lefts[node], left, middle - 1, startIndex, endIndex);
+        if(endIndex >= middle)
+            output += this.sumAt(this.rights[node], middle, right, startIndex, endIndex);
+        return output;
+    }
+
+    /** Estimates bytes retained by tree; the arena, spare capacity included, holds the nodes of every version
+     * @return <i>Footprint</i> of tree
+     */
+    public Footprint footprint(){
+        Footprint footprint = new Footprint();
+        footprint.add(Footprint.Category.SLOTS, Footprint.objectSize(5, 3, 0, 0) + Footprint.arraySize(this.roots.length, 4)
+                + Footprint.arraySize(this.path.length, 4));
+        footprint.addNodes(this.nodeCount, 2 * Footprint.arraySize(this.lefts.length, 4) + Footprint.arraySize(this.sums.length, 8));
+        return footprint;
+    }
+
+    //MUTATORS
+    /** Creates a new version from the newest one with one element changed
+     * @param index Index of element to be updated
+     * @param newValue New value of element
+     * @return Number of new version, or -1 if <i>index</i> is out of bounds
+     */
+    public int update(int index, double newValue){ return this.update(this.versionCount - 1, index, newValue); }
+
+    /** Creates a new version from any version with one element changed, copying only the path from root to that
+     * element; the old version is left as it was
+     * @param version Number of version to start from
+     * @param index Index of element to be updated
+     * @param newValue New value of element
+     * @return Number of new version, or -1 if version does not exist or <i>index</i> is out of bounds
+     */
+    public int update(int version, int index, double newValue){
+        if(!this.isQueryable(version) || index < 0 || index >= this.length)
+            return -1;
+        this.reserve(this.path.length);
+        int old = this.roots[version], depth = 0, left = 0, right = this.length - 1;
+        int node = this.copyNode(old);
+        this.path[depth++] = node;
+        while(left != right){
+            int middle = left + (right - left + 1) / 2;
+            if(index < middle){
+                old = this.lefts[old];
+                node = this.lefts[node] = this.copyNode(old);
+                right = middle - 1;
+            } else {
+                old = this.rights[old];
+                node = this.rights[node] = this.copyNode(old);
+                left = middle;
+            }
+            this.path[depth++] = node;
+        }
+        this.sums[node] = newValue;
+        for(depth -= 2; depth >= 0; depth--){
+            node = this.path[depth];
+            this.sums[node] = this.sums[this.lefts[node]] + this.sums[this.rights[node]];
+        }
+        if(this.versionCount == this.roots.length)
+            this.roots = Arrays.copyOf(this.roots, 2 * this.versionCount);
+        this.roots[this.versionCount] = this.path[0];
+        return this.versionCount++;
+    }
+
+    /** Copies a node into next free arena slot, which <i>reserve</i> must have made room for
+     * @param node Arena index of node to copy
+     * @return Arena index of copy
+     */
+    private int copyNode(int node){
+        int copy = this.nodeCount++;
+        this.lefts[copy] = this.lefts[node];
+        this.rights[copy] = this.rights[node];
+        this.sums[copy] = this.sums[node];
+        return copy;
+    }
+
+    /** Grows arena, by half its size at least, unless it already has room for more nodes
+     * @param nodes Number of nodes about to be allocated
+     */
+    private void reserve(int nodes){
+        if(this.nodeCount + nodes <= this.sums.length)
+            return;
+        int capacity = Math.max(this.nodeCount + nodes, this.sums.length + (this.sums.length >> 1));
+        this.lefts = Arrays.copyOf(this.lefts, capacity);
+        this.rights = Arrays.copyOf(this.rights, capacity);
+        this.sums = Arrays.copyOf(this.sums, capacity);
+    }
+
+}
@@ -15,7 +15,7 @@ public class SegmentTree extends BinaryTree<Triplet<Integer, Integer, double[]>,
     public SegmentTree(double[] arr){
         super();
         this.array = arr;
-        this.TreeBuilder(arr, 0, 0);
+        this.build(arr);
     }
 
     /** Constructor applies <i>name</i>, <i>capacity</i>, and builds <i>SegmentTree</i> from an array
@@ -26,7 +26,26 @@ public class SegmentTree extends BinaryTree<Triplet<Integer, Integer, double[]>,
     public SegmentTree(String name, int capacity, double[] arr){
         super(name, capacity);
         this.array = arr;
+        this.build(arr);
+    }
+
+    /** Builds tree over whole array, recording metrics and a flight recorder event
+     * @param arr Array to implement into tree
+     */
+    private void build(double[] arr){
+        long start = TreeMetrics.start();
+        TreeEvent.SegmentTreeBuild event = new TreeEvent.SegmentTreeBuild();
+        event.begin();
         this.TreeBuilder(arr, 0, 0);
+        event.end();
+        if(event.shouldCommit()){
+            event.treeClass = this.getClass().getSimpleName();
+            event.treeNodes = this.countOccupiedSlots();
+            event.length = arr.length;
+            event.commit();
+        }
+        if(TreeMetrics.ENABLED)
+            this.metrics().record(TreeMetrics.Operation.BUILD, start);
     }
 
     /**
@@ -34,13 +53,15 @@ public class SegmentTree extends BinaryTree<Triplet<Integer, Integer, double[]>,
      * @param index Index to insert <i>arr</i> or sub-array of <i>arr</i> in tree
      */
     private void TreeBuilder(double[] arr, int index, int startIndex) {
-        this.setNode(index, new BinaryNode<>(Triplet.with(startIndex, startIndex + arr.length - 1, Arrays.copyOf(arr, arr.length)), null));
+        if(TreeMetrics.ENABLED)
+            this.metrics().count(TreeMetrics.Operation.BUILD, TreeMetrics.Event.ALLOCATIONS, 1);
+        this.setNode(index, new BinaryNode<>(Triplet.with(startIndex, startIndex + arr.length - 1, Arrays.copyOf(arr, arr.length)), 0.0));
         if(arr.length >= 3){
             this.TreeBuilder(Arrays.copyOfRange(arr, 0, arr.length/2), BinaryTree.getLeftChildIndex(index), startIndex);
             this.TreeBuilder(Arrays.copyOfRange(arr, arr.length/2, arr.length), BinaryTree.getRightChildIndex(index), startIndex + arr.length / 2);
         } else if(arr.length == 2) {
             this.TreeBuilder(Arrays.copyOfRange(arr, 0, 1), BinaryTree.getLeftChildIndex(index), startIndex);
-            this.TreeBuilder(Arrays.copyOfRange(arr, 1, 2), BinaryTree.getLeftChildIndex(index), startIndex + 1);
+            this.TreeBuilder(Arrays.copyOfRange(arr, 1, 2), BinaryTree.getRightChildIndex(index), startIndex + 1);
         } else {
             this.getNode(index).setKey(arr[0]);
             int parentIndex = BinaryTree.getParentIndex(index);
@@ -118,18 +139,51 @@ public class SegmentTree extends BinaryTree<Triplet<Integer, Integer, double[]>,
      * @return Sum of sub-array, or -1 if root's array does not fully contain sub-array with given bounds
      */
     public double sum(int nodeIndex, int startIndex, int endIndex){
+        long start = TreeMetrics.start();
+        double output = this.sumAt(nodeIndex, startIndex, endIndex);
+        if(TreeMetrics.ENABLED)
+            this.metrics().record(TreeMetrics.Operation.QUERY, start);
+        return output;
+    }
+
+    /** Finds sum of sub-array recursively, counting each <i>BinaryNode</i> visited
+     * @param nodeIndex Index of current <i>BinaryNode</i> and possible descendants in consideration of sum search
+     * @param startIndex Index of first element in sub-array for summation
+     * @param endIndex Index of last element in sub-array for summation
+     * @return Sum of sub-array, or -1 if root's array does not fully contain sub-array with given bounds
+     */
+    private double sumAt(int nodeIndex, int startIndex, int endIndex){
+        if(TreeMetrics.ENABLED)
+            this.metrics().count(TreeMetrics.Operation.QUERY, TreeMetrics.Event.NODE_VISITS, 1);
         if(!this.hasNode(nodeIndex) || startIndex < 0 || endIndex >= this.array.length)
             return -1;
         else if(this.getLeftBound(nodeIndex) == startIndex && this.getRightBound(nodeIndex) == endIndex)
             return this.getNode(nodeIndex).getKey();
         else if(endIndex <= this.getRightBound(BinaryTree.getLeftChildIndex(nodeIndex)))
-            return this.sum(BinaryTree.getLeftChildIndex(nodeIndex), startIndex, endIndex);
+            return this.sumAt(BinaryTree.getLeftChildIndex(nodeIndex), startIndex, endIndex);
         else if(startIndex >= this.getLeftBound(BinaryTree.getRightChildIndex(nodeIndex)))
-            return this.sum(BinaryTree.getRightChildIndex(nodeIndex), startIndex, endIndex);
+            return this.sumAt(BinaryTree.getRightChildIndex(nodeIndex), startIndex, endIndex);
         else {
-            double partSum1 = this.sum(BinaryTree.getLeftChildIndex(nodeIndex), startIndex, this.getRightBound(BinaryTree.getLeftChildIndex(nodeIndex)));
-            double partSum2 = this.sum(BinaryTree.getRightChildIndex(nodeIndex), this.getLeftBound(BinaryTree.getRightChildIndex(nodeIndex)), endIndex);
-            return partSum1 == -1 || partSum2 == -1 ? -1 : partSum1 + partSum2; //only returns -1 when tree is incompletely built i.e. missing leaves
+            double partSum1 = this.sumAt(BinaryTree.getLeftChildIndex(nodeIndex), startIndex, this.getRightBound(BinaryTree.getLeftChildIndex(nodeIndex)));
+            double partSum2 = this.sumAt(BinaryTree.getRightChildIndex(nodeIndex), this.getLeftBound(BinaryTree.getRightChildIndex(nodeIndex)), endIndex);
+            return partSum1 + partSum2; //both halves are in bounds, so -1 here is a real sum rather than a failure
+        }
+    }
+
+    /** Adds root's array and the sub-array copied into every <i>BinaryNode</i>, with its bounds, to what
+     * <i>BinaryTree</i> measures
+     * @param footprint <i>Footprint</i> being accumulated
+     */
+    @Override
+    protected void measure(Footprint footprint){
+        super.measure(footprint);
+        footprint.add(Footprint.Category.PAYLOADS, Footprint.REFERENCE + Footprint.valueSize(this.array));
+        for(int index = 0; index < this.getCurrentSize(); index++){
+            if(!this.hasNode(index))
+                continue;
+            Triplet<Integer, Integer, double[]> bounds = this.getNode(index).getID();
+            footprint.add(Footprint.Category.PAYLOADS, Footprint.tupleSize(3) + Footprint.valueSize(bounds.getValue0())
+                    + Footprint.valueSize(bounds.getValue1()) + Footprint.valueSize(bounds.getValue2()));
         }
     }
 
@@ -142,35 +196,36 @@ public class SegmentTree extends BinaryTree<Triplet<Integer, Integer, double[]>,
     public boolean update(int index, double newValue){
         if(index < 0 || index >= this.array.length)
             return false;
+        long start = TreeMetrics.start();
+        int visits = 1, currentIndex = 0;
+        double delta = newValue - this.array[index];
         this.array[index] = newValue;
-        this.getNode(index).setKey(newValue);
-        int currentIndex = index;
+        this.updateNode(currentIndex, index, newValue, delta);
         while(!this.isLeaf(currentIndex)) {
             if(index <= this.getRightBound(BinaryTree.getLeftChildIndex(currentIndex)))
                 currentIndex = BinaryTree.getLeftChildIndex(currentIndex);
             else
                 currentIndex = BinaryTree.getRightChildIndex(currentIndex);
-            this.getNode(currentIndex).setKey(newValue);
+            this.updateNode(currentIndex, index, newValue, delta);
+            ++visits;
+        }
+        if(TreeMetrics.ENABLED){
+            this.metrics().count(TreeMetrics.Operation.UPDATE, TreeMetrics.Event.NODE_VISITS, visits);
+            this.metrics().record(TreeMetrics.Operation.UPDATE, start);
         }
         return true;
     }
 
-
-
-}
-
-class PersistentSegmentTree extends SegmentTree {
-    //MEMBER VARIABLES
-
-    //MEMBER FUNCTIONS
-    //CONSTRUCTORS
-    /** Constructor builds <i>PersistentSegmentTree</i> from an array
-     * @param arr Array to implement into tree
+    /** Applies an element update to one <i>BinaryNode</i> on the path from root to that element's leaf
+     * @param nodeIndex Index of <i>BinaryNode</i> whose range contains element
+     * @param index Index of element in root's array
+     * @param newValue New value of element
+     * @param delta Difference between new and old value of element
      */
-    public PersistentSegmentTree(double[] arr){ super(arr); }
-
-    //ACCESSORS
-
-    //MUTATORS
+    private void updateNode(int nodeIndex, int index, double newValue, double delta){
+        BinaryNode<Triplet<Integer, Integer, double[]>, Double> node = this.getNode(nodeIndex);
+        node.setKey(node.getKey() + delta);
+        node.getID().getValue2()[index - this.getLeftBound(nodeIndex)] = newValue;
+    }
 
-}
\ No newline at end of file
+}
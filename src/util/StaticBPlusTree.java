@@ -0,0 +1,227 @@
+package JTreeLib.util;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.ToIntFunction;
+
+/** Static, read-only B+ tree over primitive int keys whose nodes hold exactly 16 keys, i.e. one 64-byte cache line.
+ * All layers live in one array, root layer first, and the leaf layer is simply the sorted keys padded with
+ * <i>Integer.MAX_VALUE</i>, so range scans stream through contiguous memory. An internal node has 17 children and its key
+ * <i>j</i> is the smallest key below child <i>j + 1</i>. Each node is searched by counting keys smaller than the target,
+ * and the count is the child to descend into, so a lookup touches one cache line per layer. The count is a fixed,
+ * branch-free loop that C2 may unroll, or a SIMD compare with the Vector API when the library is built with
+ * <i>mvn -Pvector</i> and run with <i>--add-modules jdk.incubator.vector</i>; see <i>isVectorized</i>.
+ */
+public class StaticBPlusTree {
+    //MEMBER VARIABLES
+    /** Number of keys per node
+     */
+    public static final int NODE_SIZE = 16;
+
+    /** Scalar node search, the fallback
+     */
+    private static final NodeScan SCALAR_SCAN = StaticBPlusTree::countLess;
+
+    /** Counts keys of a node smaller than a target; the Vector API version if it is available, otherwise <i>countLess</i>
+     */
+    private static final NodeScan SCAN = StaticBPlusTree.loadScan();
+
+    /** All layers of nodes, root layer first and leaf layer last
+     */
+    private final int[] keys;
+
+    /** First slot in <i>keys</i> of each layer
+     */
+    private final int[] layerOffsets;
+
+    /** Number of real keys
+     */
+    private final int size;
+
+    //MEMBER FUNCTIONS
+    //CONSTRUCTORS
+    /** Constructor builds layers from an array of keys, which is copied and sorted first
+     * @param sortedKeys Keys to index, ideally already in ascending order
+     */
+    public StaticBPlusTree(int[] sortedKeys){
+        int[] sorted = sortedKeys == null ? new int[0] : Arrays.copyOf(sortedKeys, sortedKeys.length);
+        Arrays.sort(sorted);
+        this.size = sorted.length;
+        int layers = 1, leafNodes = Math.max((this.size + NODE_SIZE - 1) / NODE_SIZE, 1);
+        for(int nodes = leafNodes; nodes > 1; nodes = (nodes + NODE_SIZE) / (NODE_SIZE + 1))
+            ++layers;
+        int[] layerNodes = new int[layers];
+        layerNodes[layers - 1] = leafNodes;
+        for(int layer = layers - 2; layer >= 0; layer--)
+            layerNodes[layer] = (layerNodes[layer + 1] + NODE_SIZE) / (NODE_SIZE + 1);
+        this.layerOffsets = new int[layers];
+        int total = 0;
+        for(int layer = 0; layer < layers; layer++){
+            this.layerOffsets[layer] = total;
+            total += layerNodes[layer] * NODE_SIZE;
+        }
+        this.keys = new int[total];
+        int leafOffset = this.layerOffsets[layers - 1];
+        System.arraycopy(sorted, 0, this.keys, leafOffset, this.size);
+        Arrays.fill(this.keys, leafOffset + this.size, total, Integer.MAX_VALUE);
+        for(int layer = layers - 2; layer >= 0; layer--)
+            for(int node = 0; node < layerNodes[layer]; node++)
+                for(int j = 0; j < NODE_SIZE; j++)
+                    this.keys[this.layerOffsets[layer] + node * NODE_SIZE + j] =
+                            this.smallestKeyBelow(layer + 1, node * (NODE_SIZE + 1) + j + 1, leafNodes);
+    }
+
+    /** Builds a static <i>StaticBPlusTree</i> from the keys of a <i>BinaryTree</i>, typically a <i>BinarySearchTree</i>
+     * that is rebuilt rarely and queried often
+     * @param tree Source tree
+     * @param mapper Converts each key to a primitive int
+     * @param <N> Data type of <i>BinaryNode</i>
+     * @param <K> Data type of <i>Key</i>
+     * @return New <i>StaticBPlusTree</i> holding every key of <i>tree</i>
+     */
+    public static <N, K> StaticBPlusTree of(BinaryTree<N, K> tree, ToIntFunction<? super K> mapper){
+        return new StaticBPlusTree(tree == null ? null : tree.toIntArray(mapper));
+    }
+
+    /** Finds smallest key in subtree of given node by following first children down to the leaf layer
+     * @param layer Layer of node
+     * @param node Position of node within its layer
+     * @param leafNodes Number of nodes in leaf layer
+     * @return Smallest key, or <i>Integer.MAX_VALUE</i> if node does not exist
+     */
+    private int smallestKeyBelow(int layer, long node, int leafNodes){
+        for(int depth = layer; depth < this.layerOffsets.length - 1; depth++)
+            node *= NODE_SIZE + 1;
+        return node < leafNodes ? this.keys[this.layerOffsets[this.layerOffsets.length - 1] + (int)node * NODE_SIZE] : Integer.MAX_VALUE;
+    }
+
+    /** Loads <i>VectorNodeScan</i> if it was compiled in and the JVM can link it against <i>jdk.incubator.vector</i>,
+     * checking it on one node before trusting it
+     * @return Vector API node search, or scalar <i>countLess</i> as fallback
+     */
+    private static NodeScan loadScan(){
+        try {
+            NodeScan scan = (NodeScan)Class.forName("JTreeLib.util.VectorNodeScan").getDeclaredConstructor().newInstance();
+            int[] probe = new int[NODE_SIZE];
+            for(int j = 0; j < NODE_SIZE; j++)
+                probe[j] = 2 * j;
+            if(scan.countLess(probe, 0, NODE_SIZE + 1) == NODE_SIZE / 2 + 1)
+                return scan;
+        } catch(ReflectiveOperationException | LinkageError e){
+            //not built with the vector profile, older JVM, or module not added
+        }
+        return StaticBPlusTree.SCALAR_SCAN;
+    }
+
+    //ACCESSORS
+    /** Finds number of keys
+     * @return Number of keys, not counting padding
+     */
+    public int size(){ return this.size; }
+
+    /** Finds whether nodes are searched with the Vector API rather than the scalar loop
+     * @return Whether <i>VectorNodeScan</i> is in use
+     */
+    public static boolean isVectorized(){ return StaticBPlusTree.SCAN != StaticBPlusTree.SCALAR_SCAN; }
+
+    /** Finds key at given position in ascending order
+     * @param rank 0-based position in ascending order
+     * @return Key at <i>rank</i>, or <i>Integer.MIN_VALUE</i> if <i>rank</i> is out of bounds
+     */
+    public int get(int rank){
+        if(rank < 0 || rank >= this.size)
+            return Integer.MIN_VALUE;
+        return this.keys[this.layerOffsets[this.layerOffsets.length - 1] + rank];
+    }
+
+    /** Finds position of first key greater than or equal to <i>key</i>
+     * @param key Key to search for
+     * @return 0-based position in ascending order, or <i>size()</i> if every key is smaller
+     */
+    public int lowerBound(int key){
+        int[] keys = this.keys;
+        NodeScan scan = StaticBPlusTree.SCAN;
+        int node = 0, leafLayer = this.layerOffsets.length - 1;
+        for(int layer = 0; layer < leafLayer; layer++)
+            node = node * (NODE_SIZE + 1) + scan.countLess(keys, this.layerOffsets[layer] + node * NODE_SIZE, key);
+        int rank = node * NODE_SIZE + scan.countLess(keys, this.layerOffsets[leafLayer] + node * NODE_SIZE, key);
+        return Math.min(rank, this.size);
+    }
+
+    /** Finds position of first key strictly greater than <i>key</i>
+     * @param key Key to search for
+     * @return 0-based position in ascending order, or <i>size()</i> if no key is greater
+     */
+    public int upperBound(int key){
+        if(key == Integer.MAX_VALUE)
+            return this.size;
+        return this.lowerBound(key + 1);
+    }
+
+    /** Searches for given key
+     * @param key Key to search for
+     * @return 0-based position of <i>key</i> in ascending order if exists, otherwise -1
+     */
+    public int search(int key){
+        int rank = this.lowerBound(key);
+        return rank < this.size && this.get(rank) == key ? rank : -1;
+    }
+
+    /** Checks whether given key exists
+     * @param key Key to search for
+     * @return Whether <i>key</i> is indexed
+     */
+    public boolean contains(int key){ return this.search(key) != -1; }
+
+    /** Counts keys within an inclusive range
+     * @param from Smallest key of range
+     * @param to Largest key of range
+     * @return Number of keys <i>k</i> with <i>from</i> &lt;= <i>k</i> &lt;= <i>to</i>
+     */
+    public int rangeCount(int from, int to){
+        if(from > to)
+            return 0;
+        return this.upperBound(to) - this.lowerBound(from);
+    }
+
+    /** Passes every key within an inclusive range to <i>action</i> in ascending order, reading the leaf layer sequentially
+     * @param from Smallest key of range
+     * @param to Largest key of range
+     * @param action Receives each key in range
+     * @return Number of keys passed to <i>action</i>
+     */
+    public int forEachInRange(int from, int to, IntConsumer action){
+        if(from > to || action == null)
+            return 0;
+        int leafOffset = this.layerOffsets[this.layerOffsets.length - 1];
+        int start = this.lowerBound(from), end = this.upperBound(to);
+        for(int rank = start; rank < end; rank++)
+            action.accept(this.keys[leafOffset + rank]);
+        return Math.max(end - start, 0);
+    }
+
+    /** Counts keys of one node smaller than <i>key</i> with a fixed-length, branch-free loop over its cache line
+     * @param keys Array holding node
+     * @param base First slot of node
+     * @param key Key to compare against
+     * @return Number of keys in node smaller than <i>key</i>
+     */
+    static int countLess(int[] keys, int base, int key){
+        int count = 0;
+        for(int j = 0; j < NODE_SIZE; j++)
+            count += keys[base + j] < key ? 1 : 0;
+        return count;
+    }
+
+}
+
+/** Search within one node of <i>StaticBPlusTree</i>
+ */
+interface NodeScan {
+    /** Counts keys of one node smaller than <i>key</i>
+     * @param keys Array holding node
+     * @param base First slot of node
+     * @param key Key to compare against
+     * @return Number of keys in node smaller than <i>key</i>
+     */
+    int countLess(int[] keys, int base, int key);
+}
@@ -1,5 +1,11 @@
 package JTreeLib.util;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import org.javatuples.Pair;
 
 import javax.jws.Oneway;
@@ -171,6 +177,167 @@ public class TernaryTree<N, K> extends Tree<N> implements Cloneable {
         return output;
     }
 
+    /** Maps every <i>TernaryNode</i> and combines the results, forking first, middle and last subtrees into separate
+     * <i>RecursiveTask</i> on the common <i>ForkJoinPool</i> while they span more slots than the default threshold
+     * @param identity Identity value of <i>combiner</i>, returned for an empty <i>TernaryTree</i>
+     * @param mapper Converts each <i>TernaryNode</i> into a partial result
+     * @param combiner Associative function merging two partial results
+     * @param <R> Data type of result
+     * @return Combined result over all <i>TernaryNode</i>
+     */
+    public <R> R reduce(R identity, Function<? super TernaryNode<N, K>, ? extends R> mapper, BinaryOperator<R> combiner){
+        return this.reduce(identity, mapper, combiner, Tree.DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /** Maps every <i>TernaryNode</i> and combines the results, forking first, middle and last subtrees into separate
+     * <i>RecursiveTask</i> on the common <i>ForkJoinPool</i> while they span more than <i>threshold</i> slots
+     * @param identity Identity value of <i>combiner</i>, returned for an empty <i>TernaryTree</i>
+     * @param mapper Converts each <i>TernaryNode</i> into a partial result
+     * @param combiner Associative function merging two partial results
+     * @param threshold Number of slots at or below which a subtree is reduced sequentially
+     * @param <R> Data type of result
+     * @return Combined result over all <i>TernaryNode</i>, or <i>identity</i> if tree is empty or arguments are null
+     */
+    public <R> R reduce(R identity, Function<? super TernaryNode<N, K>, ? extends R> mapper, BinaryOperator<R> combiner, int threshold){
+        if(mapper == null || combiner == null || !this.isOccupied(0))
+            return identity;
+        return ForkJoinPool.commonPool().invoke(
+                new ReduceTask<>(0, this.tree.size(), identity, mapper, combiner, Math.max(threshold, 1)));
+    }
+
+    /** Applies <i>action</i> to every <i>TernaryNode</i> in parallel with no guarantee on order
+     * @param action Receives each <i>TernaryNode</i>; must be safe to call from several threads at once
+     */
+    public void forEachParallel(Consumer<? super TernaryNode<N, K>> action){ this.forEachParallel(action, Tree.DEFAULT_PARALLEL_THRESHOLD); }
+
+    /** Applies <i>action</i> to every <i>TernaryNode</i> in parallel with no guarantee on order, forking subtrees while
+     * they span more than <i>threshold</i> slots
+     * @param action Receives each <i>TernaryNode</i>; must be safe to call from several threads at once
+     * @param threshold Number of slots at or below which a subtree is visited sequentially
+     */
+    public void forEachParallel(Consumer<? super TernaryNode<N, K>> action, int threshold){
+        if(action == null || !this.isOccupied(0))
+            return;
+        ForkJoinPool.commonPool().invoke(new ForEachTask(0, this.tree.size(), action, Math.max(threshold, 1)));
+    }
+
+    /** Finds <i>TernaryNode</i> in occupied slot without any validation
+     * @param index Index of an occupied slot
+     * @return <i>TernaryNode</i> at <i>index</i>
+     */
+    private TernaryNode<N, K> nodeAt(int index){ return (TernaryNode<N, K>)this.tree.get(index); }
+
+    /** Sequentially folds subtree rooted at <i>index</i> in VLR order into <i>accumulator</i>
+     * @param index Index of an occupied slot
+     * @param accumulator Result so far
+     * @param mapper Converts each <i>TernaryNode</i> into a partial result
+     * @param combiner Associative function merging two partial results
+     * @param <R> Data type of result
+     * @return <i>accumulator</i> combined with every <i>TernaryNode</i> of subtree
+     */
+    private <R> R fold(int index, R accumulator, Function<? super TernaryNode<N, K>, ? extends R> mapper, BinaryOperator<R> combiner){
+        accumulator = combiner.apply(accumulator, mapper.apply(this.nodeAt(index)));
+        for(int childIndex = this.getFirstChildIndex(index); childIndex <= this.getLastChildIndex(index); childIndex++)
+            if(this.isOccupied(childIndex))
+                accumulator = this.fold(childIndex, accumulator, mapper, combiner);
+        return accumulator;
+    }
+
+    /** Sequentially applies <i>action</i> to subtree rooted at <i>index</i> in VLR order
+     * @param index Index of an occupied slot
+     * @param action Receives each <i>TernaryNode</i>
+     */
+    private void forEachSequential(int index, Consumer<? super TernaryNode<N, K>> action){
+        action.accept(this.nodeAt(index));
+        for(int childIndex = this.getFirstChildIndex(index); childIndex <= this.getLastChildIndex(index); childIndex++)
+            if(this.isOccupied(childIndex))
+                this.forEachSequential(childIndex, action);
+    }
+
+    /** Fork/join task reducing subtree rooted at <i>rootIndex</i>; <i>span</i> estimates slots below <i>rootIndex</i>
+     * by dividing tree size by 3 once per level
+     * @param <R> Data type of result
+     */
+    private class ReduceTask<R> extends RecursiveTask<R> {
+        private static final long serialVersionUID = 1L;
+
+        private final int rootIndex, span, threshold;
+        private final R identity;
+        private final Function<? super TernaryNode<N, K>, ? extends R> mapper;
+        private final BinaryOperator<R> combiner;
+
+        ReduceTask(int rootIndex, int span, R identity, Function<? super TernaryNode<N, K>, ? extends R> mapper, BinaryOperator<R> combiner, int threshold){
+            this.rootIndex = rootIndex;
+            this.span = span;
+            this.identity = identity;
+            this.mapper = mapper;
+            this.combiner = combiner;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected R compute(){
+            if(this.span <= this.threshold)
+                return TernaryTree.this.fold(this.rootIndex, this.identity, this.mapper, this.combiner);
+            R output = this.combiner.apply(this.identity, this.mapper.apply(TernaryTree.this.nodeAt(this.rootIndex)));
+            int firstIndex = TernaryTree.this.getFirstChildIndex(this.rootIndex);
+            ReduceTask<R> first = TernaryTree.this.isOccupied(firstIndex)
+                    ? new ReduceTask<>(firstIndex, this.span / 3, this.identity, this.mapper, this.combiner, this.threshold) : null;
+            ReduceTask<R> middle = TernaryTree.this.isOccupied(firstIndex + 1)
+                    ? new ReduceTask<>(firstIndex + 1, this.span / 3, this.identity, this.mapper, this.combiner, this.threshold) : null;
+            ReduceTask<R> last = TernaryTree.this.isOccupied(firstIndex + 2)
+                    ? new ReduceTask<>(firstIndex + 2, this.span / 3, this.identity, this.mapper, this.combiner, this.threshold) : null;
+            if(first != null)
+                first.fork();
+            if(middle != null)
+                middle.fork();
+            R lastResult = last == null ? this.identity : last.compute();
+            if(first != null)
+                output = this.combiner.apply(output, first.join());
+            if(middle != null)
+                output = this.combiner.apply(output, middle.join());
+            return this.combiner.apply(output, lastResult);
+        }
+    }
+
+    /** Fork/join task applying an action to every <i>TernaryNode</i> of subtree rooted at <i>rootIndex</i>
+     */
+    private class ForEachTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int rootIndex, span, threshold;
+        private final Consumer<? super TernaryNode<N, K>> action;
+
+        ForEachTask(int rootIndex, int span, Consumer<? super TernaryNode<N, K>> action, int threshold){
+            this.rootIndex = rootIndex;
+            this.span = span;
+            this.action = action;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute(){
+            if(this.span <= this.threshold){
+                TernaryTree.this.forEachSequential(this.rootIndex, this.action);
+                return;
+            }
+            this.action.accept(TernaryTree.this.nodeAt(this.rootIndex));
+            int firstIndex = TernaryTree.this.getFirstChildIndex(this.rootIndex);
+            ForEachTask first = TernaryTree.this.isOccupied(firstIndex) ? new ForEachTask(firstIndex, this.span / 3, this.action, this.threshold) : null;
+            ForEachTask middle = TernaryTree.this.isOccupied(firstIndex + 1) ? new ForEachTask(firstIndex + 1, this.span / 3, this.action, this.threshold) : null;
+            if(first != null)
+                first.fork();
+            if(middle != null)
+                middle.fork();
+            if(TernaryTree.this.isOccupied(firstIndex + 2))
+                new ForEachTask(firstIndex + 2, this.span / 3, this.action, this.threshold).compute();
+            if(first != null)
+                first.join();
+            if(middle != null)
+                middle.join();
+        }
+    }
+
     //MUTATORS
     /** Sets new <i>TernaryNode</i> at some given index and replaces old <i>Node</i> if applicable.
      * Note: does not check whether a parent already exists, therefore may lead to a detached <i>TernaryNode</i> in tree
@@ -35,6 +35,14 @@ public abstract class Tree<N> implements Cloneable {
      */
     protected List<Node<N>> tree;
 
+    /** Default number of slots a subtree may span before parallel operations split it into forked tasks
+     */
+    protected static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 12;
+
+    /** Metrics scope of this kind of tree, looked up on first use
+     */
+    private TreeMetrics metrics;
+
     //MEMBER FUNCTIONS
     //CONSTRUCTORS
     /** Default constructor
@@ -73,6 +81,41 @@ public abstract class Tree<N> implements Cloneable {
      */
     public String getName() { return this.name; }
 
+    /** Estimates bytes retained by <i>Tree</i>, broken down into node objects, slot list, keys, child lists and payloads
+     * @return New <i>Footprint</i> of tree
+     */
+    public Footprint footprint(){
+        Footprint footprint = new Footprint();
+        this.measure(footprint);
+        return footprint;
+    }
+
+    /** Adds bytes retained by <i>Tree</i> to <i>footprint</i>; subclasses extend it with their own side tables
+     * @param footprint <i>Footprint</i> being accumulated
+     */
+    protected void measure(Footprint footprint){
+        footprint.add(Footprint.Category.SLOTS, Footprint.objectSize(5, 0, 0, 0) + 2 * Footprint.tupleSize(2) + Footprint.listSize(this.tree));
+        if(this.tree == null)
+            return;
+        for(Node<N> node : this.tree){
+            if(node == null)
+                continue;
+            footprint.addNode(node.shallowSize());
+            footprint.add(Footprint.Category.KEYS, node.keySize());
+            footprint.add(Footprint.Category.CHILD_LISTS, node.childListSize());
+            footprint.add(Footprint.Category.PAYLOADS, Footprint.valueSize(node.getID()));
+        }
+    }
+
+    /** Finds metrics scope shared by every tree of same class; callers guard use with <i>TreeMetrics.ENABLED</i>
+     * @return <i>TreeMetrics</i> named after simple class name
+     */
+    protected TreeMetrics metrics(){
+        if(this.metrics == null)
+            this.metrics = TreeMetrics.forScope(this.getClass().getSimpleName());
+        return this.metrics;
+    }
+
     /** Abstract function to find parent of <i>Node</i> located at <i>childIndex</i>
      * @param childIndex Index of child
      * @return Parent of <i>Node</i>  if exists, otherwise returns <i>null</i>
@@ -151,6 +194,15 @@ public abstract class Tree<N> implements Cloneable {
         return true;
     }
 
+    /** Checks in constant time whether slot at given <i>index</i> holds a non-null <i>Node</i>, skipping the bounds and
+     * size validation of <i>hasNode</i> against <i>getCurrentSize</i> and <i>getCapacity</i>
+     * @param index Index of slot
+     * @return Whether slot is within <i>tree</i> and occupied
+     */
+    protected boolean isOccupied(int index){
+        return this.tree != null && index >= 0 && index < this.tree.size() && this.tree.get(index) != null;
+    }
+
     /** Checks whether <i>Tree</i> has a non-null <i>Node</i>
      * @param node <i>Node</i> to check existence in <i>Tree</i>
      * @return Whether <i>Node</i> is in current <i>Tree</i>
@@ -242,11 +294,24 @@ public abstract class Tree<N> implements Cloneable {
     public boolean setCapacity(int capacity){
         if(capacity < 0 || capacity == this.getCapacity())
             return false;
+        TreeEvent.Resize event = new TreeEvent.Resize();
+        event.begin();
+        int oldCapacity = this.getCapacity();
         this.capacity = Pair.with(capacity, true);
+        if(TreeMetrics.ENABLED)
+            this.metrics().count(TreeMetrics.Operation.RESIZE, TreeMetrics.Event.RESIZES, 1);
         List<Node<N>> newTree = new ArrayList<>(capacity);
         for(int index = 0; index <= capacity - 1; index++)
             newTree.set(index, this.tree.get(index));
         this.tree = Collections.unmodifiableList(newTree);
+        event.end();
+        if(event.shouldCommit()){
+            event.treeClass = this.getClass().getSimpleName();
+            event.treeNodes = this.getTreeSize();
+            event.oldCapacity = oldCapacity;
+            event.newCapacity = capacity;
+            event.commit();
+        }
         return true;
     }
 
@@ -280,6 +345,8 @@ public abstract class Tree<N> implements Cloneable {
             return false;
         if(numNodes <= this.getTreeSize())
             return true;
+        if(TreeMetrics.ENABLED)
+            this.metrics().count(TreeMetrics.Operation.RESIZE, TreeMetrics.Event.RESIZES, 1);
         this.tree.addAll(Collections.nCopies(numNodes - this.getCurrentSize(), null));
         return true;
     }
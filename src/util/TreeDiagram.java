@@ -1,4 +1,5 @@
 import Array.ArrayUtils;
+import JTreeLib.util.Footprint;
 import java.util.Arrays;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -72,6 +73,32 @@ public class TreeDiagram<T> {
     }
 
     //ACCESSORS
+    /** Estimates bytes retained by tree diagram: level lists and their arrays are slots, and each <code>TreeNode</code>
+     * holds its own <code>children</code> array
+     * @return <code>Footprint</code> of tree diagram
+     */
+    public Footprint footprint(){
+        Footprint footprint = new Footprint();
+        footprint.add(Footprint.Category.SLOTS, Footprint.objectSize(1, 0, 0, 0));
+        if(this.levels == null)
+            return footprint;
+        footprint.add(Footprint.Category.SLOTS, Footprint.listSize(this.levels));
+        for(ArrayList<TreeNode<T>[]> level : this.levels){
+            footprint.add(Footprint.Category.SLOTS, Footprint.listSize(level));
+            for(TreeNode<T>[] nodeArr : level){
+                footprint.add(Footprint.Category.SLOTS, Footprint.arraySize(nodeArr.length, Footprint.REFERENCE));
+                for(TreeNode<T> node : nodeArr){
+                    if(node == null)
+                        continue;
+                    footprint.addNode(Footprint.objectSize(2, 1, 1, 0));
+                    footprint.add(Footprint.Category.CHILD_LISTS, Footprint.arraySize(node.getChildArraySize(), Footprint.REFERENCE));
+                    footprint.add(Footprint.Category.PAYLOADS, Footprint.valueSize(node.getData()));
+                }
+            }
+        }
+        return footprint;
+    }
+
     /** Finds root of tree diagram
      * @return Topmost <code>TreeNode</code>
      */
@@ -240,6 +267,11 @@ class TreeNode<T> {
     }
 
     //ACCESSORS
+    /** Gets data element
+     * @return <code>data</code>
+     */
+    public T getData(){ return this.data; }
+
     /** Gets child <code>TreeNode</code> at a given index
      * @param index 0-based index valid for the array <code>children</code>
      * @return <code>TreeNode</code> at <code>index</code> if exists, or <code>null</code>
@@ -0,0 +1,98 @@
+package JTreeLib.util;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/** Java Flight Recorder events for structural operations on trees, so that a latency spike in a recording can be traced
+ * to the reorganization that caused it. JFR measures the duration between <i>begin()</i> and <i>commit()</i>; each event
+ * is only written if it took at least its <i>@Threshold</i>, which a recording's settings may override. While no
+ * recording is running, <i>shouldCommit()</i> is false and the unused event object is removed by escape analysis.
+ */
+@Category("JTreeLib")
+@StackTrace(true)
+abstract class TreeEvent extends Event {
+    //MEMBER VARIABLES
+    /** Simple class name of tree
+     */
+    @Label("Tree Class")
+    String treeClass;
+
+    /** Number of non-null <i>Node</i> in tree after operation
+     */
+    @Label("Tree Nodes")
+    int treeNodes;
+
+    /** Left or right rotation about a subtree root of a <i>BinaryTree</i>
+     */
+    @Name("jtreelib.Rotation")
+    @Label("Tree Rotation")
+    @Threshold("1 ms")
+    static final class Rotation extends TreeEvent {
+        /** Index of subtree root rotated about
+         */
+        @Label("Root Index")
+        int rootIndex;
+
+        /** Whether rotation was to the left
+         */
+        @Label("Left")
+        boolean left;
+    }
+
+    /** Insertion or removal of a whole subtree of a <i>BinaryTree</i>
+     */
+    @Name("jtreelib.Subtree")
+    @Label("Subtree Insert/Remove")
+    @Threshold("1 ms")
+    static final class Subtree extends TreeEvent {
+        /** Index of subtree root
+         */
+        @Label("Root Index")
+        int rootIndex;
+
+        /** Whether subtree was inserted rather than removed
+         */
+        @Label("Insert")
+        boolean insert;
+
+        /** Number of <i>Node</i> inserted or removed
+         */
+        @Label("Subtree Nodes")
+        int subtreeNodes;
+    }
+
+    /** Change of <i>Tree</i> capacity, which copies every slot
+     */
+    @Name("jtreelib.Resize")
+    @Label("Tree Capacity Change")
+    @Description("Tree.setCapacity copying slots into a new table")
+    @Threshold("1 ms")
+    static final class Resize extends TreeEvent {
+        /** Capacity before change, or -1 if none was enforced
+         */
+        @Label("Old Capacity")
+        int oldCapacity;
+
+        /** Capacity after change
+         */
+        @Label("New Capacity")
+        int newCapacity;
+    }
+
+    /** Construction of a <i>SegmentTree</i> from an array
+     */
+    @Name("jtreelib.SegmentTreeBuild")
+    @Label("Segment Tree Build")
+    @Threshold("5 ms")
+    static final class SegmentTreeBuild extends TreeEvent {
+        /** Length of array tree was built from
+         */
+        @Label("Array Length")
+        int length;
+    }
+
+}
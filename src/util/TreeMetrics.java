@@ -0,0 +1,190 @@
+package JTreeLib.util;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Opt-in counters and latency histograms for tree operations, grouped into scopes named after the kind of tree. Enabled
+ * by starting the JVM with <i>-Djtreelib.metrics=true</i>. <i>ENABLED</i> is a static final constant, so the JIT
+ * compiler folds every <i>if(TreeMetrics.ENABLED)</i> guard at call sites and drops disabled instrumentation entirely.
+ * Counters are <i>LongAdder</i>, so threads recording into the same scope do not contend on one cache line.
+ */
+public final class TreeMetrics {
+    //MEMBER VARIABLES
+    /** Whether instrumentation records anything, read once from system property <i>jtreelib.metrics</i>
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("jtreelib.metrics");
+
+    /** Number of latency buckets; bucket <i>b</i> counts operations that took from <i>2^b</i> up to <i>2^(b + 1)</i>
+     * nanoseconds, and the last bucket also counts anything longer
+     */
+    public static final int LATENCY_BUCKETS = 40;
+
+    /** Kind of operation that costs are attributed to
+     */
+    public enum Operation { SEARCH, INSERT, REMOVE, UPDATE, QUERY, BUILD, ROTATE, RESIZE, COPY }
+
+    /** Kind of cost counted within an operation
+     */
+    public enum Event { COMPARISONS, NODE_VISITS, ROTATIONS, RESIZES, ALLOCATIONS }
+
+    /** Number of kinds of cost, cached since <i>values()</i> copies its array
+     */
+    private static final int EVENT_COUNT = Event.values().length;
+
+    /** Every scope created so far, by name
+     */
+    private static final ConcurrentMap<String, TreeMetrics> SCOPES = new ConcurrentHashMap<>();
+
+    /** Name of scope
+     */
+    private final String scope;
+
+    /** Event counts, indexed by <i>operation * EVENT_COUNT + event</i>
+     */
+    private final LongAdder[] events;
+
+    /** Latency histogram buckets, indexed by <i>operation * LATENCY_BUCKETS + bucket</i>
+     */
+    private final LongAdder[] latencies;
+
+    /** Total nanoseconds spent in each operation
+     */
+    private final LongAdder[] totalNanos;
+
+    //MEMBER FUNCTIONS
+    //CONSTRUCTORS
+    /** Constructor creates empty counters for <i>scope</i>
+     * @param scope Name of scope
+     */
+    private TreeMetrics(String scope){
+        int operations = Operation.values().length;
+        this.scope = scope;
+        this.events = TreeMetrics.newAdders(operations * TreeMetrics.EVENT_COUNT);
+        this.latencies = TreeMetrics.newAdders(operations * TreeMetrics.LATENCY_BUCKETS);
+        this.totalNanos = TreeMetrics.newAdders(operations);
+    }
+
+    /** Finds scope with given name, creating it on first use
+     * @param scope Name of scope, usually simple name of a tree class
+     * @return Metrics of scope
+     */
+    public static TreeMetrics forScope(String scope){ return TreeMetrics.SCOPES.computeIfAbsent(scope, TreeMetrics::new); }
+
+    /** Creates array of zeroed counters
+     * @param length Number of counters
+     * @return New counters
+     */
+    private static LongAdder[] newAdders(int length){
+        LongAdder[] adders = new LongAdder[length];
+        for(int i = 0; i < length; i++)
+            adders[i] = new LongAdder();
+        return adders;
+    }
+
+    //ACCESSORS
+    /** Finds name of scope
+     * @return Name of scope
+     */
+    public String getScope(){ return this.scope; }
+
+    /** Reads clock at start of an operation
+     * @return Current <i>System.nanoTime</i>, or 0 if metrics are disabled
+     */
+    public static long start(){ return TreeMetrics.ENABLED ? System.nanoTime() : 0L; }
+
+    /** Finds latency bucket of a duration
+     * @param nanos Duration in nanoseconds
+     * @return Bucket index, from 0 to <i>LATENCY_BUCKETS - 1</i>
+     */
+    public static int bucketOf(long nanos){ return Math.min(63 - Long.numberOfLeadingZeros(Math.max(nanos, 1L)), TreeMetrics.LATENCY_BUCKETS - 1); }
+
+    /** Copies counters of this scope into a map. Keys are <i>scope.operation.event</i> for event counts,
+     * <i>scope.operation.latency.count</i> and <i>scope.operation.latency.totalNanos</i> for overall latency, and
+     * <i>scope.operation.latency.bucket.b</i> for histogram buckets; counters that are still 0 are left out.
+     * @return Sorted map of counter names to values
+     */
+    public Map<String, Long> snapshot(){
+        Map<String, Long> output = new TreeMap<>();
+        this.snapshotInto(output);
+        return output;
+    }
+
+    /** Copies counters of every scope into one map, in the format of <i>snapshot()</i>
+     * @return Sorted map of counter names to values
+     */
+    public static Map<String, Long> snapshotAll(){
+        Map<String, Long> output = new TreeMap<>();
+        for(TreeMetrics metrics : TreeMetrics.SCOPES.values())
+            metrics.snapshotInto(output);
+        return output;
+    }
+
+    /** Adds non-zero counters of this scope to <i>output</i>
+     * @param output Map receiving counters
+     */
+    private void snapshotInto(Map<String, Long> output){
+        for(Operation operation : Operation.values()){
+            String prefix = this.scope + "." + operation.name().toLowerCase() + ".";
+            for(Event event : Event.values()){
+                long value = this.events[operation.ordinal() * TreeMetrics.EVENT_COUNT + event.ordinal()].sum();
+                if(value != 0)
+                    output.put(prefix + event.name().toLowerCase(), value);
+            }
+            long count = 0;
+            for(int bucket = 0; bucket < TreeMetrics.LATENCY_BUCKETS; bucket++){
+                long value = this.latencies[operation.ordinal() * TreeMetrics.LATENCY_BUCKETS + bucket].sum();
+                if(value != 0)
+                    output.put(prefix + "latency.bucket." + bucket, value);
+                count += value;
+            }
+            if(count != 0){
+                output.put(prefix + "latency.count", count);
+                output.put(prefix + "latency.totalNanos", this.totalNanos[operation.ordinal()].sum());
+            }
+        }
+    }
+
+    //MUTATORS
+    /** Adds to an event counter; does nothing if metrics are disabled
+     * @param operation Operation the cost belongs to
+     * @param event Kind of cost
+     * @param amount Amount to add
+     */
+    public void count(Operation operation, Event event, long amount){
+        if(TreeMetrics.ENABLED && amount != 0)
+            this.events[operation.ordinal() * TreeMetrics.EVENT_COUNT + event.ordinal()].add(amount);
+    }
+
+    /** Records latency of an operation that began at <i>startNanos</i>; does nothing if metrics are disabled
+     * @param operation Operation that finished
+     * @param startNanos Value returned by <i>start()</i> when operation began
+     */
+    public void record(Operation operation, long startNanos){
+        if(!TreeMetrics.ENABLED)
+            return;
+        long nanos = System.nanoTime() - startNanos;
+        this.latencies[operation.ordinal() * TreeMetrics.LATENCY_BUCKETS + TreeMetrics.bucketOf(nanos)].increment();
+        this.totalNanos[operation.ordinal()].add(nanos);
+    }
+
+    /** Zeroes every counter of this scope
+     */
+    public void reset(){
+        for(LongAdder adder : this.events)
+            adder.reset();
+        for(LongAdder adder : this.latencies)
+            adder.reset();
+        for(LongAdder adder : this.totalNanos)
+            adder.reset();
+    }
+
+    /** Zeroes every counter of every scope
+     */
+    public static void resetAll(){
+        for(TreeMetrics metrics : TreeMetrics.SCOPES.values())
+            metrics.reset();
+    }
+
+}
@@ -1,3 +1,4 @@
+import JTreeLib.util.Footprint;
 
 public class Trie<T, N> extends Tree<T, N>{
     //CONSTRUCTORS
@@ -23,6 +24,19 @@ public class Trie<T, N> extends Tree<T, N>{
         return current.getLeaf();
     }
 
+    //adds trie nodes, which hang off root instead of the slot list, to what Tree measures
+    @Override
+    protected void measure(Footprint footprint){
+        super.measure(footprint);
+        footprint.add(Footprint.Category.SLOTS, Footprint.REFERENCE);
+        for(TrieNode<N> node = this.root; node != null; node = node.getChild()){
+            footprint.addNode(node.shallowSize());
+            footprint.add(Footprint.Category.KEYS, node.keySize());
+            footprint.add(Footprint.Category.CHILD_LISTS, node.childListSize());
+            footprint.add(Footprint.Category.PAYLOADS, Footprint.valueSize(node.getID()));
+        }
+    }
+
     //MUTATORS
     //inserts new word in trie; returns false only if word already exists
     public boolean insert(String key){
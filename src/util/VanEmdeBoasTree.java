@@ -0,0 +1,172 @@
+package JTreeLib.util;
+import java.util.Arrays;
+import java.util.function.ToLongFunction;
+
+/** Static, read-only binary search tree over primitive long keys stored in van Emde Boas order. The perfect tree of
+ * height <i>h</i> is split into a top tree of height <i>h / 2</i> followed by its bottom trees, each laid out the same way
+ * recursively, so any root-to-leaf path crosses only O(log<sub>B</sub> n) cache lines and pages for every block size B.
+ * Missing slots of the perfect tree are padded with <i>Long.MAX_VALUE</i>.
+ */
+public class VanEmdeBoasTree {
+    //MEMBER VARIABLES
+    /** Keys in van Emde Boas order, including padding
+     */
+    private final long[] keys;
+
+    /** Number of real keys
+     */
+    private final int size;
+
+    /** Number of levels of the padded perfect tree
+     */
+    private final int height;
+
+    //MEMBER FUNCTIONS
+    //CONSTRUCTORS
+    /** Constructor builds layout from an array of keys, which is copied and sorted first
+     * @param sortedKeys Keys to index, ideally already in ascending order
+     */
+    public VanEmdeBoasTree(long[] sortedKeys){
+        long[] sorted = sortedKeys == null ? new long[0] : Arrays.copyOf(sortedKeys, sortedKeys.length);
+        Arrays.sort(sorted);
+        this.size = sorted.length;
+        this.height = 32 - Integer.numberOfLeadingZeros(this.size);
+        this.keys = new long[(1 << this.height) - 1];
+        if(this.height > 0)
+            this.layout(sorted, 1, this.height, 0);
+    }
+
+    /** Builds a static <i>VanEmdeBoasTree</i> from the keys of a <i>BinaryTree</i>, typically a <i>BinarySearchTree</i>
+     * that is rebuilt rarely and queried often
+     * @param tree Source tree
+     * @param mapper Converts each key to a primitive long
+     * @param <N> Data type of <i>BinaryNode</i>
+     * @param <K> Data type of <i>Key</i>
+     * @return New <i>VanEmdeBoasTree</i> holding every key of <i>tree</i>
+     */
+    public static <N, K> VanEmdeBoasTree of(BinaryTree<N, K> tree, ToLongFunction<? super K> mapper){
+        return new VanEmdeBoasTree(tree == null ? null : tree.toLongArray(mapper));
+    }
+
+    /** Places subtree of the perfect BFS tree rooted at <i>bfsIndex</i> into <i>keys</i> starting at <i>offset</i>
+     * @param sorted Keys in ascending order
+     * @param bfsIndex 1-based BFS index of subtree root
+     * @param height Number of levels in subtree
+     * @param offset First slot in <i>keys</i> reserved for subtree
+     */
+    private void layout(long[] sorted, int bfsIndex, int height, int offset){
+        if(height == 1){
+            int rank = this.rankOf(bfsIndex);
+            this.keys[offset] = rank < this.size ? sorted[rank] : Long.MAX_VALUE;
+            return;
+        }
+        int topHeight = height / 2, bottomHeight = height - topHeight;
+        this.layout(sorted, bfsIndex, topHeight, offset);
+        int bottomOffset = offset + (1 << topHeight) - 1, bottomSize = (1 << bottomHeight) - 1;
+        for(int i = 0; i < 1 << topHeight; i++)
+            this.layout(sorted, (bfsIndex << topHeight) + i, bottomHeight, bottomOffset + i * bottomSize);
+    }
+
+    //ACCESSORS
+    /** Finds number of keys
+     * @return Number of keys, not counting padding
+     */
+    public int size(){ return this.size; }
+
+    /** Finds key at given position in ascending order
+     * @param rank 0-based position in ascending order
+     * @return Key at <i>rank</i>, or <i>Long.MIN_VALUE</i> if <i>rank</i> is out of bounds
+     */
+    public long get(int rank){
+        if(rank < 0 || rank >= this.size)
+            return Long.MIN_VALUE;
+        int trailing = Integer.numberOfTrailingZeros(rank + 1), depth = this.height - 1 - trailing;
+        return this.keys[this.locate(0, this.height, (rank + 1) >>> (trailing + 1), depth)];
+    }
+
+    /** Finds position of first key greater than or equal to <i>key</i>
+     * @param key Key to search for
+     * @return 0-based position in ascending order, or <i>size()</i> if every key is smaller
+     */
+    public int lowerBound(long key){
+        if(this.height == 0)
+            return 0;
+        return Math.min(this.descend(key, 0, this.height, false), this.size);
+    }
+
+    /** Finds position of first key strictly greater than <i>key</i>
+     * @param key Key to search for
+     * @return 0-based position in ascending order, or <i>size()</i> if no key is greater
+     */
+    public int upperBound(long key){
+        if(this.height == 0)
+            return 0;
+        return Math.min(this.descend(key, 0, this.height, true), this.size);
+    }
+
+    /** Searches for given key
+     * @param key Key to search for
+     * @return 0-based position of <i>key</i> in ascending order if exists, otherwise -1
+     */
+    public int search(long key){
+        int rank = this.lowerBound(key);
+        return rank < this.size && this.get(rank) == key ? rank : -1;
+    }
+
+    /** Checks whether given key exists
+     * @param key Key to search for
+     * @return Whether <i>key</i> is indexed
+     */
+    public boolean contains(long key){ return this.search(key) != -1; }
+
+    /** Descends subtree stored at <i>offset</i>; the returned path bits, one per level with 1 meaning right, equal the
+     * number of keys in the subtree smaller than (or not greater than, if <i>inclusive</i>) <i>key</i>
+     * @param key Key to search for
+     * @param offset First slot of subtree in <i>keys</i>
+     * @param height Number of levels in subtree
+     * @param inclusive Whether keys equal to <i>key</i> also send the search right
+     * @return Path bits of descent through subtree
+     */
+    private int descend(long key, int offset, int height, boolean inclusive){
+        if(height == 1){
+            long nodeKey = this.keys[offset];
+            return (inclusive ? nodeKey <= key : nodeKey < key) ? 1 : 0;
+        }
+        int topHeight = height / 2, bottomHeight = height - topHeight;
+        int top = this.descend(key, offset, topHeight, inclusive);
+        int bottomOffset = offset + (1 << topHeight) - 1 + top * ((1 << bottomHeight) - 1);
+        return top << bottomHeight | this.descend(key, bottomOffset, bottomHeight, inclusive);
+    }
+
+    /** Finds slot in <i>keys</i> of the node reached from subtree root by following <i>path</i>
+     * @param offset First slot of subtree in <i>keys</i>
+     * @param height Number of levels in subtree
+     * @param path Turns taken below subtree root, most significant first, with 1 meaning right
+     * @param depth Number of turns in <i>path</i>
+     * @return Slot of node in <i>keys</i>
+     */
+    private int locate(int offset, int height, int path, int depth){
+        while(depth > 0){
+            int topHeight = height / 2, bottomHeight = height - topHeight;
+            if(depth < topHeight){
+                height = topHeight;
+                continue;
+            }
+            depth -= topHeight;
+            offset += (1 << topHeight) - 1 + (path >>> depth) * ((1 << bottomHeight) - 1);
+            path &= (1 << depth) - 1;
+            height = bottomHeight;
+        }
+        return offset;
+    }
+
+    /** Finds in-order position of a node of the padded perfect tree
+     * @param bfsIndex 1-based BFS index
+     * @return 0-based in-order position
+     */
+    private int rankOf(int bfsIndex){
+        int depth = 31 - Integer.numberOfLeadingZeros(bfsIndex);
+        return ((2 * (bfsIndex - (1 << depth)) + 1) << (this.height - 1 - depth)) - 1;
+    }
+
+}
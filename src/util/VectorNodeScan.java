@@ -0,0 +1,25 @@
+package JTreeLib.util;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/** Node search of <i>StaticBPlusTree</i> with the incubating Vector API: the 16 keys of a node are compared against the
+ * target a whole vector at a time and the set lanes are counted. Built only by the <i>vector</i> profile, on Java 17 or
+ * newer, and picked up at run time only if the JVM was started with <i>--add-modules jdk.incubator.vector</i>.
+ */
+final class VectorNodeScan implements NodeScan {
+    //MEMBER VARIABLES
+    /** Widest int vector the CPU supports; 4, 8 or 16 lanes, each of which divides <i>NODE_SIZE</i>
+     */
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    //MEMBER FUNCTIONS
+    @Override
+    public int countLess(int[] keys, int base, int key){
+        int count = 0;
+        for(int j = 0; j < StaticBPlusTree.NODE_SIZE; j += SPECIES.length())
+            count += IntVector.fromArray(SPECIES, keys, base + j).compare(VectorOperators.LT, key).trueCount();
+        return count;
+    }
+
+}
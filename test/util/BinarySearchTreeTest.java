@@ -0,0 +1,393 @@
+package JTreeLib.util;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Randomized checks of <i>BinarySearchTree</i> against a <i>TreeSet</i> ordered the same way, by string representation
+ */
+class BinarySearchTreeTest {
+
+    /** Orders keys the way <i>BinarySearchTree.compare</i> does
+     */
+    static final Comparator<Integer> ORDER = Comparator.comparing(String::valueOf);
+
+    /** Checks that tree holds exactly the keys of <i>expected</i>, in order, with no orphaned slot, and finds each of them
+     * @param expected Reference set
+     * @param tree Tree to check
+     * @param message Context for failures
+     */
+    static void assertSameKeys(TreeSet<Integer> expected, BinarySearchTree<Integer, Integer> tree, String message){
+        List<Integer> inorder = new ArrayList<>();
+        tree.forEach(BinaryTree.TraversalOrder.INORDER, inorder::add);
+        assertEquals(new ArrayList<>(expected), inorder, message);
+        assertEquals(expected.size(), tree.toIntArray(Integer::intValue).length, message);
+        for(Integer key : expected)
+            assertTrue(tree.search(key) >= 0, message + " key=" + key);
+    }
+
+    @Test
+    void perKeyInsertMatchesTreeSet(){
+        Random random = new Random(23);
+        for(int round = 0; round < 20; round++){
+            BinarySearchTree<Integer, Integer> tree = new BinarySearchTree<>();
+            TreeSet<Integer> expected = new TreeSet<>(ORDER);
+            for(int i = 0; i < 200; i++){
+                int key = random.nextInt(300);
+                assertEquals(expected.add(key), tree.insert(key), "round=" + round + " key=" + key);
+            }
+            assertSameKeys(expected, tree, "round=" + round);
+            BinaryTreeTest.keysWithoutOrphans(tree);
+            assertEquals(-1, tree.search(300));
+        }
+    }
+
+    @Test
+    void insertAllMatchesTreeSetForSmallAndLargeBatches(){
+        Random random = new Random(29);
+        BinarySearchTree<Integer, Integer> tree = new BinarySearchTree<>();
+        TreeSet<Integer> expected = new TreeSet<>(ORDER);
+        for(int round = 0; round < 40; round++){
+            // alternate batches far smaller than the tree, which go key by key, with ones that merge and rebuild
+            int size = round % 2 == 0 ? 1 + random.nextInt(3) : 20 + random.nextInt(200);
+            List<Integer> batch = new ArrayList<>();
+            for(int i = 0; i < size; i++)
+                batch.add(random.nextInt(5000));
+            boolean changed = false;
+            for(Integer key : batch)
+                changed |= expected.add(key);
+            assertEquals(changed, tree.insertAll(batch), "round=" + round);
+            assertSameKeys(expected, tree, "round=" + round);
+        }
+    }
+
+    @Test
+    void insertAllIntoNonEmptyTree(){
+        BinarySearchTree<Integer, Integer> tree = new BinarySearchTree<>();
+        List<Integer> keys = new ArrayList<>();
+        for(int i = 0; i < 100; i++)
+            keys.add(i);
+        assertTrue(tree.insertAll(keys));
+        assertTrue(tree.insertAll(List.of(1000)));
+        assertFalse(tree.insertAll(List.of(1000)));
+        TreeSet<Integer> expected = new TreeSet<>(ORDER);
+        expected.addAll(keys);
+        expected.add(1000);
+        assertSameKeys(expected, tree, "");
+    }
+
+    @Test
+    void removeAllLargeBatchesMatchTreeSet(){
+        Random random = new Random(31);
+        BinarySearchTree<Integer, Integer> tree = new BinarySearchTree<>();
+        TreeSet<Integer> expected = new TreeSet<>(ORDER);
+        List<Integer> keys = new ArrayList<>();
+        for(int i = 0; i < 2000; i++)
+            keys.add(random.nextInt(5000));
+        tree.insertAll(keys);
+        expected.addAll(keys);
+        while(!expected.isEmpty()){
+            List<Integer> batch = new ArrayList<>();
+            for(int i = 0; i < 400; i++)
+                batch.add(random.nextInt(5000));
+            boolean changed = expected.removeAll(batch);
+            assertEquals(changed, tree.removeAll(batch));
+            assertSameKeys(expected, tree, "size=" + expected.size());
+            if(expected.size() < 50)
+                break;
+        }
+    }
+
+    /** Builds tree from keys <i>from</i> to <i>to</i> - 1 with one batch
+     * @param from First key
+     * @param to One past last key
+     * @param expected Receives same keys
+     * @return New <i>BinarySearchTree</i>
+     */
+    static BinarySearchTree<Integer, Integer> range(int from, int to, TreeSet<Integer> expected){
+        BinarySearchTree<Integer, Integer> tree = new BinarySearchTree<>();
+        List<Integer> keys = new ArrayList<>();
+        for(int key = from; key < to; key++)
+            keys.add(key);
+        tree.insertAll(keys);
+        expected.addAll(keys);
+        return tree;
+    }
+
+    @Test
+    void removeEachKeyInOrder(){
+        TreeSet<Integer> expected = new TreeSet<>(ORDER);
+        BinarySearchTree<Integer, Integer> tree = range(10, 40, expected);
+        for(int key = 10; key < 40; key++){
+            assertTrue(tree.remove(Integer.valueOf(key)), "key=" + key);
+            expected.remove(key);
+            assertSameKeys(expected, tree, "key=" + key);
+            BinaryTreeTest.keysWithoutOrphans(tree);
+        }
+        assertFalse(tree.hasNode(0));
+    }
+
+    @Test
+    void randomInsertsAndRemovesMatchTreeSet(){
+        Random random = new Random(37);
+        BinarySearchTree<Integer, Integer> tree = new BinarySearchTree<>();
+        TreeSet<Integer> expected = new TreeSet<>(ORDER);
+        for(int step = 0; step < 3000; step++){
+            int key = random.nextInt(400);
+            if(random.nextInt(3) == 0)
+                assertEquals(expected.add(key), tree.insert(key), "step=" + step);
+            else
+                assertEquals(expected.remove(key), tree.remove(Integer.valueOf(key)), "step=" + step);
+            if(step % 50 == 0){
+                assertSameKeys(expected, tree, "step=" + step);
+                assertEquals(expected, new TreeSet<>(BinaryTreeTest.keysWithoutOrphans(tree)), "step=" + step);
+            }
+        }
+    }
+
+    @Test
+    void removeAllSmallBatchesMatchTreeSet(){
+        Random random = new Random(41);
+        TreeSet<Integer> expected = new TreeSet<>(ORDER);
+        BinarySearchTree<Integer, Integer> tree = range(0, 1000, expected);
+        for(int round = 0; round < 100; round++){
+            List<Integer> batch = List.of(random.nextInt(1000), random.nextInt(1000));
+            boolean changed = expected.removeAll(batch);
+            assertEquals(changed, tree.removeAll(batch), "round=" + round);
+            assertSameKeys(expected, tree, "round=" + round);
+        }
+    }
+
+    @Test
+    void tombstonesHideKeysUntilCompaction(){
+        TreeSet<Integer> expected = new TreeSet<>(ORDER);
+        BinarySearchTree<Integer, Integer> tree = range(0, 100, expected);
+        tree.setTombstoneMode(true);
+        assertTrue(tree.setCompactionRatio(0.5));
+        for(int key = 0; key < 100; key += 5){
+            int index = tree.search(key);
+            assertTrue(tree.remove(Integer.valueOf(key)));
+            expected.remove(key);
+            // marked dead in place, not unlinked
+            assertTrue(tree.hasNode(index));
+            assertEquals(-1, tree.search(key));
+            assertFalse(tree.remove(Integer.valueOf(key)));
+        }
+        assertEquals(20, tree.getTombstoneCount());
+        assertSameKeys(expected, tree, "");
+        assertTrue(tree.compact());
+        assertEquals(0, tree.getTombstoneCount());
+        assertEquals(80, tree.getTreeSize());
+        assertSameKeys(expected, tree, "");
+        assertFalse(tree.compact());
+    }
+
+    @Test
+    void tombstonesCompactOnceRatioIsReached(){
+        TreeSet<Integer> expected = new TreeSet<>(ORDER);
+        BinarySearchTree<Integer, Integer> tree = range(0, 100, expected);
+        tree.setTombstoneMode(true);
+        for(int key = 0; key < 24; key++)
+            tree.remove(Integer.valueOf(key));
+        assertEquals(24, tree.getTombstoneCount());
+        tree.remove(Integer.valueOf(24));
+        assertEquals(0, tree.getTombstoneCount());
+        assertEquals(75, tree.getTreeSize());
+        for(int key = 0; key < 25; key++)
+            expected.remove(key);
+        assertSameKeys(expected, tree, "");
+    }
+
+    @Test
+    void parallelReduceSkipsTombstones(){
+        TreeSet<Integer> expected = new TreeSet<>(ORDER);
+        BinarySearchTree<Integer, Integer> tree = range(0, 2000, expected);
+        tree.setTombstoneMode(true);
+        for(int key = 0; key < 2000; key += 7){
+            tree.remove(Integer.valueOf(key));
+            expected.remove(key);
+        }
+        assertTrue(tree.getTombstoneCount() > 0);
+        long sum = 0;
+        for(int key : expected)
+            sum += key;
+        for(int threshold : new int[]{1, 16, Tree.DEFAULT_PARALLEL_THRESHOLD}){
+            assertEquals(sum, (long)tree.reduce(0L, Integer::longValue, Long::sum, threshold), "threshold=" + threshold);
+            LongAdder count = new LongAdder();
+            tree.forEachParallel(key -> count.increment(), threshold);
+            assertEquals(expected.size(), count.intValue(), "threshold=" + threshold);
+        }
+    }
+
+    @Test
+    void searchBatchMatchesSearch(){
+        Random random = new Random(31);
+        TreeSet<Integer> expected = new TreeSet<>(ORDER);
+        BinarySearchTree<Integer, Integer> tree = range(0, 500, expected);
+        for(int round = 0; round < 2; round++){
+            for(int size : new int[]{0, 1, BinarySearchTree.BATCH_GROUP_SIZE - 1, BinarySearchTree.BATCH_GROUP_SIZE,
+                    BinarySearchTree.BATCH_GROUP_SIZE + 1, 1000}){
+                Integer[] keys = new Integer[size];
+                for(int i = 0; i < size; i++)
+                    keys[i] = random.nextInt(700) - 100;
+                int[] indices = new int[size + 1];
+                int found = 0;
+                for(Integer key : keys)
+                    found += expected.contains(key) ? 1 : 0;
+                assertEquals(found, tree.searchBatch(keys, indices), "round=" + round + " size=" + size);
+                for(int i = 0; i < size; i++)
+                    assertEquals(tree.search(keys[i]), indices[i], "round=" + round + " key=" + keys[i]);
+            }
+            // second round hides a share of keys behind tombstones
+            tree.setTombstoneMode(true);
+            for(int key = 0; key < 500; key += 8){
+                tree.remove(Integer.valueOf(key));
+                expected.remove(key);
+            }
+        }
+        // a finished background compaction is installed first, as search does, so indices agree with the new layout
+        assertTrue(tree.getTombstoneCount() > 0);
+        assertTrue(tree.compactAsync(Runnable::run));
+        Integer[] keys = expected.toArray(new Integer[0]);
+        int[] indices = new int[keys.length];
+        assertEquals(keys.length, tree.searchBatch(keys, indices));
+        assertEquals(0, tree.getTombstoneCount());
+        for(int i = 0; i < keys.length; i++)
+            assertEquals(tree.search(keys[i]), indices[i], "key=" + keys[i]);
+        assertEquals(-1, tree.searchBatch(null, new int[0]));
+        assertEquals(-1, tree.searchBatch(new Integer[]{1, 2}, new int[1]));
+    }
+
+    @Test
+    void insertRevivesTombstone(){
+        TreeSet<Integer> expected = new TreeSet<>(ORDER);
+        BinarySearchTree<Integer, Integer> tree = range(0, 50, expected);
+        tree.setTombstoneMode(true);
+        int index = tree.search(17);
+        tree.remove(Integer.valueOf(17));
+        assertEquals(1, tree.getTombstoneCount());
+        assertTrue(tree.insert(17));
+        assertEquals(0, tree.getTombstoneCount());
+        assertEquals(index, tree.search(17));
+        assertFalse(tree.insert(17));
+        assertSameKeys(expected, tree, "");
+    }
+
+    @Test
+    void disablingTombstoneModeCompacts(){
+        TreeSet<Integer> expected = new TreeSet<>(ORDER);
+        BinarySearchTree<Integer, Integer> tree = range(0, 100, expected);
+        tree.setTombstoneMode(true);
+        tree.remove(Integer.valueOf(3));
+        expected.remove(3);
+        tree.setTombstoneMode(false);
+        assertEquals(0, tree.getTombstoneCount());
+        tree.remove(Integer.valueOf(4));
+        expected.remove(4);
+        assertEquals(98, tree.getTreeSize());
+        assertSameKeys(expected, tree, "");
+    }
+
+    @Test
+    void compactAsyncInstallsLayoutAndReplaysLateRemovals(){
+        TreeSet<Integer> expected = new TreeSet<>(ORDER);
+        BinarySearchTree<Integer, Integer> tree = range(0, 100, expected);
+        tree.setTombstoneMode(true);
+        for(int key = 0; key < 10; key++){
+            tree.remove(Integer.valueOf(key));
+            expected.remove(key);
+        }
+        List<Runnable> queued = new ArrayList<>();
+        assertTrue(tree.compactAsync(queued::add));
+        assertFalse(tree.compactAsync(queued::add));
+        // removed while the compaction runs, so it must be marked again in the new layout
+        tree.remove(Integer.valueOf(50));
+        expected.remove(50);
+        queued.get(0).run();
+        assertTrue(tree.applyPendingCompaction());
+        assertEquals(1, tree.getTombstoneCount());
+        assertEquals(-1, tree.search(50));
+        assertSameKeys(expected, tree, "");
+    }
+
+    @Test
+    void compactAsyncIsDiscardedAfterConcurrentWrite(){
+        TreeSet<Integer> expected = new TreeSet<>(ORDER);
+        BinarySearchTree<Integer, Integer> tree = range(0, 100, expected);
+        tree.setTombstoneMode(true);
+        for(int key = 0; key < 10; key++){
+            tree.remove(Integer.valueOf(key));
+            expected.remove(key);
+        }
+        List<Runnable> queued = new ArrayList<>();
+        assertTrue(tree.compactAsync(queued::add));
+        // a structural change after the snapshot makes the background layout stale
+        assertTrue(tree.insert(1000));
+        expected.add(1000);
+        queued.get(0).run();
+        assertFalse(tree.applyPendingCompaction());
+        assertEquals(10, tree.getTombstoneCount());
+        assertSameKeys(expected, tree, "");
+        assertTrue(tree.compactAsync(Runnable::run));
+        assertTrue(tree.applyPendingCompaction());
+        assertEquals(0, tree.getTombstoneCount());
+        assertSameKeys(expected, tree, "");
+    }
+
+    /** Joins keys of a range in order, as reference for an order-sensitive augmentation
+     * @param keys Keys in order
+     * @return Each key followed by a comma
+     */
+    static String joined(Iterable<Integer> keys){
+        StringBuilder output = new StringBuilder();
+        for(Integer key : keys)
+            output.append(key).append(',');
+        return output.toString();
+    }
+
+    @Test
+    void aggregatesMatchTreeSetRanges(){
+        Random random = new Random(35);
+        for(int round = 0; round < 8; round++){
+            BinarySearchTree<Integer, Integer> tree = round % 2 == 0 ? new BinarySearchTree<>() : new AVLTree<>();
+            tree.setTombstoneMode(round % 4 >= 2);
+            // string concatenation is not commutative, so this also checks that values combine in key order
+            tree.setAugmentation(new Augmentation<Integer, String>("", key -> key + ",", String::concat));
+            TreeSet<Integer> expected = new TreeSet<>(ORDER);
+            for(int step = 0; step < 400; step++){
+                int key = random.nextInt(200);
+                String message = "round=" + round + " step=" + step;
+                if(random.nextInt(3) == 0)
+                    assertEquals(expected.remove(key), tree.remove(Integer.valueOf(key)), message);
+                else
+                    assertEquals(expected.add(key), tree.insert(key), message);
+                assertEquals(joined(expected), tree.<String>getAugmentedValue(0), message);
+                int from = random.nextInt(200), to = random.nextInt(200);
+                if(ORDER.compare(from, to) > 0){
+                    int swap = from;
+                    from = to;
+                    to = swap;
+                }
+                assertEquals(joined(expected.subSet(from, true, to, true)), tree.<String>aggregate(from, to), message + " from=" + from + " to=" + to);
+            }
+            tree.setAugmentation(Augmentation.count());
+            assertEquals(expected.size(), tree.<Integer>getAugmentedValue(0));
+            assertEquals(expected.subSet(10, true, 50, true).size(), tree.<Integer>aggregate(10, 50));
+            tree.setAugmentation(Augmentation.min(ORDER));
+            assertEquals(expected.isEmpty() ? null : expected.first(), tree.<Integer>getAugmentedValue(0));
+            tree.setAugmentation(Augmentation.sum(Integer::doubleValue));
+            assertEquals(expected.stream().mapToDouble(Integer::doubleValue).sum(), tree.<Double>getAugmentedValue(0));
+            tree.setAugmentation(null);
+            assertNull(tree.aggregate(0, 9));
+            assertNull(tree.getAugmentedValue(0));
+        }
+    }
+
+}
@@ -0,0 +1,316 @@
+package JTreeLib.util;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Checks of <i>BinaryTree</i> against a set of keys and the slot layout it implies
+ */
+class BinaryTreeTest {
+
+    /** Builds a complete tree whose slot <i>i</i> holds key <i>i</i>
+     * @param size Number of slots to fill
+     * @return New <i>BinaryTree</i>
+     */
+    static BinaryTree<Integer, Integer> complete(int size){
+        BinaryTree<Integer, Integer> tree = new BinaryTree<>();
+        for(int i = 0; i < size; i++)
+            tree.setNode(i, new BinaryNode<>(i));
+        return tree;
+    }
+
+    /** Builds a tree of random shape whose slot <i>i</i> holds key <i>i</i>, by attaching each node below a random
+     * existing one
+     * @param random Source of shape
+     * @param size Number of nodes
+     * @return New <i>BinaryTree</i>
+     */
+    static BinaryTree<Integer, Integer> randomShape(Random random, int size){
+        BinaryTree<Integer, Integer> tree = new BinaryTree<>();
+        List<Integer> open = new ArrayList<>(List.of(0));
+        for(int i = 0; i < size; i++){
+            int index = open.remove(random.nextInt(open.size()));
+            tree.setNode(index, new BinaryNode<>(index));
+            open.add(BinaryTree.getLeftChildIndex(index));
+            open.add(BinaryTree.getRightChildIndex(index));
+        }
+        return tree;
+    }
+
+    /** Collects slots of subtree in given order by recursion, as reference for stackless traversals
+     * @param tree Tree to walk
+     * @param order Order of traversal
+     * @param index Index of subtree root
+     * @param output Receives visited indices
+     */
+    static void walk(BinaryTree<?, ?> tree, BinaryTree.TraversalOrder order, int index, List<Integer> output){
+        if(!tree.hasNode(index))
+            return;
+        int left = BinaryTree.getLeftChildIndex(index), right = BinaryTree.getRightChildIndex(index);
+        if(order == BinaryTree.TraversalOrder.PREORDER)
+            output.add(index);
+        walk(tree, order, left, output);
+        if(order == BinaryTree.TraversalOrder.INORDER)
+            output.add(index);
+        walk(tree, order, right, output);
+        if(order == BinaryTree.TraversalOrder.POSTORDER)
+            output.add(index);
+    }
+
+    /** Collects slots of subtree level by level, left to right, as reference for level order
+     * @param tree Tree to walk
+     * @param rootIndex Index of subtree root
+     * @return Visited indices
+     */
+    static List<Integer> levels(BinaryTree<?, ?> tree, int rootIndex){
+        List<Integer> output = new ArrayList<>(), level = new ArrayList<>(List.of(rootIndex));
+        while(!level.isEmpty()){
+            List<Integer> next = new ArrayList<>();
+            for(int index : level)
+                if(tree.hasNode(index)){
+                    output.add(index);
+                    next.add(BinaryTree.getLeftChildIndex(index));
+                    next.add(BinaryTree.getRightChildIndex(index));
+                }
+            level = next;
+        }
+        return output;
+    }
+
+    /** Collects keys of every occupied slot and checks that each one below root hangs from an occupied parent
+     * @param tree Tree to check
+     * @return Keys in tree
+     */
+    static <K> Set<K> keysWithoutOrphans(BinaryTree<?, K> tree){
+        Set<K> output = new HashSet<>();
+        for(int i = 0; i < tree.tree.size(); i++)
+            if(tree.hasNode(i)){
+                assertTrue(i == 0 || tree.hasNode(BinaryTree.getParentIndex(i)), "orphan at slot " + i);
+                output.add(tree.getKey(i));
+            }
+        return output;
+    }
+
+    @Test
+    void traversalsMatchRecursiveWalk(){
+        Random random = new Random(26);
+        for(int round = 0; round < 200; round++){
+            BinaryTree<Integer, Integer> tree = randomShape(random, 1 + random.nextInt(60));
+            List<Integer> occupied = new ArrayList<>(keysWithoutOrphans(tree));
+            int root = round % 2 == 0 ? 0 : occupied.get(random.nextInt(occupied.size()));
+            for(BinaryTree.TraversalOrder order : BinaryTree.TraversalOrder.values()){
+                List<Integer> expected = new ArrayList<>();
+                if(order == BinaryTree.TraversalOrder.LEVEL_ORDER)
+                    expected = levels(tree, root);
+                else
+                    walk(tree, order, root, expected);
+                List<Integer> visited = new ArrayList<>();
+                assertTrue(tree.traverse(order, root, visited::add));
+                assertEquals(expected, visited, order + " round=" + round);
+                if(root == 0){
+                    List<Integer> keys = new ArrayList<>(), longs = new ArrayList<>(), doubles = new ArrayList<>();
+                    tree.forEach(order, keys::add);
+                    tree.forEachAsLong(order, Integer::longValue, key -> longs.add((int)key));
+                    tree.forEachAsDouble(order, Integer::doubleValue, key -> doubles.add((int)key));
+                    assertEquals(expected, keys, order + " round=" + round);
+                    assertEquals(expected, longs, order + " round=" + round);
+                    assertEquals(expected, doubles, order + " round=" + round);
+                }
+                // stopping after k visits leaves exactly the first k of them
+                int k = random.nextInt(expected.size());
+                List<Integer> prefix = new ArrayList<>();
+                assertFalse(tree.traverse(order, root, index -> prefix.add(index) && prefix.size() <= k));
+                assertEquals(expected.subList(0, k + 1), prefix, order + " round=" + round);
+            }
+        }
+    }
+
+    @Test
+    void traversalsOfEmptyOrInvalidInput(){
+        BinaryTree<Integer, Integer> tree = complete(3);
+        List<Integer> visited = new ArrayList<>();
+        assertTrue(tree.traverse(BinaryTree.TraversalOrder.INORDER, 7, visited::add));
+        assertTrue(visited.isEmpty());
+        assertFalse(tree.traverse(null, visited::add));
+        assertFalse(tree.traverse(BinaryTree.TraversalOrder.INORDER, null));
+        assertTrue(new BinaryTree<Integer, Integer>().traverse(BinaryTree.TraversalOrder.POSTORDER, visited::add));
+        assertFalse(tree.forEachWhile(BinaryTree.TraversalOrder.PREORDER, key -> key != 1));
+    }
+
+    /** Concatenates two lists, a non-commutative combiner that exposes the order partial results are merged in
+     * @param a First list
+     * @param b Second list
+     * @return New list holding <i>a</i> then <i>b</i>
+     */
+    static <T> List<T> concat(List<T> a, List<T> b){
+        List<T> output = new ArrayList<>(a);
+        output.addAll(b);
+        return output;
+    }
+
+    @Test
+    void parallelReduceAndForEachMatchPreorder(){
+        Random random = new Random(27);
+        List<BinaryTree<Integer, Integer>> trees = new ArrayList<>();
+        for(int size : new int[]{1, 2, 7, 100, 5000, 3 * Tree.DEFAULT_PARALLEL_THRESHOLD})
+            trees.add(complete(size));
+        for(int round = 0; round < 20; round++)
+            trees.add(randomShape(random, 1 + random.nextInt(60)));
+        for(BinaryTree<Integer, Integer> tree : trees)
+            for(int threshold : new int[]{1, 3, 64, Tree.DEFAULT_PARALLEL_THRESHOLD}){
+                List<Integer> expected = new ArrayList<>();
+                walk(tree, BinaryTree.TraversalOrder.PREORDER, 0, expected);
+                String message = "size=" + expected.size() + " threshold=" + threshold;
+                assertEquals(expected, tree.reduce(List.<Integer>of(), List::of, BinaryTreeTest::concat, threshold), message);
+                long sum = 0;
+                for(int key : expected)
+                    sum += key;
+                assertEquals(sum, (long)tree.reduce(0L, Integer::longValue, Long::sum, threshold), message);
+                ConcurrentLinkedQueue<Integer> visited = new ConcurrentLinkedQueue<>();
+                tree.forEachParallel(visited::add, threshold);
+                List<Integer> sorted = new ArrayList<>(visited);
+                Collections.sort(sorted);
+                Collections.sort(expected);
+                assertEquals(expected, sorted, message);
+            }
+    }
+
+    @Test
+    void parallelReduceOfEmptyTreeOrNullArgumentsIsIdentity(){
+        BinaryTree<Integer, Integer> empty = new BinaryTree<>();
+        assertEquals(5, empty.reduce(5, key -> key, Integer::sum));
+        empty.forEachParallel(key -> { throw new AssertionError(); });
+        BinaryTree<Integer, Integer> tree = complete(10);
+        assertEquals(5, tree.reduce(5, null, Integer::sum));
+        assertEquals(5, tree.reduce(5, key -> key, null));
+        assertEquals(45, tree.reduce(0, key -> key, Integer::sum, -1));
+        tree.forEachParallel(null);
+    }
+
+    /** Counts levels of subtree by recursion, as reference for maintained heights
+     * @param tree Tree to measure
+     * @param index Index of subtree root
+     * @return Number of <i>BinaryNode</i> on longest path down from <i>index</i>, or 0 if slot is empty
+     */
+    static int depth(BinaryTree<?, ?> tree, int index){
+        if(!tree.hasNode(index))
+            return 0;
+        return 1 + Math.max(depth(tree, BinaryTree.getLeftChildIndex(index)), depth(tree, BinaryTree.getRightChildIndex(index)));
+    }
+
+    /** Checks maintained heights of every slot and fullness of every level against recomputed values
+     * @param tree Tree to check
+     * @param message Context of failure
+     */
+    static void assertHeightsMatch(BinaryTree<?, ?> tree, String message){
+        int size = tree.tree == null ? 0 : tree.tree.size();
+        for(int index = 0; index <= size; index++){
+            assertEquals(depth(tree, index), tree.countLevels(index), message + " index=" + index);
+            assertEquals(Math.max(depth(tree, index) - 1, 0), tree.getHeight(index), message + " index=" + index);
+        }
+        for(int level = 1, start = 0; level <= 10; start += 1 << (level - 1), level++){
+            boolean full = true;
+            for(int index = start; index < start + (1 << (level - 1)); index++)
+                full &= tree.hasNode(index);
+            assertEquals(full, tree.isFullLevel(level), message + " level=" + level);
+        }
+    }
+
+    @Test
+    void heightsAndLevelCountsFollowEveryMutator(){
+        Random random = new Random(34);
+        for(int round = 0; round < 20; round++){
+            BinaryTree<Integer, Integer> tree = randomShape(random, 1 + random.nextInt(60));
+            assertHeightsMatch(tree, "round=" + round);
+            for(int step = 0; step < 60; step++){
+                int index = random.nextInt(Math.max(tree.tree.size(), 1));
+                String message = "round=" + round + " step=" + step;
+                switch(random.nextInt(4)){
+                    case 0:
+                        tree.remove(Integer.valueOf(random.nextInt(tree.tree.size())));
+                        break;
+                    case 1:
+                        if(tree.hasNode(index) && index > 0)
+                            tree.removeSubtree(index);
+                        break;
+                    case 2:
+                        if(tree.hasNode(index) && index > 0 && index < 63)
+                            tree.insertSubtree(index, complete(1 + random.nextInt(7)));
+                        break;
+                    default:
+                        if(index == 0 || tree.hasNode(BinaryTree.getParentIndex(index)))
+                            tree.setNode(index, new BinaryNode<>(index));
+                }
+                assertHeightsMatch(tree, message);
+                if(!tree.hasNode(0))
+                    tree.setNode(0, new BinaryNode<>(0));
+            }
+            assertHeightsMatch(new BinaryTree<>(tree), "copy round=" + round);
+        }
+    }
+
+    @Test
+    void avlBalanceFactorsMatchRecomputedHeights(){
+        Random random = new Random(35);
+        AVLTree<Integer, Integer> tree = new AVLTree<>();
+        for(int step = 0; step < 200; step++){
+            int key = random.nextInt(100);
+            if(random.nextInt(3) == 0)
+                tree.remove(Integer.valueOf(key));
+            else
+                tree.insert(key);
+            assertHeightsMatch(tree, "step=" + step);
+            boolean balanced = true;
+            for(int index = 0; index < tree.tree.size(); index++){
+                int factor = tree.hasNode(index) ? depth(tree, BinaryTree.getRightChildIndex(index)) - depth(tree, BinaryTree.getLeftChildIndex(index)) : 0;
+                assertEquals(factor, tree.getBalanceFactor(index), "step=" + step + " index=" + index);
+                balanced &= Math.abs(factor) <= 1;
+            }
+            assertEquals(balanced, tree.isBalanced(), "step=" + step);
+        }
+    }
+
+    @Test
+    void removeLeafEmptiesItsSlot(){
+        BinaryTree<Integer, Integer> tree = complete(7);
+        assertTrue(tree.remove(Integer.valueOf(5)));
+        assertFalse(tree.hasNode(5));
+        assertEquals(6, keysWithoutOrphans(tree).size());
+    }
+
+    @Test
+    void removeInnerNodeMovesLastNodeIntoItsSlot(){
+        BinaryTree<Integer, Integer> tree = complete(7);
+        assertTrue(tree.remove(Integer.valueOf(1)));
+        assertEquals(6, tree.getKey(1));
+        assertFalse(tree.hasNode(6));
+        assertEquals(3, tree.getKey(3));
+        assertEquals(4, tree.getKey(4));
+        assertEquals(Set.of(0, 2, 3, 4, 5, 6), keysWithoutOrphans(tree));
+        assertFalse(tree.remove(Integer.valueOf(1)));
+    }
+
+    @Test
+    void randomRemovalsNeverOrphanSlots(){
+        Random random = new Random(21);
+        for(int n = 1; n <= 40; n++){
+            BinaryTree<Integer, Integer> tree = complete(n);
+            Set<Integer> expected = new HashSet<>();
+            for(int i = 0; i < n; i++)
+                expected.add(i);
+            while(!expected.isEmpty()){
+                int key = random.nextInt(n);
+                assertEquals(expected.remove(key), tree.remove(Integer.valueOf(key)), "n=" + n + " key=" + key);
+                assertEquals(expected, keysWithoutOrphans(tree), "n=" + n + " key=" + key);
+            }
+        }
+    }
+
+}
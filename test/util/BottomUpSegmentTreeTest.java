@@ -0,0 +1,91 @@
+package JTreeLib.util;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Randomized checks of <i>BottomUpSegmentTree</i> against a plain array
+ */
+class BottomUpSegmentTreeTest {
+
+    @Test
+    void updatesAndAddsMatchArray(){
+        Random random = new Random(9);
+        for(int n = 1; n <= 130; n++){
+            double[] arr = new double[n];
+            for(int i = 0; i < n; i++)
+                arr[i] = random.nextInt(100);
+            BottomUpSegmentTree tree = new BottomUpSegmentTree(arr.clone());
+            for(int q = 0; q < 300; q++){
+                int x = random.nextInt(n), y = random.nextInt(n), low = Math.min(x, y), high = Math.max(x, y);
+                double value = random.nextInt(100) - 50;
+                if(random.nextBoolean()){
+                    tree.update(x, value);
+                    arr[x] = value;
+                } else {
+                    tree.add(x, value);
+                    arr[x] += value;
+                }
+                assertEquals(FlatSegmentTreeTest.sum(arr, low, high), tree.sum(low, high), "n=" + n + " q=" + q);
+                assertEquals(arr[x], tree.get(x), "n=" + n + " q=" + q);
+            }
+            assertEquals(-1, tree.sum(0, n));
+            assertEquals(-1, tree.sum(1, 0));
+            assertFalse(tree.update(n, 0));
+        }
+    }
+
+    @Test
+    void updateBatchMatchesArray(){
+        Random random = new Random(11);
+        int threshold = Tree.DEFAULT_PARALLEL_THRESHOLD;
+        int[] sizes = {1, 2, 3, 5, 64, 127, 128, 129, 1000, threshold + 1, 4 * threshold + 3, 70000, 300000};
+        for(int n : sizes){
+            double[] arr = new double[n];
+            for(int i = 0; i < n; i++)
+                arr[i] = random.nextInt(100);
+            BottomUpSegmentTree tree = new BottomUpSegmentTree(arr.clone());
+            for(int q = 0; q < 30; q++){
+                // dense, sparse and tiny batches, so both recompute paths run on levels above the threshold
+                int k = q % 3 == 0 ? n : q % 3 == 1 ? 1 + random.nextInt(Math.max(1, n / 50)) : 1 + random.nextInt(10);
+                int[] indices = new int[k];
+                double[] values = new double[k];
+                for(int j = 0; j < k; j++){
+                    indices[j] = random.nextInt(n);
+                    values[j] = random.nextInt(100);
+                    arr[indices[j]] = values[j];
+                }
+                assertTrue(tree.updateBatch(indices, values), "n=" + n + " q=" + q);
+                double[] prefix = new double[n + 1];
+                for(int i = 0; i < n; i++)
+                    prefix[i + 1] = prefix[i] + arr[i];
+                for(int c = 0; c < 50; c++){
+                    int x = random.nextInt(n), y = random.nextInt(n), low = Math.min(x, y), high = Math.max(x, y);
+                    assertEquals(prefix[high + 1] - prefix[low], tree.sum(low, high), "n=" + n + " q=" + q);
+                }
+                assertEquals(prefix[n], tree.sum(0, n - 1), "n=" + n + " q=" + q);
+            }
+        }
+    }
+
+    @Test
+    void updateBatchRejectsBadInputWithoutWriting(){
+        BottomUpSegmentTree tree = new BottomUpSegmentTree(new double[]{1, 2, 3});
+        assertFalse(tree.updateBatch(new int[]{0, 3}, new double[]{5, 5}));
+        assertFalse(tree.updateBatch(new int[]{0}, new double[]{5, 5}));
+        assertFalse(tree.updateBatch(null, new double[0]));
+        assertEquals(1, tree.get(0));
+        assertTrue(tree.updateBatch(new int[]{2, 2}, new double[]{7, 9}));
+        assertEquals(12, tree.sum(0, 2));
+    }
+
+    @Test
+    void emptyTreeRejectsEverything(){
+        BottomUpSegmentTree tree = new BottomUpSegmentTree(new double[0]);
+        assertEquals(0, tree.size());
+        assertEquals(-1, tree.sum(0, 0));
+        assertFalse(tree.add(0, 1));
+    }
+
+}
@@ -0,0 +1,230 @@
+package JTreeLib.util;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Randomized checks of <i>DaryHeap</i>, <i>BinaryHeap</i>, <i>LongDaryHeap</i> and <i>DoubleDaryHeap</i> against a
+ * <i>PriorityQueue</i> and a map from handle to key
+ */
+class DaryHeapTest {
+
+    /** Common view of the heaps under test, with keys as longs
+     */
+    interface Heap {
+        int offer(long key);
+        int poll();
+        long peekKey();
+        long getKey(int handle);
+        boolean contains(int handle);
+        boolean decreaseKey(int handle, long key);
+        boolean update(int handle, long key);
+        boolean remove(int handle);
+        int size();
+        void clear();
+    }
+
+    /** Views a <i>DaryHeap</i> of boxed keys as a <i>Heap</i>
+     * @param heap Heap to view
+     * @return View
+     */
+    static Heap view(DaryHeap<Long> heap){
+        return new Heap(){
+            public int offer(long key){ return heap.offer(key); }
+            public int poll(){
+                int handle = heap.peekHandle();
+                heap.poll();
+                return handle;
+            }
+            public long peekKey(){ return heap.isEmpty() ? Long.MAX_VALUE : heap.peek(); }
+            public long getKey(int handle){ return heap.contains(handle) ? heap.get(handle) : Long.MAX_VALUE; }
+            public boolean contains(int handle){ return heap.contains(handle); }
+            public boolean decreaseKey(int handle, long key){ return heap.decreaseKey(handle, key); }
+            public boolean update(int handle, long key){ return heap.update(handle, key); }
+            public boolean remove(int handle){ return heap.remove(handle) != null; }
+            public int size(){ return heap.size(); }
+            public void clear(){ heap.clear(); }
+        };
+    }
+
+    /** Views a <i>LongDaryHeap</i> as a <i>Heap</i>
+     * @param heap Heap to view
+     * @return View
+     */
+    static Heap view(LongDaryHeap heap){
+        return new Heap(){
+            public int offer(long key){ return heap.offer(key); }
+            public int poll(){ return heap.poll(); }
+            public long peekKey(){ return heap.peekKey(); }
+            public long getKey(int handle){ return heap.getKey(handle); }
+            public boolean contains(int handle){ return heap.contains(handle); }
+            public boolean decreaseKey(int handle, long key){ return heap.decreaseKey(handle, key); }
+            public boolean update(int handle, long key){ return heap.update(handle, key); }
+            public boolean remove(int handle){ return heap.remove(handle); }
+            public int size(){ return heap.size(); }
+            public void clear(){ heap.clear(); }
+        };
+    }
+
+    /** Views a <i>DoubleDaryHeap</i> as a <i>Heap</i>; test keys are small enough to be exact as doubles
+     * @param heap Heap to view
+     * @return View
+     */
+    static Heap view(DoubleDaryHeap heap){
+        return new Heap(){
+            public int offer(long key){ return heap.offer(key); }
+            public int poll(){ return heap.poll(); }
+            public long peekKey(){ return heap.isEmpty() ? Long.MAX_VALUE : (long)heap.peekKey(); }
+            public long getKey(int handle){ return heap.contains(handle) ? (long)heap.getKey(handle) : Long.MAX_VALUE; }
+            public boolean contains(int handle){ return heap.contains(handle); }
+            public boolean decreaseKey(int handle, long key){ return heap.decreaseKey(handle, key); }
+            public boolean update(int handle, long key){ return heap.update(handle, key); }
+            public boolean remove(int handle){ return heap.remove(handle); }
+            public int size(){ return heap.size(); }
+            public void clear(){ heap.clear(); }
+        };
+    }
+
+    /** Builds every heap under test for one arity, empty or from <i>keys</i>
+     * @param arity Number of children per slot
+     * @param keys Initial keys, or null for empty heaps
+     * @return Named views
+     */
+    static Map<String, Heap> heaps(int arity, long[] keys){
+        Map<String, Heap> output = new HashMap<>();
+        Long[] boxed = keys == null ? null : new Long[keys.length];
+        double[] wide = keys == null ? null : new double[keys.length];
+        for(int i = 0; keys != null && i < keys.length; i++){
+            boxed[i] = keys[i];
+            wide[i] = keys[i];
+        }
+        output.put("DaryHeap", view(keys == null ? new DaryHeap<>(arity, null) : new DaryHeap<>(arity, null, boxed)));
+        output.put("DaryHeap(comparator)", view(keys == null ? new DaryHeap<>(arity, Comparator.naturalOrder())
+                : new DaryHeap<>(arity, Comparator.naturalOrder(), boxed)));
+        output.put("LongDaryHeap", view(keys == null ? new LongDaryHeap(arity) : new LongDaryHeap(arity, keys)));
+        output.put("DoubleDaryHeap", view(keys == null ? new DoubleDaryHeap(arity) : new DoubleDaryHeap(arity, wide)));
+        if(arity == 2)
+            output.put("BinaryHeap", view(keys == null ? new BinaryHeap<>() : new BinaryHeap<>(null, boxed)));
+        return output;
+    }
+
+    @Test
+    void randomOperationsMatchPriorityQueue(){
+        Random random = new Random(38);
+        for(int arity : new int[]{2, 3, 4, 8}){
+            for(boolean built : new boolean[]{false, true}){
+                long[] initial = new long[built ? 300 : 0];
+                for(int i = 0; i < initial.length; i++)
+                    initial[i] = random.nextInt(1000);
+                for(Map.Entry<String, Heap> entry : heaps(arity, built ? initial : null).entrySet()){
+                    Random steps = new Random(arity * 2 + (built ? 1 : 0));
+                    Heap heap = entry.getValue();
+                    PriorityQueue<Long> expected = new PriorityQueue<>();
+                    Map<Integer, Long> byHandle = new HashMap<>();
+                    for(int i = 0; i < initial.length; i++){
+                        expected.add(initial[i]);
+                        byHandle.put(i, initial[i]);
+                    }
+                    int mostHeld = byHandle.size();
+                    for(int step = 0; step < 5000; step++){
+                        String message = entry.getKey() + " arity=" + arity + " built=" + built + " step=" + step;
+                        List<Integer> live = new ArrayList<>(byHandle.keySet());
+                        int handle = live.isEmpty() ? steps.nextInt(10) : live.get(steps.nextInt(live.size()));
+                        long key = steps.nextInt(1000);
+                        switch(steps.nextInt(6)){
+                            case 0:
+                            case 1:
+                                int offered = heap.offer(key);
+                                assertFalse(byHandle.containsKey(offered), message);
+                                byHandle.put(offered, key);
+                                expected.add(key);
+                                mostHeld = Math.max(mostHeld, byHandle.size());
+                                // freed handles are given out again first, so handles never pass the most keys held
+                                assertTrue(offered < mostHeld, message);
+                                break;
+                            case 2:
+                                int polled = heap.poll();
+                                if(expected.isEmpty())
+                                    assertEquals(-1, polled, message);
+                                else
+                                    assertEquals(expected.poll(), byHandle.remove(polled), message);
+                                break;
+                            case 3:
+                                Long removed = byHandle.remove(handle);
+                                assertEquals(removed != null, heap.remove(handle), message);
+                                if(removed != null)
+                                    expected.remove(removed);
+                                break;
+                            case 4:
+                                Long current = byHandle.get(handle);
+                                boolean lowers = current != null && key <= current;
+                                assertEquals(lowers, heap.decreaseKey(handle, key), message);
+                                if(lowers){
+                                    expected.remove(current);
+                                    expected.add(key);
+                                    byHandle.put(handle, key);
+                                }
+                                break;
+                            default:
+                                Long old = byHandle.get(handle);
+                                assertEquals(old != null, heap.update(handle, key), message);
+                                if(old != null){
+                                    expected.remove(old);
+                                    expected.add(key);
+                                    byHandle.put(handle, key);
+                                }
+                        }
+                        assertEquals(expected.size(), heap.size(), message);
+                        assertEquals(expected.isEmpty() ? Long.MAX_VALUE : expected.peek(), heap.peekKey(), message);
+                        assertEquals(byHandle.containsKey(handle), heap.contains(handle), message);
+                        assertEquals(byHandle.getOrDefault(handle, Long.MAX_VALUE), heap.getKey(handle), message);
+                    }
+                    heap.clear();
+                    assertEquals(0, heap.size());
+                    assertFalse(heap.contains(0));
+                    assertEquals(0, heap.offer(5));
+                }
+            }
+        }
+    }
+
+    @Test
+    void pollNReturnsSmallestInOrder(){
+        Random random = new Random(39);
+        long[] keys = new long[200];
+        for(int i = 0; i < keys.length; i++)
+            keys[i] = random.nextInt(100);
+        long[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        Long[] boxed = new Long[keys.length];
+        for(int i = 0; i < keys.length; i++)
+            boxed[i] = keys[i];
+        DaryHeap<Long> heap = new DaryHeap<>(4, null, boxed);
+        List<Long> polled = new ArrayList<>();
+        assertEquals(50, heap.pollN(50, polled));
+        assertEquals(0, heap.pollN(5, null));
+        LongDaryHeap longHeap = new LongDaryHeap(4, keys);
+        int[] handles = new int[50];
+        assertEquals(50, longHeap.pollN(80, handles));
+        for(int i = 0; i < 50; i++){
+            assertEquals(sorted[i], polled.get(i), "i=" + i);
+            assertEquals(sorted[i], keys[handles[i]], "i=" + i);
+        }
+        assertEquals(150, heap.pollN(1000, polled));
+        assertNull(heap.poll());
+        assertNull(heap.peek());
+        assertEquals(-1, heap.peekHandle());
+        assertEquals(-1, heap.offer(null));
+        assertFalse(heap.decreaseKey(0, null));
+    }
+
+}
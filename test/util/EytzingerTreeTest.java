@@ -0,0 +1,76 @@
+package JTreeLib.util;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Randomized checks of <i>EytzingerTree</i> against binary search over a sorted array
+ */
+class EytzingerTreeTest {
+
+    @Test
+    void boundsAndSearchMatchSortedArray(){
+        Random random = new Random(29);
+        for(int n : VanEmdeBoasTreeTest.SIZES){
+            long[] keys = VanEmdeBoasTreeTest.randomKeys(random, n, 2 * n + 1), sorted = keys.clone();
+            Arrays.sort(sorted);
+            EytzingerTree tree = new EytzingerTree(keys);
+            assertEquals(n, tree.size());
+            for(int rank = 0; rank < n; rank++)
+                assertEquals(sorted[rank], tree.get(rank), "n=" + n + " rank=" + rank);
+            for(int q = 0; q < 200; q++){
+                long key = q < 2 ? (q == 0 ? Long.MAX_VALUE : Long.MIN_VALUE) : random.nextInt(4 * n + 4) - 2 * n - 2;
+                int lower = VanEmdeBoasTreeTest.bound(sorted, key, false);
+                String message = "n=" + n + " key=" + key;
+                assertEquals(lower, tree.lowerBound(key), message);
+                assertEquals(VanEmdeBoasTreeTest.bound(sorted, key, true), tree.upperBound(key), message);
+                boolean present = lower < n && sorted[lower] == key;
+                assertEquals(present ? lower : -1, tree.search(key), message);
+                assertEquals(present, tree.contains(key), message);
+            }
+            assertEquals(Long.MIN_VALUE, tree.get(n));
+        }
+    }
+
+    @Test
+    void batchedLowerBoundsMatchSingleLookups(){
+        Random random = new Random(31);
+        for(int n : VanEmdeBoasTreeTest.SIZES){
+            EytzingerTree tree = new EytzingerTree(VanEmdeBoasTreeTest.randomKeys(random, n, n + 1));
+            for(int size : new int[]{0, 1, EytzingerTree.BATCH_GROUP_SIZE - 1, EytzingerTree.BATCH_GROUP_SIZE + 1, 500}){
+                long[] keys = VanEmdeBoasTreeTest.randomKeys(random, size, n + 3), ascending = keys.clone();
+                Arrays.sort(ascending);
+                int[] ranks = new int[size], sortedRanks = new int[size], ascendingRanks = new int[size];
+                assertTrue(tree.lowerBoundBatch(keys, ranks));
+                assertTrue(tree.lowerBoundBatchSorted(keys, sortedRanks));
+                assertTrue(tree.lowerBoundAscending(ascending, ascendingRanks));
+                for(int i = 0; i < size; i++){
+                    String message = "n=" + n + " size=" + size + " i=" + i;
+                    assertEquals(tree.lowerBound(keys[i]), ranks[i], message);
+                    assertEquals(tree.lowerBound(keys[i]), sortedRanks[i], message);
+                    assertEquals(tree.lowerBound(ascending[i]), ascendingRanks[i], message);
+                }
+            }
+        }
+        EytzingerTree tree = new EytzingerTree(new long[]{1, 2, 3});
+        assertFalse(tree.lowerBoundBatch(null, new int[0]));
+        assertFalse(tree.lowerBoundBatchSorted(new long[2], new int[1]));
+        assertFalse(tree.lowerBoundAscending(new long[1], null));
+    }
+
+    @Test
+    void buildsFromBinaryTreeKeys(){
+        BinarySearchTree<Integer, Integer> source = new BinarySearchTree<>();
+        for(int key = 0; key < 100; key += 3)
+            source.insert(key);
+        EytzingerTree tree = EytzingerTree.of(source, Integer::longValue);
+        assertEquals(source.getTreeSize(), tree.size());
+        assertTrue(tree.contains(99));
+        assertFalse(tree.contains(98));
+        assertEquals(0, EytzingerTree.of(null, Integer::longValue).size());
+        assertEquals(0, new EytzingerTree(null).upperBound(5));
+    }
+
+}
@@ -0,0 +1,96 @@
+package JTreeLib.util;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/** Randomized checks of <i>FenwickTree</i>, <i>LongFenwickTree</i> and <i>FenwickTree2D</i> against plain arrays
+ */
+class FenwickTreeTest {
+
+    @Test
+    void sumsAndLowerBoundMatchArray(){
+        Random random = new Random(17);
+        for(int n = 1; n <= 70; n++){
+            long[] arr = new long[n];
+            double[] values = new double[n];
+            for(int i = 0; i < n; i++)
+                values[i] = arr[i] = random.nextInt(10);
+            FenwickTree tree = new FenwickTree(values);
+            LongFenwickTree longTree = new LongFenwickTree(arr.clone());
+            for(int q = 0; q < 200; q++){
+                int x = random.nextInt(n), y = random.nextInt(n), low = Math.min(x, y), high = Math.max(x, y);
+                long value = random.nextInt(10);
+                if(random.nextBoolean()){
+                    tree.set(x, value);
+                    longTree.set(x, value);
+                    arr[x] = value;
+                } else {
+                    tree.add(x, value);
+                    longTree.add(x, value);
+                    arr[x] += value;
+                }
+                long[] prefix = new long[n + 1];
+                for(int i = 0; i < n; i++)
+                    prefix[i + 1] = prefix[i] + arr[i];
+                String message = "n=" + n + " q=" + q;
+                assertEquals(prefix[high + 1] - prefix[low], tree.rangeSum(low, high), message);
+                assertEquals(prefix[high + 1] - prefix[low], longTree.rangeSum(low, high), message);
+                assertEquals(prefix[x + 1], tree.prefixSum(x), message);
+                assertEquals(arr[x], tree.get(x), message);
+                assertEquals(arr[x], longTree.get(x), message);
+                // targets run past the total so that size() is also expected
+                long target = random.nextInt((int)prefix[n] + 2);
+                int expected = n;
+                for(int i = 0; i < n; i++)
+                    if(prefix[i + 1] >= target){
+                        expected = i;
+                        break;
+                    }
+                assertEquals(expected, tree.lowerBound(target), message + " target=" + target);
+                assertEquals(expected, longTree.lowerBound(target), message + " target=" + target);
+            }
+            assertEquals(-1, tree.rangeSum(0, n));
+            assertFalse(tree.add(n, 1));
+        }
+    }
+
+    @Test
+    void lowerBoundSkipsZeroWeights(){
+        FenwickTree tree = new FenwickTree(new double[]{0, 3, 0, 0, 2, 0});
+        assertEquals(0, tree.lowerBound(0));
+        assertEquals(1, tree.lowerBound(0.5));
+        assertEquals(1, tree.lowerBound(3));
+        assertEquals(4, tree.lowerBound(3.5));
+        assertEquals(4, tree.lowerBound(5));
+        assertEquals(6, tree.lowerBound(5.5));
+        assertEquals(0, new FenwickTree(0).lowerBound(1));
+    }
+
+    @Test
+    void rectangleSumsMatchGrid(){
+        Random random = new Random(19);
+        for(int rows = 1; rows <= 9; rows++)
+            for(int columns = 1; columns <= 9; columns++){
+                double[][] grid = new double[rows][columns];
+                for(double[] row : grid)
+                    for(int j = 0; j < columns; j++)
+                        row[j] = random.nextInt(10);
+                FenwickTree2D tree = new FenwickTree2D(grid);
+                for(int q = 0; q < 100; q++){
+                    int i = random.nextInt(rows), j = random.nextInt(columns);
+                    grid[i][j] = random.nextInt(10);
+                    tree.set(i, j, grid[i][j]);
+                    int r1 = random.nextInt(rows), r2 = random.nextInt(rows), c1 = random.nextInt(columns), c2 = random.nextInt(columns);
+                    int startRow = Math.min(r1, r2), endRow = Math.max(r1, r2), startColumn = Math.min(c1, c2), endColumn = Math.max(c1, c2);
+                    double expected = 0;
+                    for(int x = startRow; x <= endRow; x++)
+                        for(int y = startColumn; y <= endColumn; y++)
+                            expected += grid[x][y];
+                    assertEquals(expected, tree.rangeSum(startRow, startColumn, endRow, endColumn), rows + "x" + columns + " q=" + q);
+                }
+                assertEquals(-1, tree.rangeSum(0, 0, rows, 0));
+            }
+    }
+
+}
@@ -0,0 +1,117 @@
+package JTreeLib.util;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Randomized checks of <i>FlatSegmentTree</i> against <i>SegmentTree</i> and a plain array
+ */
+class FlatSegmentTreeTest {
+
+    /** Sums a sub-array directly
+     * @param arr Array to sum
+     * @param startIndex Index of first element
+     * @param endIndex Index of last element
+     * @return Sum of <i>arr[startIndex..endIndex]</i>
+     */
+    static double sum(double[] arr, int startIndex, int endIndex){
+        double output = 0;
+        for(int i = startIndex; i <= endIndex; i++)
+            output += arr[i];
+        return output;
+    }
+
+    @Test
+    void matchesSegmentTreeNodeForNode(){
+        Random random = new Random(3);
+        for(int n = 1; n <= 70; n++){
+            double[] arr = new double[n];
+            for(int i = 0; i < n; i++)
+                arr[i] = random.nextInt(100);
+            SegmentTree expected = new SegmentTree(arr.clone());
+            FlatSegmentTree tree = new FlatSegmentTree(arr.clone());
+            for(int node = 0; node < 4 * n + 4; node++){
+                assertEquals(expected.hasNode(node), tree.hasNode(node), "n=" + n + " node=" + node);
+                assertEquals(expected.getLeftBound(node), tree.getLeftBound(node), "n=" + n + " node=" + node);
+                assertEquals(expected.getRightBound(node), tree.getRightBound(node), "n=" + n + " node=" + node);
+                if(expected.hasNode(node))
+                    assertEquals(expected.getKey(node).doubleValue(), tree.getKey(node), "n=" + n + " node=" + node);
+            }
+        }
+    }
+
+    @Test
+    void pointUpdatesMatchArray(){
+        Random random = new Random(4);
+        for(int n = 1; n <= 70; n++){
+            double[] arr = new double[n];
+            for(int i = 0; i < n; i++)
+                arr[i] = random.nextInt(100);
+            FlatSegmentTree tree = new FlatSegmentTree(arr.clone());
+            for(int q = 0; q < 200; q++){
+                int x = random.nextInt(n), y = random.nextInt(n), low = Math.min(x, y), high = Math.max(x, y);
+                if(random.nextBoolean()){
+                    arr[x] = random.nextInt(100);
+                    tree.update(x, arr[x]);
+                }
+                assertEquals(sum(arr, low, high), tree.sum(low, high), "n=" + n + " q=" + q);
+                assertEquals(arr[x], tree.get(x), "n=" + n + " q=" + q);
+            }
+            assertEquals(-1, tree.sum(0, n));
+            assertEquals(-1, tree.sum(1, 0));
+        }
+    }
+
+    @Test
+    void lazyRangeUpdatesMatchArray(){
+        Random random = new Random(5);
+        for(int n = 1; n <= 90; n++){
+            double[] arr = new double[n];
+            for(int i = 0; i < n; i++)
+                arr[i] = random.nextInt(100);
+            FlatSegmentTree tree = new FlatSegmentTree(arr.clone());
+            for(int q = 0; q < 400; q++){
+                int x = random.nextInt(n), y = random.nextInt(n), low = Math.min(x, y), high = Math.max(x, y);
+                double value = random.nextInt(50) - 25;
+                switch(random.nextInt(4)){
+                    case 0:
+                        tree.rangeAdd(low, high, value);
+                        for(int i = low; i <= high; i++)
+                            arr[i] += value;
+                        break;
+                    case 1:
+                        tree.rangeAssign(low, high, value);
+                        for(int i = low; i <= high; i++)
+                            arr[i] = value;
+                        break;
+                    case 2:
+                        tree.update(x, value);
+                        arr[x] = value;
+                        break;
+                    default:
+                        break;
+                }
+                assertEquals(sum(arr, low, high), tree.sum(low, high), "n=" + n + " q=" + q);
+                assertEquals(arr[x], tree.get(x), "n=" + n + " q=" + q);
+                int node = random.nextInt(4 * n);
+                if(tree.hasNode(node)){
+                    double expected = sum(arr, tree.getLeftBound(node), tree.getRightBound(node));
+                    assertEquals(expected, tree.getKey(node), "n=" + n + " node=" + node);
+                    assertEquals(expected, tree.sum(node, tree.getLeftBound(node), tree.getRightBound(node)), "n=" + n + " node=" + node);
+                }
+            }
+        }
+    }
+
+    @Test
+    void assignThenAddComposes(){
+        FlatSegmentTree tree = new FlatSegmentTree(new double[]{1, 2, 3, 4, 5, 6, 7});
+        tree.rangeAssign(1, 5, 10);
+        tree.rangeAdd(3, 6, 2);
+        tree.rangeAdd(0, 2, -1);
+        double[] expected = {0, 9, 9, 12, 12, 12, 9};
+        for(int i = 0; i < expected.length; i++)
+            assertEquals(expected[i], tree.get(i), "index " + i);
+        assertEquals(63, tree.sum(0, 6));
+    }
+
+}
@@ -0,0 +1,95 @@
+package JTreeLib.util;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Checks of <i>Footprint</i> arithmetic against sizes worked out by hand for 64-bit HotSpot with compressed references
+ */
+class FootprintTest {
+
+    @Test
+    void objectAndArraySizes(){
+        assertEquals(0, Footprint.align(0));
+        assertEquals(8, Footprint.align(1));
+        assertEquals(8, Footprint.align(8));
+        assertEquals(16, Footprint.align(13));
+        // bare header, Integer, and Long whose value has to skip the 4 bytes after the header
+        assertEquals(16, Footprint.objectSize(0, 0, 0, 0));
+        assertEquals(16, Footprint.objectSize(0, 1, 0, 0));
+        assertEquals(24, Footprint.objectSize(0, 0, 1, 0));
+        // String: value reference, hash, coder and hashIsZero
+        assertEquals(24, Footprint.objectSize(1, 1, 0, 2));
+        assertEquals(32, Footprint.objectSize(2, 1, 1, 0));
+        assertEquals(16, Footprint.arraySize(0, Footprint.REFERENCE));
+        assertEquals(32, Footprint.arraySize(3, 4));
+        assertEquals(56, Footprint.arraySize(10, Footprint.REFERENCE));
+        assertEquals(24, Footprint.arraySize(1, 8));
+    }
+
+    @Test
+    void listSizesAssumeGrowthFromTen(){
+        assertEquals(24, Footprint.arrayListSize(0));
+        assertEquals(24 + 56, Footprint.arrayListSize(10));
+        // grows to 15
+        assertEquals(24 + 80, Footprint.arrayListSize(11));
+        assertEquals(0, Footprint.listSize(null));
+        assertEquals(0, Footprint.listSize(Collections.emptyList()));
+        List<Integer> list = new ArrayList<>(List.of(1, 2, 3));
+        assertEquals(80, Footprint.listSize(list));
+        assertEquals(24 + 80, Footprint.listSize(Collections.unmodifiableList(list)));
+        assertEquals(32 + 24 + 16, Footprint.tupleSize(2));
+    }
+
+    @Test
+    void valueSizesSkipCachedBoxes(){
+        assertEquals(0, Footprint.valueSize(null));
+        assertEquals(0, Footprint.valueSize(true));
+        assertEquals(0, Footprint.valueSize(100));
+        assertEquals(0, Footprint.valueSize(-128L));
+        assertEquals(16, Footprint.valueSize(1000));
+        assertEquals(24, Footprint.valueSize(1000L));
+        assertEquals(0, Footprint.valueSize('a'));
+        assertEquals(16, Footprint.valueSize('é'));
+        assertEquals(16, Footprint.valueSize(1.5f));
+        assertEquals(24, Footprint.valueSize(1.5));
+        assertEquals(24 + 24, Footprint.valueSize("abcde"));
+        assertEquals(24 + 32, Footprint.valueSize("中文字符串"));
+        assertEquals(40, Footprint.valueSize(new double[3]));
+        assertEquals(32, Footprint.valueSize(new int[4]));
+        assertEquals(16, Footprint.valueSize(new Object()));
+    }
+
+    @Test
+    void categoriesAddUpToTotal(){
+        Footprint footprint = new Footprint();
+        footprint.add(Footprint.Category.SLOTS, 40);
+        footprint.addNode(24);
+        footprint.addNodes(3, 96);
+        footprint.add(Footprint.Category.KEYS, 16);
+        assertEquals(120, footprint.getBytes(Footprint.Category.NODES));
+        assertEquals(176, footprint.getTotalBytes());
+        assertEquals(4, footprint.getNodeCount());
+        Map<String, Long> map = footprint.toMap();
+        assertEquals(List.of("nodes", "slots", "keys", "child_lists", "payloads", "total", "node_count"), new ArrayList<>(map.keySet()));
+        assertEquals(120L, map.get("nodes"));
+        assertEquals(176L, map.get("total"));
+        assertEquals(4L, map.get("node_count"));
+    }
+
+    @Test
+    void treesCountEveryNode(){
+        BinarySearchTree<Integer, Integer> tree = new BinarySearchTree<>();
+        for(int key = 0; key < 500; key += 3)
+            tree.insert(key * 7919 % 1000);
+        Footprint footprint = tree.footprint();
+        assertEquals(tree.getTreeSize(), footprint.getNodeCount());
+        assertEquals(tree.getTreeSize() * tree.getNode(0).shallowSize(), footprint.getBytes(Footprint.Category.NODES));
+        tree.remove(tree.getKey(0));
+        assertEquals(footprint.getNodeCount() - 1, tree.footprint().getNodeCount());
+        assertEquals(2 * 100 - 1, new SegmentTree(new double[100]).footprint().getNodeCount());
+    }
+
+}
@@ -0,0 +1,105 @@
+package JTreeLib.util;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Randomized checks of <i>KeySlotIndex</i> against a map from key to set of slots, and of <i>BinaryTree.search</i>
+ * with the index enabled against a scan of slots
+ */
+class KeySlotIndexTest {
+
+    /** Key whose hash codes collide in groups, so probe runs grow long and wrap around the table
+     */
+    static final class Colliding {
+        final int value;
+
+        Colliding(int value){ this.value = value; }
+
+        @Override
+        public boolean equals(Object other){ return other instanceof Colliding && ((Colliding)other).value == this.value; }
+
+        @Override
+        public int hashCode(){ return this.value % 3; }
+    }
+
+    @Test
+    void findAddAndRemoveMatchMultimap(){
+        Random random = new Random(33);
+        for(boolean colliding : new boolean[]{false, true}){
+            KeySlotIndex<Object> index = new KeySlotIndex<>(0);
+            Map<Object, TreeSet<Integer>> expected = new HashMap<>();
+            int entries = 0;
+            for(int step = 0; step < 20000; step++){
+                int value = random.nextInt(200), slot = random.nextInt(50);
+                Object key = colliding ? new Colliding(value) : Integer.valueOf(value);
+                TreeSet<Integer> slots = expected.computeIfAbsent(key, k -> new TreeSet<>());
+                // adds outnumber removals for the first half, then the index drains
+                if(random.nextInt(10) < (step < 10000 ? 6 : 3) && slots.add(slot)){
+                    index.add(key, slot);
+                    ++entries;
+                } else {
+                    boolean removed = slots.remove(slot);
+                    assertEquals(removed, index.remove(key, slot), "step=" + step);
+                    entries -= removed ? 1 : 0;
+                }
+                assertEquals(entries, index.size(), "step=" + step);
+                assertEquals(slots.isEmpty() ? -1 : slots.first(), index.find(key), "step=" + step);
+                if(step % 1000 == 0)
+                    for(Map.Entry<Object, TreeSet<Integer>> entry : expected.entrySet())
+                        assertEquals(entry.getValue().isEmpty() ? -1 : entry.getValue().first(), index.find(entry.getKey()), "step=" + step);
+            }
+            index.clear();
+            assertEquals(0, index.size());
+            assertEquals(-1, index.find(colliding ? new Colliding(1) : Integer.valueOf(1)));
+        }
+    }
+
+    @Test
+    void treeSearchFollowsEveryMutator(){
+        Random random = new Random(34);
+        BinaryTree<Integer, Integer> tree = new BinaryTree<>();
+        for(int i = 0; i < 63; i++)
+            tree.setNode(i, new BinaryNode<>(random.nextInt(20)));
+        tree.enableKeyIndex();
+        assertTrue(tree.hasKeyIndex());
+        for(int step = 0; step < 3000; step++){
+            int index = random.nextInt(63), key = random.nextInt(20);
+            switch(random.nextInt(5)){
+                case 0:
+                    tree.setKey(index, key);
+                    break;
+                case 1:
+                    tree.remove(Integer.valueOf(key));
+                    break;
+                case 2:
+                    if(tree.hasNode(index) && index > 0 && random.nextInt(4) == 0)
+                        tree.removeSubtree(index);
+                    break;
+                case 3:
+                    if(tree.hasNode(index) && index > 0)
+                        tree.insertSubtree(index, BinaryTreeTest.complete(3));
+                    break;
+                default:
+                    if(index == 0 || tree.hasNode(BinaryTree.getParentIndex(index)))
+                        tree.setNode(index, new BinaryNode<>(key));
+            }
+            for(int k = 0; k < 20; k++){
+                int scan = -1;
+                for(int i = 0; scan == -1 && i < tree.tree.size(); i++)
+                    if(tree.hasNode(i) && tree.getKey(i) == k)
+                        scan = i;
+                assertEquals(scan, tree.search(k), "step=" + step + " key=" + k);
+            }
+            if(!tree.hasNode(0))
+                tree.setNode(0, new BinaryNode<>(key));
+        }
+        tree.disableKeyIndex();
+        assertFalse(tree.hasKeyIndex());
+    }
+
+}
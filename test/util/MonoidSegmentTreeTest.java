@@ -0,0 +1,81 @@
+package JTreeLib.util;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Randomized checks of <i>MonoidSegmentTree</i> and its primitive variants against a plain array
+ */
+class MonoidSegmentTreeTest {
+
+    /** Finds greatest common divisor directly
+     * @param a First value
+     * @param b Second value
+     * @return Non-negative greatest common divisor
+     */
+    static long gcd(long a, long b){ return b == 0 ? Math.abs(a) : gcd(b, a % b); }
+
+    @Test
+    void queriesMatchArray(){
+        Random random = new Random(7);
+        for(int n = 1; n <= 70; n++){
+            String[] strings = new String[n];
+            long[] longs = new long[n];
+            int[] ints = new int[n];
+            double[] doubles = new double[n];
+            for(int i = 0; i < n; i++){
+                strings[i] = String.valueOf((char)('a' + random.nextInt(26)));
+                longs[i] = random.nextInt(200) - 100;
+                ints[i] = (int)longs[i];
+                doubles[i] = longs[i];
+            }
+            MonoidSegmentTree<String> concat = new MonoidSegmentTree<>(strings.clone(), "", String::concat);
+            LongMonoidSegmentTree min = LongMonoidSegmentTree.min(longs), gcd = LongMonoidSegmentTree.gcd(longs), xor = LongMonoidSegmentTree.xor(longs);
+            IntMonoidSegmentTree max = IntMonoidSegmentTree.max(ints);
+            DoubleMonoidSegmentTree sum = DoubleMonoidSegmentTree.sum(doubles);
+            for(int q = 0; q < 300; q++){
+                int x = random.nextInt(n), y = random.nextInt(n), low = Math.min(x, y), high = Math.max(x, y);
+                if(random.nextBoolean()){
+                    strings[x] = String.valueOf((char)('a' + random.nextInt(26)));
+                    longs[x] = random.nextInt(200) - 100;
+                    ints[x] = (int)longs[x];
+                    doubles[x] = longs[x];
+                    concat.set(x, strings[x]);
+                    min.set(x, longs[x]);
+                    gcd.set(x, longs[x]);
+                    xor.set(x, longs[x]);
+                    max.set(x, ints[x]);
+                    sum.set(x, doubles[x]);
+                }
+                StringBuilder expectedConcat = new StringBuilder();
+                long expectedMin = Long.MAX_VALUE, expectedGcd = 0, expectedXor = 0;
+                int expectedMax = Integer.MIN_VALUE;
+                double expectedSum = 0;
+                for(int i = low; i <= high; i++){
+                    expectedConcat.append(strings[i]);
+                    expectedMin = Math.min(expectedMin, longs[i]);
+                    expectedGcd = gcd(expectedGcd, longs[i]);
+                    expectedXor ^= longs[i];
+                    expectedMax = Math.max(expectedMax, ints[i]);
+                    expectedSum += doubles[i];
+                }
+                String message = "n=" + n + " q=" + q;
+                assertEquals(expectedConcat.toString(), concat.query(low, high), message);
+                assertEquals(expectedMin, min.query(low, high), message);
+                assertEquals(expectedGcd, gcd.query(low, high), message);
+                assertEquals(expectedXor, xor.query(low, high), message);
+                assertEquals(expectedMax, max.query(low, high), message);
+                assertEquals(expectedSum, sum.query(low, high), message);
+            }
+        }
+    }
+
+    @Test
+    void emptyAndOutOfBoundsRangesGiveIdentity(){
+        MonoidSegmentTree<String> concat = new MonoidSegmentTree<>(new String[]{"a", "b", "c"}, "", String::concat);
+        assertEquals("", concat.query(1, 0));
+        assertEquals("", concat.query(0, 3));
+        assertEquals("abc", concat.query(0, 2));
+        assertEquals(Long.MAX_VALUE, LongMonoidSegmentTree.min(new long[0]).query(0, 0));
+    }
+
+}
@@ -0,0 +1,106 @@
+package JTreeLib.util;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Checks of <i>MultiQueue</i> that every offered element is polled exactly once, alone and under concurrent use
+ */
+class MultiQueueTest {
+
+    @Test
+    void singleShardPollsInOrder(){
+        Random random = new Random(39);
+        MultiQueue<Integer> queue = new MultiQueue<>(1, 1, Comparator.reverseOrder());
+        assertEquals(1, queue.getShardCount());
+        List<Integer> expected = new ArrayList<>();
+        for(int i = 0; i < 1000; i++){
+            int element = random.nextInt(500);
+            expected.add(element);
+            assertTrue(queue.offer(element));
+        }
+        assertFalse(queue.offer(null));
+        expected.sort(Comparator.reverseOrder());
+        assertEquals(1000, queue.size());
+        assertEquals(expected.get(0), queue.peek());
+        for(int i = 0; i < 1000; i++)
+            assertEquals(expected.get(i), queue.poll(), "i=" + i);
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+        assertNull(queue.peek());
+    }
+
+    @Test
+    void everyElementIsPolledOnceAndEmptyAfterClear(){
+        MultiQueue<Integer> queue = new MultiQueue<>(4);
+        assertEquals(4 * MultiQueue.DEFAULT_SHARDS_PER_THREAD, queue.getShardCount());
+        for(int i = 0; i < 2000; i++)
+            queue.offer(i);
+        assertEquals(2000, queue.size());
+        boolean[] seen = new boolean[2000];
+        for(int i = 0; i < 1000; i++){
+            int element = queue.poll();
+            assertFalse(seen[element], "element=" + element);
+            seen[element] = true;
+        }
+        assertEquals(1000, queue.size());
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    void concurrentOffersAndPollsLoseNothing() throws InterruptedException {
+        int threads = 8, perThread = 20000;
+        MultiQueue<Integer> queue = new MultiQueue<>(threads, 1, null);
+        ConcurrentLinkedQueue<Integer> polled = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        AtomicInteger offered = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for(int t = 0; t < threads; t++){
+            int base = t * perThread;
+            // half the threads only offer, the other half offer and poll in turn, so locks are contended both ways
+            boolean polls = t % 2 == 1;
+            Thread worker = new Thread(() -> {
+                try{
+                    start.await();
+                    for(int i = 0; i < perThread; i++){
+                        queue.offer(base + i);
+                        offered.incrementAndGet();
+                        Integer element = polls ? queue.poll() : null;
+                        if(element != null)
+                            polled.add(element);
+                    }
+                } catch(Throwable failure){
+                    failures.add(failure);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for(Thread worker : workers)
+            worker.join();
+        assertTrue(failures.isEmpty(), failures.toString());
+        assertEquals(threads * perThread, offered.get());
+        for(Integer element = queue.poll(); element != null; element = queue.poll())
+            polled.add(element);
+        boolean[] seen = new boolean[threads * perThread];
+        for(int element : polled){
+            assertFalse(seen[element], "element=" + element);
+            seen[element] = true;
+        }
+        assertEquals(threads * perThread, polled.size());
+        assertTrue(queue.isEmpty());
+    }
+
+}
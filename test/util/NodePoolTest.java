@@ -0,0 +1,126 @@
+package JTreeLib.util;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Checks that a <i>NodePool</i> only ever holds <i>BinaryNode</i> that no tree slot references
+ */
+class NodePoolTest {
+
+    /** Empties pool and checks that none of its nodes is still stored in a slot of any of <i>trees</i>
+     * @param pool Pool to drain
+     * @param trees Trees whose slots must not hold pooled nodes
+     * @return Number of nodes drained
+     */
+    @SafeVarargs
+    static int drainDisjoint(NodePool<Integer, Integer> pool, BinaryTree<Integer, Integer>... trees){
+        Set<Node<Integer>> stored = Collections.newSetFromMap(new IdentityHashMap<>());
+        for(BinaryTree<Integer, Integer> tree : trees)
+            for(Node<Integer> node : tree.tree)
+                if(node != null)
+                    assertTrue(stored.add(node), "node stored in two slots");
+        int drained = 0;
+        for(BinaryNode<Integer, Integer> node = pool.acquire(null); node != null; node = pool.acquire(null), drained++)
+            assertFalse(stored.contains(node), "pooled node still stored at slot " + trees[0].tree.indexOf(node));
+        return drained;
+    }
+
+    @Test
+    void releasedNodesAreNeverStoredInSlots(){
+        Random random = new Random(36);
+        NodePool<Integer, Integer> pool = new NodePool<>();
+        BinarySearchTree<Integer, Integer> tree = new BinarySearchTree<>();
+        tree.setNodePool(pool);
+        TreeSet<Integer> expected = new TreeSet<>(BinarySearchTreeTest.ORDER);
+        int recycled = 0;
+        for(int step = 0; step < 4000; step++){
+            if(step == 2000)
+                tree.setTombstoneMode(true);
+            int key = random.nextInt(300);
+            switch(random.nextInt(4)){
+                case 0:
+                    List<Integer> batch = new ArrayList<>();
+                    for(int i = 0; i < 40; i++)
+                        batch.add(random.nextInt(300));
+                    expected.addAll(batch);
+                    tree.insertAll(batch);
+                    break;
+                case 1:
+                    assertEquals(expected.remove(key), tree.remove(Integer.valueOf(key)), "step=" + step);
+                    break;
+                default:
+                    assertEquals(expected.add(key), tree.insert(key), "step=" + step);
+            }
+            if(step % 100 == 99){
+                BinarySearchTreeTest.assertSameKeys(expected, tree, "step=" + step);
+                recycled += drainDisjoint(pool, tree);
+            }
+        }
+        assertTrue(recycled > 0);
+    }
+
+    @Test
+    void insertSubtreeAtRootCopiesNodes(){
+        NodePool<Integer, Integer> pool = new NodePool<>();
+        BinaryTree<Integer, Integer> tree = BinaryTreeTest.complete(7), subtree = BinaryTreeTest.complete(3);
+        tree.setNodePool(pool);
+        assertTrue(tree.insertSubtree(0, subtree));
+        assertEquals(7, drainDisjoint(pool, tree, subtree));
+        assertTrue(tree.removeSubtree(1));
+        assertEquals(1, drainDisjoint(pool, tree, subtree));
+        assertEquals(Set.of(0, 1, 2), BinaryTreeTest.keysWithoutOrphans(subtree));
+        assertEquals(Set.of(0, 2), BinaryTreeTest.keysWithoutOrphans(tree));
+    }
+
+    @Test
+    void avlTreeLeavesOtherNodeTypesPooled(){
+        NodePool<Integer, Integer> pool = new NodePool<>();
+        AVLTree<Integer, Integer> tree = new AVLTree<>();
+        tree.setNodePool(pool);
+        BinaryNode<Integer, Integer> plain = new BinaryNode<>(7);
+        pool.release(plain);
+        assertTrue(tree.insert(1));
+        assertEquals(1, pool.size());
+        AVLNode<Integer, Integer> recycled = new AVLNode<>(9);
+        pool.release(recycled);
+        assertTrue(tree.insert(2));
+        assertSame(recycled, tree.getNode(tree.search(2)));
+        assertSame(plain, pool.acquire(3));
+        assertNull(pool.acquire(3));
+    }
+
+    @Test
+    void failedInsertReturnsItsNode(){
+        NodePool<Integer, Integer> pool = new NodePool<>();
+        BinarySearchTree<Integer, Integer> tree = new BinarySearchTree<>();
+        tree.setNodePool(pool);
+        assertTrue(tree.insert(1));
+        assertFalse(tree.insert(1));
+        assertEquals(1, pool.size());
+        assertEquals(1, drainDisjoint(pool, tree));
+    }
+
+    @Test
+    void retentionLimitCapsKeptNodes(){
+        NodePool<Integer, Integer> pool = new NodePool<>(2);
+        assertTrue(pool.release(new BinaryNode<>(1)));
+        assertTrue(pool.release(new BinaryNode<>(2)));
+        assertFalse(pool.release(new BinaryNode<>(3)));
+        assertFalse(pool.release(null));
+        pool.setRetentionLimit(1);
+        assertEquals(1, pool.size());
+        assertEquals(1, (int)pool.acquire(1).getKey());
+        assertEquals(0, new NodePool<Integer, Integer>(-5).getRetentionLimit());
+    }
+
+}
@@ -0,0 +1,59 @@
+package JTreeLib.util;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Randomized checks of <i>PersistentSegmentTree</i> against a copy of the array kept for every version
+ */
+class PersistentSegmentTreeTest {
+
+    @Test
+    void branchesFromOldVersionsLeaveThemIntact(){
+        Random random = new Random(13);
+        for(int n = 1; n <= 70; n++){
+            List<double[]> history = new ArrayList<>();
+            double[] arr = new double[n];
+            for(int i = 0; i < n; i++)
+                arr[i] = random.nextInt(100);
+            PersistentSegmentTree tree = new PersistentSegmentTree(arr);
+            history.add(arr.clone());
+            for(int q = 0; q < 200; q++){
+                // a third of updates branch from a random older version rather than the newest
+                int base = random.nextInt(3) == 0 ? random.nextInt(history.size()) : history.size() - 1;
+                int index = random.nextInt(n);
+                double value = random.nextInt(100);
+                double[] next = history.get(base).clone();
+                next[index] = value;
+                int version = base == history.size() - 1 && random.nextBoolean() ? tree.update(index, value) : tree.update(base, index, value);
+                assertEquals(history.size(), version, "n=" + n + " q=" + q);
+                history.add(next);
+                for(int c = 0; c < 5; c++){
+                    int checked = random.nextInt(history.size()), x = random.nextInt(n), y = random.nextInt(n);
+                    int low = Math.min(x, y), high = Math.max(x, y);
+                    double[] expected = history.get(checked);
+                    assertEquals(FlatSegmentTreeTest.sum(expected, low, high), tree.sum(checked, low, high), "n=" + n + " version=" + checked);
+                    assertEquals(expected[x], tree.get(checked, x), "n=" + n + " version=" + checked);
+                }
+            }
+            assertEquals(-1, tree.update(0, n, 1));
+            assertEquals(-1, tree.update(tree.getVersionCount(), 0, 1));
+            assertEquals(-1, tree.sum(tree.getVersionCount(), 0, 0));
+        }
+    }
+
+    @Test
+    void updatesCopyOnlyOnePath(){
+        int n = 1 << 10;
+        PersistentSegmentTree tree = new PersistentSegmentTree(new double[n]);
+        int nodes = tree.getNodeCount();
+        assertEquals(2 * n - 1, nodes);
+        for(int i = 0; i < 100; i++)
+            tree.update(i * 7 % n, i);
+        assertEquals(nodes + 100 * 11, tree.getNodeCount());
+        assertEquals(0, tree.sum(0, 0, n - 1));
+        assertEquals(4950, tree.sum(0, n - 1));
+    }
+
+}
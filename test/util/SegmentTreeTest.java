@@ -0,0 +1,79 @@
+package JTreeLib.util;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Randomized checks of <i>SegmentTree</i> against a plain array
+ */
+class SegmentTreeTest {
+
+    /** Checks that every <i>BinaryNode</i> holds the sum and copy of its own range, and that leaves cover each element once
+     * @param tree Tree to check
+     * @param arr Expected array
+     * @param message Context for failures
+     */
+    static void assertNodesMatch(SegmentTree tree, double[] arr, String message){
+        int[] covered = new int[arr.length];
+        for(int index = 0; index < tree.getCurrentSize(); index++){
+            if(!tree.hasNode(index))
+                continue;
+            int low = tree.getLeftBound(index), high = tree.getRightBound(index);
+            assertEquals(FlatSegmentTreeTest.sum(arr, low, high), tree.getKey(index), message + " node=" + index);
+            assertArrayEquals(Arrays.copyOfRange(arr, low, high + 1), tree.getSubarray(index), message + " node=" + index);
+            if(tree.isLeaf(index))
+                ++covered[low];
+        }
+        for(int i = 0; i < arr.length; i++)
+            assertEquals(1, covered[i], message + " element=" + i);
+    }
+
+    @Test
+    void buildPlacesEveryLeafAndSum(){
+        Random random = new Random(42);
+        for(int n = 1; n <= 40; n++){
+            double[] arr = new double[n];
+            for(int i = 0; i < n; i++)
+                arr[i] = random.nextInt(100);
+            SegmentTree tree = new SegmentTree(arr.clone());
+            assertNodesMatch(tree, arr, "n=" + n);
+            assertEquals(2 * n - 1, tree.getTreeSize(), "n=" + n);
+            for(int low = 0; low < n; low++)
+                for(int high = low; high < n; high++)
+                    assertEquals(FlatSegmentTreeTest.sum(arr, low, high), tree.sum(0, low, high), "n=" + n);
+        }
+    }
+
+    @Test
+    void pairOfLeavesSplitsLeftAndRight(){
+        SegmentTree tree = new SegmentTree(new double[]{3, 4});
+        assertEquals(7, tree.getKey(0));
+        assertEquals(0, tree.getRightBound(1));
+        assertEquals(1, tree.getLeftBound(2));
+        assertEquals(4, tree.sum(0, 1, 1));
+    }
+
+    @Test
+    void updatesApplyDifferenceAlongPath(){
+        Random random = new Random(43);
+        for(int n = 1; n <= 40; n++){
+            double[] arr = new double[n];
+            for(int i = 0; i < n; i++)
+                arr[i] = random.nextInt(100);
+            SegmentTree tree = new SegmentTree(arr.clone());
+            for(int q = 0; q < 50; q++){
+                int index = random.nextInt(n), x = random.nextInt(n), y = random.nextInt(n);
+                arr[index] = random.nextInt(100) - 50;
+                assertTrue(tree.update(index, arr[index]));
+                assertEquals(FlatSegmentTreeTest.sum(arr, Math.min(x, y), Math.max(x, y)), tree.sum(0, Math.min(x, y), Math.max(x, y)), "n=" + n + " q=" + q);
+            }
+            assertNodesMatch(tree, arr, "n=" + n);
+            assertFalse(tree.update(n, 0));
+            assertEquals(-1, tree.sum(0, 0, n));
+        }
+    }
+
+}
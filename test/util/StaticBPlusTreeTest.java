@@ -0,0 +1,92 @@
+package JTreeLib.util;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Randomized checks of <i>StaticBPlusTree</i> against binary search over a sorted array
+ */
+class StaticBPlusTreeTest {
+
+    /** Sizes around multiples of the node size and of 17 children per node, where layers are added
+     */
+    static final int[] SIZES = {0, 1, 2, 15, 16, 17, 31, 32, 33, 100, 271, 272, 273, 288, 289, 1000, 4624, 4625, 5000, 80000};
+
+    @Test
+    void boundsSearchAndRangesMatchSortedArray(){
+        Random random = new Random(30);
+        for(int n : SIZES){
+            int[] keys = new int[n];
+            for(int i = 0; i < n; i++)
+                keys[i] = random.nextInt(4 * n + 2) - 2 * n - 1;
+            if(n > 2){
+                keys[0] = Integer.MAX_VALUE;
+                keys[1] = Integer.MIN_VALUE;
+            }
+            int[] sorted = keys.clone();
+            Arrays.sort(sorted);
+            long[] wide = Arrays.stream(sorted).asLongStream().toArray();
+            StaticBPlusTree tree = new StaticBPlusTree(keys);
+            assertEquals(n, tree.size());
+            for(int rank = 0; rank < n; rank++)
+                assertEquals(sorted[rank], tree.get(rank), "n=" + n + " rank=" + rank);
+            for(int q = 0; q < 300; q++){
+                int key = q < 2 ? (q == 0 ? Integer.MAX_VALUE : Integer.MIN_VALUE) : random.nextInt(4 * n + 6) - 2 * n - 3;
+                int lower = VanEmdeBoasTreeTest.bound(wide, key, false), upper = VanEmdeBoasTreeTest.bound(wide, key, true);
+                String message = "n=" + n + " key=" + key;
+                assertEquals(lower, tree.lowerBound(key), message);
+                assertEquals(upper, tree.upperBound(key), message);
+                boolean present = lower < n && sorted[lower] == key;
+                assertEquals(present ? lower : -1, tree.search(key), message);
+                assertEquals(present, tree.contains(key), message);
+                int to = key + random.nextInt(2 * n + 2);
+                if(to < key)
+                    to = Integer.MAX_VALUE;
+                List<Integer> expected = new ArrayList<>(), visited = new ArrayList<>();
+                for(int value : sorted)
+                    if(value >= key && value <= to)
+                        expected.add(value);
+                assertEquals(expected.size(), tree.rangeCount(key, to), message + " to=" + to);
+                assertEquals(expected.size(), tree.forEachInRange(key, to, visited::add), message + " to=" + to);
+                assertEquals(expected, visited, message + " to=" + to);
+            }
+            assertEquals(Integer.MIN_VALUE, tree.get(n));
+            assertEquals(0, tree.rangeCount(1, 0));
+            assertEquals(0, tree.forEachInRange(0, 1, null));
+        }
+    }
+
+    @Test
+    void buildsFromBinaryTreeKeys(){
+        BinarySearchTree<Integer, Integer> source = new BinarySearchTree<>();
+        for(int key = 0; key < 100; key += 3)
+            source.insert(key);
+        StaticBPlusTree tree = StaticBPlusTree.of(source, Integer::intValue);
+        assertEquals(source.getTreeSize(), tree.size());
+        assertTrue(tree.contains(42));
+        assertFalse(tree.contains(43));
+        assertEquals(0, StaticBPlusTree.of(null, Integer::intValue).size());
+        assertEquals(0, new StaticBPlusTree(null).lowerBound(5));
+    }
+
+    @Test
+    void nodeSearchMatchesScalarCount(){
+        // the vector profile sets this, so its build fails if the Vector API search did not load
+        assertEquals(Boolean.getBoolean("jtreelib.expectVectorized"), StaticBPlusTree.isVectorized());
+        Random random = new Random(31);
+        int[] node = new int[StaticBPlusTree.NODE_SIZE];
+        for(int q = 0; q < 1000; q++){
+            for(int j = 0; j < node.length; j++)
+                node[j] = random.nextInt(40) - 20;
+            Arrays.sort(node);
+            int key = random.nextInt(44) - 22;
+            StaticBPlusTree tree = new StaticBPlusTree(node);
+            assertEquals(StaticBPlusTree.countLess(node, 0, key), tree.lowerBound(key), "key=" + key);
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+package JTreeLib.util;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Checks of <i>TernaryTree</i> fork/join reductions against a recursive preorder walk
+ */
+class TernaryTreeTest {
+
+    /** Builds a complete tree whose slot <i>i</i> holds a <i>TernaryNode</i> with ID <i>i</i>
+     * @param size Number of slots to fill
+     * @return New <i>TernaryTree</i>
+     */
+    static TernaryTree<Integer, Integer> complete(int size){
+        TernaryTree<Integer, Integer> tree = new TernaryTree<>();
+        tree.tree = new ArrayList<>();
+        for(int i = 0; i < size; i++)
+            tree.tree.add(new TernaryNode<>(i));
+        return tree;
+    }
+
+    /** Collects IDs of subtree in VLR order by recursion
+     * @param tree Tree to walk
+     * @param index Index of subtree root
+     * @param output Receives visited IDs
+     */
+    static void walk(TernaryTree<Integer, Integer> tree, int index, List<Integer> output){
+        if(index >= tree.tree.size() || tree.tree.get(index) == null)
+            return;
+        output.add(tree.tree.get(index).getID());
+        for(int child = tree.getFirstChildIndex(index); child <= tree.getLastChildIndex(index); child++)
+            walk(tree, child, output);
+    }
+
+    @Test
+    void parallelReduceAndForEachMatchPreorder(){
+        for(int size : new int[]{1, 3, 4, 40, 1000, 3 * Tree.DEFAULT_PARALLEL_THRESHOLD})
+            for(int threshold : new int[]{1, 5, 64, Tree.DEFAULT_PARALLEL_THRESHOLD}){
+                TernaryTree<Integer, Integer> tree = complete(size);
+                List<Integer> expected = new ArrayList<>();
+                walk(tree, 0, expected);
+                String message = "size=" + size + " threshold=" + threshold;
+                assertEquals(expected, tree.reduce(List.<Integer>of(), node -> List.of(node.getID()), BinaryTreeTest::concat, threshold), message);
+                ConcurrentLinkedQueue<Integer> visited = new ConcurrentLinkedQueue<>();
+                tree.forEachParallel(node -> visited.add(node.getID()), threshold);
+                List<Integer> sorted = new ArrayList<>(visited);
+                Collections.sort(sorted);
+                Collections.sort(expected);
+                assertEquals(expected, sorted, message);
+            }
+    }
+
+    @Test
+    void parallelReduceSkipsEmptySlots(){
+        TernaryTree<Integer, Integer> tree = complete(40);
+        // empties slot 2 and its whole subtree
+        for(int index : new int[]{2, 7, 8, 9, 22, 23, 24, 25, 26, 27, 28, 29, 30})
+            tree.tree.set(index, null);
+        List<Integer> expected = new ArrayList<>();
+        walk(tree, 0, expected);
+        assertEquals(expected, tree.reduce(List.<Integer>of(), node -> List.of(node.getID()), BinaryTreeTest::concat, 1));
+        assertEquals(7, new TernaryTree<Integer, Integer>().reduce(7, node -> 0, Integer::sum));
+    }
+
+}
@@ -0,0 +1,90 @@
+package JTreeLib.util;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Randomized checks of <i>VanEmdeBoasTree</i> against binary search over a sorted array
+ */
+class VanEmdeBoasTreeTest {
+
+    /** Finds position of first key of <i>sorted</i> not less than, or if <i>strict</i> greater than, <i>key</i>
+     * @param sorted Keys in ascending order
+     * @param key Key to search for
+     * @param strict Whether keys equal to <i>key</i> are skipped
+     * @return Position in <i>sorted</i>, or its length
+     */
+    static int bound(long[] sorted, long key, boolean strict){
+        int low = 0, high = sorted.length;
+        while(low < high){
+            int middle = (low + high) >>> 1;
+            if(sorted[middle] < key || strict && sorted[middle] == key)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    /** Draws keys with repeats and extremes, in random order
+     * @param random Source of keys
+     * @param n Number of keys
+     * @param range Keys fall in [-range, range) apart from the extremes
+     * @return Unsorted keys
+     */
+    static long[] randomKeys(Random random, int n, int range){
+        long[] keys = new long[n];
+        for(int i = 0; i < n; i++)
+            keys[i] = random.nextInt(2 * range) - range;
+        if(n > 2){
+            keys[0] = Long.MAX_VALUE;
+            keys[1] = Long.MIN_VALUE;
+        }
+        return keys;
+    }
+
+    /** Sizes around powers of two, where the padded perfect tree changes height
+     */
+    static final int[] SIZES = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 15, 16, 17, 31, 32, 33, 63, 64, 65, 100, 255, 256, 1000, 4095, 4096, 5000};
+
+    @Test
+    void boundsAndSearchMatchSortedArray(){
+        Random random = new Random(28);
+        for(int n : SIZES){
+            long[] keys = randomKeys(random, n, 2 * n + 1), sorted = keys.clone();
+            Arrays.sort(sorted);
+            VanEmdeBoasTree tree = new VanEmdeBoasTree(keys);
+            assertEquals(n, tree.size());
+            for(int rank = 0; rank < n; rank++)
+                assertEquals(sorted[rank], tree.get(rank), "n=" + n + " rank=" + rank);
+            for(int q = 0; q < 200; q++){
+                long key = q < 2 ? (q == 0 ? Long.MAX_VALUE : Long.MIN_VALUE) : random.nextInt(4 * n + 4) - 2 * n - 2;
+                int lower = bound(sorted, key, false);
+                String message = "n=" + n + " key=" + key;
+                assertEquals(lower, tree.lowerBound(key), message);
+                assertEquals(bound(sorted, key, true), tree.upperBound(key), message);
+                boolean present = lower < n && sorted[lower] == key;
+                assertEquals(present ? lower : -1, tree.search(key), message);
+                assertEquals(present, tree.contains(key), message);
+            }
+            assertEquals(Long.MIN_VALUE, tree.get(n));
+            assertEquals(Long.MIN_VALUE, tree.get(-1));
+        }
+    }
+
+    @Test
+    void buildsFromBinaryTreeKeys(){
+        BinarySearchTree<Integer, Integer> source = new BinarySearchTree<>();
+        for(int key = 0; key < 100; key += 3)
+            source.insert(key);
+        VanEmdeBoasTree tree = VanEmdeBoasTree.of(source, Integer::longValue);
+        assertEquals(source.getTreeSize(), tree.size());
+        assertTrue(tree.contains(33));
+        assertFalse(tree.contains(34));
+        assertEquals(0, VanEmdeBoasTree.of(null, Integer::longValue).size());
+        assertEquals(0, new VanEmdeBoasTree(null).lowerBound(5));
+    }
+
+}